@@ -33,6 +33,11 @@ public class FixedNamespaceStateRepository implements StateRepository {
         return withinNamespace(namespace, () -> decorated.getFeatureState(feature));
     }
 
+    @Override
+    public FeatureState getSharedFeatureState(final Feature feature) {
+        return withinNamespace(namespace, () -> decorated.getSharedFeatureState(feature));
+    }
+
     @Override
     public void setFeatureState(final FeatureState featureState) {
         withinNamespace(namespace, new VoidWork() {
@@ -34,6 +34,13 @@ public class MemcacheStateRepository implements StateRepository {
 
     @Override
     public FeatureState getFeatureState(Feature feature) {
+        FeatureState featureState = getSharedFeatureState(feature);
+        // states cached from the delegate may be immutable
+        return featureState != null && featureState.isImmutable() ? featureState.copy() : featureState;
+    }
+
+    @Override
+    public FeatureState getSharedFeatureState(Feature feature) {
         // first try to find it from the cache
         CacheEntry entry = (CacheEntry) cache.get(key(feature.name()));
         if (entry != null) {
@@ -41,7 +48,7 @@ public class MemcacheStateRepository implements StateRepository {
         }
 
         // no cache hit
-        FeatureState featureState = delegate.getFeatureState(feature);
+        FeatureState featureState = delegate.getSharedFeatureState(feature);
 
         // cache the result (may be null)
         cache.put(key(feature.name()), new CacheEntry(featureState), getExpiration());
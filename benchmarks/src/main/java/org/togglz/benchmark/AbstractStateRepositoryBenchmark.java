@@ -35,13 +35,15 @@ public abstract class AbstractStateRepositoryBenchmark {
 
 
     // a simple feature for this benchmark
-    private enum Features implements Feature {
+    enum Features implements Feature {
         FEATURE_STATE_SET,
         FEATURE_STATE_NOT_SET
     }
 
     FeatureManager manager;
 
+    StateRepository stateRepository;
+
     public abstract StateRepository initializeStateRepository() throws Exception;
 
     // override this if you need to clean stuff up;
@@ -50,7 +52,7 @@ public abstract class AbstractStateRepositoryBenchmark {
 
     @Setup(Level.Trial)
     public void setupFeatureManager() throws Exception {
-        StateRepository stateRepository = initializeStateRepository();
+        stateRepository = initializeStateRepository();
         stateRepository.setFeatureState(new FeatureState(Features.FEATURE_STATE_SET, true));
 
         FeatureManager featureManager = new FeatureManagerBuilder()
@@ -1,5 +1,6 @@
 package org.togglz.benchmark;
 
+import java.lang.reflect.Proxy;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -22,8 +23,11 @@ import org.togglz.core.context.StaticFeatureManagerProvider;
 import org.togglz.core.manager.FeatureManager;
 import org.togglz.core.manager.FeatureManagerBuilder;
 import org.togglz.core.proxy.ByteBuddyProxyFactory;
+import org.togglz.core.proxy.MethodHandleFeatureProxyInvocationHandler;
 import org.togglz.core.proxy.TogglzSwitchable;
+import org.togglz.core.proxy.TogglzSwitchableNotifier;
 import org.togglz.core.repository.FeatureState;
+import org.togglz.core.repository.listener.ListenableStateRepository;
 import org.togglz.core.repository.mem.InMemoryStateRepository;
 import org.togglz.core.user.NoOpUserProvider;
 
@@ -42,8 +46,10 @@ public class ByteBuddyProxyBenchmark {
 
   Supplier<String> passiveProxy;
   Supplier<String> proxy;
+  Supplier<String> changeDrivenProxy;
   Supplier<String> handCoded;
   Supplier<String> handCoded2;
+  Supplier<String> passiveJdkProxy;
 
   FeatureManager featureManager;
 
@@ -84,10 +90,11 @@ public class ByteBuddyProxyBenchmark {
   @Setup(Level.Trial)
   public void setupFeatureManager() {
 
-    // create an in-memory state repository for our feature
+    // create an in-memory state repository for our feature which notifies change-driven proxies
+    TogglzSwitchableNotifier notifier = new TogglzSwitchableNotifier();
     featureManager = new FeatureManagerBuilder()
       .featureEnums(ProxyFeature.class)
-      .stateRepository(new InMemoryStateRepository())
+      .stateRepository(new ListenableStateRepository(new InMemoryStateRepository(), notifier))
       .userProvider(new NoOpUserProvider())
       .build();
     // set the StaticFeatureManagerProvider to use this feature manager
@@ -98,10 +105,17 @@ public class ByteBuddyProxyBenchmark {
       ProxyFeature.ENABLED, Supplier.class, sayHello, sayWorld, featureManager);
     passiveProxy = ByteBuddyProxyFactory.passiveProxyFor(
       ProxyFeature.ENABLED, Supplier.class, sayHello, sayWorld, featureManager);
+    changeDrivenProxy = ByteBuddyProxyFactory.changeDrivenProxyFor(
+      ProxyFeature.ENABLED, Supplier.class, sayHello, sayWorld, featureManager, notifier);
 
     handCoded = new HandCodedSwitchable(
       featureManager, ProxyFeature.ENABLED, sayHello, sayWorld);
     handCoded2 = new HandCodedSwitchable2(featureManager, ProxyFeature.ENABLED, sayHello, sayWorld);
+    passiveJdkProxy = (Supplier<String>) Proxy.newProxyInstance(
+      this.getClass().getClassLoader(),
+      new Class[] {Supplier.class},
+      new MethodHandleFeatureProxyInvocationHandler(
+        ProxyFeature.ENABLED, sayHello, sayWorld, featureManager, MethodHandleFeatureProxyInvocationHandler.Evaluation.PASSIVE));
 
     featureManager.setFeatureState(new FeatureState(ProxyFeature.ENABLED, true));
   }
@@ -118,6 +132,18 @@ public class ByteBuddyProxyBenchmark {
     return passiveProxy.get();
   }
 
+  @Benchmark
+  // Full auto-generated proxy which is updated when the feature state changes
+  public String changeDrivenProxy() {
+    return changeDrivenProxy.get();
+  }
+
+  @Benchmark
+  // Passive JDK proxy using method handles for comparison with the generated passive proxy
+  public String passiveMethodHandleJdkProxy() {
+    return passiveJdkProxy.get();
+  }
+
   @Benchmark
   // Same design as the auto-generated code to highlight any inefficiency in ByteBuddy solution.
   public String handCodedTogglzSwitchable() {
@@ -1,31 +1,54 @@
 package org.togglz.benchmark;
 
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.togglz.core.repository.FeatureState;
 import org.togglz.core.repository.StateRepository;
 import org.togglz.core.repository.cache.CachingStateRepository;
 import org.togglz.core.repository.mem.InMemoryStateRepository;
 
 /**
  * Test the performance of the CachingStateRepository when placed in front of an InMemoryStateRepository
- * to see what the overhead of the CachingStateRepository is.
+ * to see what the overhead of the CachingStateRepository is. The benchmark is executed with and without TTL and
+ * uses the GC profiler, so that <code>gc.alloc.rate.norm</code> shows the bytes allocated per lookup. A cache hit
+ * is expected to allocate nothing. Besides the evaluation through the feature manager, the shared read path used for
+ * evaluations is measured directly, because {@link StateRepository#getFeatureState(org.togglz.core.Feature)} returns
+ * a modifiable copy.
  *
  * @author Ryan Gardner
  * @date 5/31/16
  */
 public class CachingStateRepositoryBenchmark extends AbstractStateRepositoryBenchmark {
 
+    // TTL in milliseconds, 0 means that entries never expire
+    @Param({"0", "60000"})
+    public long ttl;
+
     @Override
     public StateRepository initializeStateRepository() throws Exception {
-        return new CachingStateRepository(new InMemoryStateRepository());
+        return new CachingStateRepository(new InMemoryStateRepository(), ttl);
+    }
+
+    @Benchmark
+    public FeatureState sharedStateCacheHit() {
+        return stateRepository.getSharedFeatureState(Features.FEATURE_STATE_SET);
+    }
+
+    @Benchmark
+    public FeatureState sharedStateNegativeCacheHit() {
+        return stateRepository.getSharedFeatureState(Features.FEATURE_STATE_NOT_SET);
     }
 
     // run this method to execute this test
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
                 .include(CachingStateRepositoryBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
                 .build();
 
         new Runner(opt).run();
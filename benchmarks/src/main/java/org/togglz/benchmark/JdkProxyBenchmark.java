@@ -23,6 +23,8 @@ import org.togglz.core.context.StaticFeatureManagerProvider;
 import org.togglz.core.manager.FeatureManager;
 import org.togglz.core.manager.FeatureManagerBuilder;
 import org.togglz.core.proxy.FeatureProxyInvocationHandler;
+import org.togglz.core.proxy.MethodHandleFeatureProxyInvocationHandler;
+import org.togglz.core.proxy.MethodHandleFeatureProxyInvocationHandler.Evaluation;
 import org.togglz.core.repository.FeatureState;
 import org.togglz.core.repository.mem.InMemoryStateRepository;
 import org.togglz.core.user.NoOpUserProvider;
@@ -41,6 +43,8 @@ public class JdkProxyBenchmark {
   private static final Supplier<String> sayWorld = () -> "World";
 
   Supplier<String> proxy;
+  Supplier<String> methodHandleProxy;
+  Supplier<String> passiveMethodHandleProxy;
   FeatureManager featureManager;
 
   private enum ProxyFeature implements Feature {
@@ -67,6 +71,18 @@ public class JdkProxyBenchmark {
       new FeatureProxyInvocationHandler(ProxyFeature.ENABLED, sayHello, sayWorld, featureManager)
     );
 
+    // Create JDK proxies using method handles
+    methodHandleProxy = (Supplier<String>)Proxy.newProxyInstance(
+      this.getClass().getClassLoader(),
+      new Class[] {Supplier.class},
+      new MethodHandleFeatureProxyInvocationHandler(ProxyFeature.ENABLED, sayHello, sayWorld, featureManager)
+    );
+    passiveMethodHandleProxy = (Supplier<String>)Proxy.newProxyInstance(
+      this.getClass().getClassLoader(),
+      new Class[] {Supplier.class},
+      new MethodHandleFeatureProxyInvocationHandler(ProxyFeature.ENABLED, sayHello, sayWorld, featureManager, Evaluation.PASSIVE)
+    );
+
     featureManager.setFeatureState(new FeatureState(ProxyFeature.ENABLED, true));
   }
 
@@ -75,6 +91,16 @@ public class JdkProxyBenchmark {
     return proxy.get();
   }
 
+  @Benchmark
+  public String methodHandleProxyCall() {
+    return methodHandleProxy.get();
+  }
+
+  @Benchmark
+  public String passiveMethodHandleProxyCall() {
+    return passiveMethodHandleProxy.get();
+  }
+
   @Benchmark
   public String directCall() {
     return sayHello.get();
@@ -5,6 +5,7 @@ import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -15,6 +16,7 @@ import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.togglz.core.Feature;
+import org.togglz.core.context.FeatureContext;
 import org.togglz.core.context.StaticFeatureManagerProvider;
 import org.togglz.core.manager.FeatureManager;
 import org.togglz.core.manager.FeatureManagerBuilder;
@@ -34,8 +36,13 @@ import java.util.concurrent.TimeUnit;
 @Threads(7)
 public class TogglzOverheadBenchmark {
     FeatureManager manager;
+    FeatureManager compiledManager;
     boolean enabled = false;
 
+    // the way FeatureContext caches the manager used by isActiveMethodOnEnum
+    @Param({"CONTEXT_CLASS_LOADER", "SINGLE_FEATURE_MANAGER", "THREAD"})
+    FeatureContext.CacheMode cacheMode;
+
     // a simple feature for this benchmark
     private enum OverheadFeature implements Feature {
         FEATURE
@@ -50,8 +57,15 @@ public class TogglzOverheadBenchmark {
                 .userProvider(new NoOpUserProvider())
                 .build();
         manager = featureManager;
+        compiledManager = new FeatureManagerBuilder()
+                .featureEnums(OverheadFeature.class)
+                .stateRepository(new InMemoryStateRepository())
+                .userProvider(new NoOpUserProvider())
+                .compiledEvaluation()
+                .build();
         // set the StaticFeatureManagerProvider to use this feature manager
         StaticFeatureManagerProvider.setFeatureManager(featureManager);
+        FeatureContext.setCacheMode(cacheMode);
     }
 
     // toggle the state between iterations to keep the compiler honest
@@ -59,6 +73,7 @@ public class TogglzOverheadBenchmark {
     public void toggleEnabledState() {
         enabled = !enabled;
         manager.setFeatureState(new FeatureState(OverheadFeature.FEATURE, enabled));
+        compiledManager.setFeatureState(new FeatureState(OverheadFeature.FEATURE, enabled));
     }
 
     @Benchmark
@@ -71,6 +86,11 @@ public class TogglzOverheadBenchmark {
         return (manager.isActive(OverheadFeature.FEATURE)) ? 1 : 0;
     }
 
+    @Benchmark
+    public int compiledFeatureManagerStateLookup() {
+        return (compiledManager.isActive(OverheadFeature.FEATURE)) ? 1 : 0;
+    }
+
     @Benchmark
     public int isActiveMethodOnEnum() {
         return (OverheadFeature.FEATURE.isActive()) ? 1 : 0;
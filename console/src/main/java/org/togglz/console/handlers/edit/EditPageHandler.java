@@ -19,7 +19,6 @@ import org.togglz.core.Feature;
 import org.togglz.core.manager.FeatureManager;
 import org.togglz.core.metadata.FeatureMetaData;
 import org.togglz.core.repository.FeatureState;
-import org.togglz.core.spi.ActivationStrategy;
 
 import com.floreysoft.jmte.Engine;
 import org.togglz.core.util.Services;
@@ -54,8 +53,7 @@ public class EditPageHandler extends RequestHandlerBase {
         }
 
         FeatureMetaData metadata = featureManager.getMetaData(feature);
-        List<ActivationStrategy> impls = featureManager.getActivationStrategies();
-        FeatureModel featureModel = new FeatureModel(feature, metadata, impls);
+        FeatureModel featureModel = new FeatureModel(feature, metadata, FeatureModel.strategyProvider(featureManager));
 
         // GET requests for this feature
         if ("GET".equals(request.getMethod())) {
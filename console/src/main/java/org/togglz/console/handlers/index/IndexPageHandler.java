@@ -10,11 +10,11 @@ import jakarta.servlet.http.Cookie;
 
 import org.togglz.console.RequestEvent;
 import org.togglz.console.RequestHandlerBase;
+import org.togglz.console.model.FeatureModel;
 import org.togglz.core.Feature;
 import org.togglz.core.manager.FeatureManager;
 import org.togglz.core.metadata.FeatureMetaData;
 import org.togglz.core.repository.FeatureState;
-import org.togglz.core.spi.ActivationStrategy;
 import org.togglz.core.util.Services;
 import org.togglz.servlet.spi.CSRFToken;
 import org.togglz.servlet.spi.CSRFTokenProvider;
@@ -48,9 +48,7 @@ public class IndexPageHandler extends RequestHandlerBase {
         }
         event.getResponse().addCookie(new Cookie("t", null));
 
-        List<ActivationStrategy> strategies = featureManager.getActivationStrategies();
-
-        IndexPageTabView tabView = new IndexPageTabView(strategies);
+        IndexPageTabView tabView = new IndexPageTabView(FeatureModel.strategyProvider(featureManager));
 
         for (Feature feature : featureManager.getFeatures()) {
             FeatureMetaData metadata = featureManager.getMetaData(feature);
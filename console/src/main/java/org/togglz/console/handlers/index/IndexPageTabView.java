@@ -8,6 +8,7 @@ import java.util.Map;
 
 import org.togglz.console.model.FeatureModel;
 import org.togglz.core.Feature;
+import org.togglz.core.activation.ActivationStrategyProvider;
 import org.togglz.core.metadata.FeatureGroup;
 import org.togglz.core.metadata.FeatureMetaData;
 import org.togglz.core.repository.FeatureState;
@@ -15,7 +16,7 @@ import org.togglz.core.spi.ActivationStrategy;
 
 public class IndexPageTabView {
 
-    private final List<ActivationStrategy> strategies;
+    private final ActivationStrategyProvider strategyProvider;
 
     private final IndexPageTab allTab;
 
@@ -26,14 +27,18 @@ public class IndexPageTabView {
     private int nextIndex = 0;
 
     public IndexPageTabView(List<ActivationStrategy> strategies) {
-        this.strategies = strategies;
+        this(() -> strategies);
+    }
+
+    public IndexPageTabView(ActivationStrategyProvider strategyProvider) {
+        this.strategyProvider = strategyProvider;
         allTab = IndexPageTab.allTab(nextIndex++);
         tabs.add(allTab);
     }
 
     public void add(Feature feature, FeatureMetaData metadata, FeatureState featureState) {
         // all features are shown in the ALL tab
-        FeatureModel row = new FeatureModel(feature, metadata, strategies);
+        FeatureModel row = new FeatureModel(feature, metadata, strategyProvider);
         row.populateFromFeatureState(featureState);
         allTab.add(row);
 
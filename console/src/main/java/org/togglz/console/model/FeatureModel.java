@@ -3,6 +3,7 @@ package org.togglz.console.model;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,7 +13,9 @@ import java.util.Set;
 import jakarta.servlet.http.HttpServletRequest;
 
 import org.togglz.core.Feature;
+import org.togglz.core.activation.ActivationStrategyProvider;
 import org.togglz.core.activation.Parameter;
+import org.togglz.core.manager.FeatureManager;
 import org.togglz.core.metadata.FeatureMetaData;
 import org.togglz.core.repository.FeatureState;
 import org.togglz.core.spi.ActivationStrategy;
@@ -29,19 +32,33 @@ public class FeatureModel {
 
     private final List<StrategyModel> strategies = new ArrayList<StrategyModel>();
 
+    private final Map<ActivationStrategy, StrategyModel> strategiesByImpl = new IdentityHashMap<ActivationStrategy, StrategyModel>();
+
+    private final ActivationStrategyProvider strategyProvider;
+
     private boolean enabled;
 
     private StrategyModel strategy;
 
     public FeatureModel(Feature feature, FeatureMetaData metadata, List<ActivationStrategy> impls) {
+        this(feature, metadata, () -> impls);
+    }
+
+    /**
+     * Creates the model of a feature. Strategy IDs are resolved using
+     * {@link ActivationStrategyProvider#getActivationStrategy(String)}, so the console matches the same IDs as the
+     * {@link FeatureManager} if the provider is created using {@link #strategyProvider(FeatureManager)}.
+     */
+    public FeatureModel(Feature feature, FeatureMetaData metadata, ActivationStrategyProvider strategyProvider) {
 
         this.feature = feature;
         this.metadata = metadata;
+        this.strategyProvider = strategyProvider;
 
         this.attributes = new LinkedHashMap<String, String>(metadata.getAttributes());
         this.infoLink = this.attributes.remove("InfoLink");
 
-        List<ActivationStrategy> sortedImpls = new ArrayList<ActivationStrategy>(impls);
+        List<ActivationStrategy> sortedImpls = new ArrayList<ActivationStrategy>(strategyProvider.getActivationStrategies());
         Collections.sort(sortedImpls, new Comparator<ActivationStrategy>() {
             @Override
             public int compare(ActivationStrategy o1, ActivationStrategy o2) {
@@ -56,6 +73,7 @@ public class FeatureModel {
             StrategyModel strategy = new StrategyModel(strategyIndex++, impl, this);
 
             this.strategies.add(strategy);
+            this.strategiesByImpl.put(impl, strategy);
 
             for (Parameter param : impl.getParameters()) {
                 strategy.add(new ParameterModel(paramIndex++, param, strategy));
@@ -65,6 +83,24 @@ public class FeatureModel {
 
     }
 
+    /**
+     * Returns a provider for the strategies known by the manager, which looks up strategies using
+     * {@link FeatureManager#getActivationStrategy(String)}.
+     */
+    public static ActivationStrategyProvider strategyProvider(FeatureManager featureManager) {
+        return new ActivationStrategyProvider() {
+            @Override
+            public List<ActivationStrategy> getActivationStrategies() {
+                return featureManager.getActivationStrategies();
+            }
+
+            @Override
+            public ActivationStrategy getActivationStrategy(String id) {
+                return featureManager.getActivationStrategy(id);
+            }
+        };
+    }
+
     public void populateFromFeatureState(FeatureState featureState) {
 
         String strategyId = Strings.trimToNull(featureState.getStrategyId());
@@ -110,12 +146,8 @@ public class FeatureModel {
     }
 
     private StrategyModel getStrategyById(String id) {
-        for (StrategyModel strategy : strategies) {
-            if (strategy.getId().equals(id)) {
-                return strategy;
-            }
-        }
-        return null;
+        ActivationStrategy impl = strategyProvider.getActivationStrategy(id);
+        return impl != null ? strategiesByImpl.get(impl) : null;
     }
 
     public List<ParameterModel> getParameters() {
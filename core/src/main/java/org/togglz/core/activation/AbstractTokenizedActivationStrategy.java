@@ -1,9 +1,10 @@
 package org.togglz.core.activation;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.togglz.core.repository.FeatureState;
-import org.togglz.core.spi.ActivationStrategy;
+import org.togglz.core.spi.ParsedParametersActivationStrategy;
 import org.togglz.core.user.FeatureUser;
 import org.togglz.core.util.Strings;
 
@@ -33,16 +34,30 @@ import org.togglz.core.util.Strings;
  *     return false;
  * }
  * </pre>
+ * <p>
+ * The tokens are parsed by {@link #parseParameters(FeatureState)}, so the feature manager only has to tokenize the
+ * parameter value again if the state of the feature is modified.
+ * </p>
  *
  * @author Alasdair Mercer
  * @see #getTokenParameterName()
  * @see #getTokenParameterTransformer()
  */
-public abstract class AbstractTokenizedActivationStrategy implements ActivationStrategy {
+public abstract class AbstractTokenizedActivationStrategy implements ParsedParametersActivationStrategy<List<AbstractTokenizedActivationStrategy.Token>> {
 
     @Override
     public final boolean isActive(FeatureState featureState, FeatureUser user) {
+        return evaluate(featureState, user, parseParameters(featureState));
+    }
+
+    @Override
+    public final List<Token> parseParameters(FeatureState featureState) {
         List<Token> tokens = tokenize(featureState, getTokenParameterName(), getTokenParameterTransformer());
+        return Collections.unmodifiableList(tokens);
+    }
+
+    @Override
+    public final boolean evaluate(FeatureState featureState, FeatureUser user, List<Token> tokens) {
         return isActive(featureState, user, tokens);
     }
 
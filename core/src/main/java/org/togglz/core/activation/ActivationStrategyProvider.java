@@ -16,4 +16,23 @@ public interface ActivationStrategyProvider {
 
     List<ActivationStrategy> getActivationStrategies();
 
+    /**
+     * Looks up the strategy with the supplied ID. IDs are compared ignoring case. The default implementation scans the
+     * list returned by {@link #getActivationStrategies()}, so implementations should override this method if they can
+     * provide a more efficient lookup.
+     *
+     * @param id The ID of the strategy
+     * @return the first strategy with the supplied ID or <code>null</code> if there is no such strategy
+     */
+    default ActivationStrategy getActivationStrategy(String id) {
+        if (id != null) {
+            for (ActivationStrategy strategy : getActivationStrategies()) {
+                if (strategy.getId().equalsIgnoreCase(id)) {
+                    return strategy;
+                }
+            }
+        }
+        return null;
+    }
+
 }
@@ -3,7 +3,9 @@ package org.togglz.core.activation;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.togglz.core.spi.ActivationStrategy;
 
@@ -16,18 +18,24 @@ public class DefaultActivationStrategyProvider implements ActivationStrategyProv
 
     private final List<ActivationStrategy> strategies = new ArrayList<>();
 
+    private final Map<String, ActivationStrategy> strategiesById = new ConcurrentHashMap<>();
+
     public DefaultActivationStrategyProvider() {
         for (ActivationStrategy activationStrategy : ServiceLoader.load(ActivationStrategy.class)) {
-            strategies.add(activationStrategy);
+            addActivationStrategy(activationStrategy);
         }
     }
 
     public void addActivationStrategy(ActivationStrategy strategy) {
         this.strategies.add(strategy);
+        // the first strategy registered for an ID wins, like with a linear search
+        this.strategiesById.putIfAbsent(toKey(strategy.getId()), strategy);
     }
 
     public void addActivationStrategies(List<ActivationStrategy> strategies) {
-        this.strategies.addAll(strategies);
+        for (ActivationStrategy strategy : strategies) {
+            addActivationStrategy(strategy);
+        }
     }
 
     @Override
@@ -35,4 +43,31 @@ public class DefaultActivationStrategyProvider implements ActivationStrategyProv
         return Collections.unmodifiableList(this.strategies);
     }
 
+    @Override
+    public ActivationStrategy getActivationStrategy(String id) {
+        return id != null ? strategiesById.get(toKey(id)) : null;
+    }
+
+    /**
+     * Folds the case of each character like {@link String#equalsIgnoreCase(String)}, which is used by the default
+     * {@link ActivationStrategyProvider#getActivationStrategy(String)}, so both match exactly the same IDs. IDs which
+     * are already folded, like the IDs of the built-in strategies, are returned as they are.
+     */
+    private static String toKey(String id) {
+        for (int i = 0; i < id.length(); i++) {
+            if (fold(id.charAt(i)) != id.charAt(i)) {
+                char[] key = id.toCharArray();
+                for (int j = i; j < key.length; j++) {
+                    key[j] = fold(key[j]);
+                }
+                return new String(key);
+            }
+        }
+        return id;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
 }
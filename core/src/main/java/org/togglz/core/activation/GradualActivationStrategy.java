@@ -6,7 +6,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.togglz.core.Feature;
 import org.togglz.core.repository.FeatureState;
-import org.togglz.core.spi.ActivationStrategy;
+import org.togglz.core.spi.ParsedParametersActivationStrategy;
 import org.togglz.core.user.FeatureUser;
 import org.togglz.core.util.Strings;
 import org.togglz.core.util.Validate;
@@ -16,7 +16,7 @@ import org.togglz.core.util.Validate;
  * gradual rollouts. The implementation is based on a hashcode created from the name of the acting user which is calculated by
  * {@link #calculateHashCode(FeatureUser, Feature)}.
  */
-public class GradualActivationStrategy implements ActivationStrategy {
+public class GradualActivationStrategy implements ParsedParametersActivationStrategy<Integer> {
 
     private final Logger log = LoggerFactory.getLogger(GradualActivationStrategy.class);
 
@@ -34,19 +34,23 @@ public class GradualActivationStrategy implements ActivationStrategy {
     }
 
     @Override
-    public boolean isActive(FeatureState state, FeatureUser user) {
-        if (user != null && Strings.isNotBlank(user.getName())) {
-            String percentageAsString = state.getParameter(PARAM_PERCENTAGE);
-            try {
-                int percentage = Integer.parseInt(percentageAsString);
+    public Integer parseParameters(FeatureState state) {
+        String percentageAsString = state.getParameter(PARAM_PERCENTAGE);
+        try {
+            return Integer.parseInt(percentageAsString);
+        } catch (NumberFormatException e) {
+            log.error("Invalid gradual rollout percentage for feature " + state.getFeature().name() + ": "
+                + percentageAsString);
+        }
+        return null;
+    }
 
-                if (percentage > 0) {
-                    int hashCode = Math.abs(calculateHashCode(user, state.getFeature()));
-                    return (hashCode % 100) < percentage;
-                }
-            } catch (NumberFormatException e) {
-                log.error("Invalid gradual rollout percentage for feature " + state.getFeature().name() + ": "
-                    + percentageAsString);
+    @Override
+    public boolean evaluate(FeatureState state, FeatureUser user, Integer percentage) {
+        if (user != null && Strings.isNotBlank(user.getName())) {
+            if (percentage != null && percentage > 0) {
+                int hashCode = Math.abs(calculateHashCode(user, state.getFeature()));
+                return (hashCode % 100) < percentage;
             }
         }
         return false;
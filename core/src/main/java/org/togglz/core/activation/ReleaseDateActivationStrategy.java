@@ -2,16 +2,16 @@ package org.togglz.core.activation;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.togglz.core.repository.FeatureState;
-import org.togglz.core.spi.ActivationStrategy;
+import org.togglz.core.spi.ParsedParametersActivationStrategy;
 import org.togglz.core.user.FeatureUser;
 import org.togglz.core.util.Strings;
 
-public class ReleaseDateActivationStrategy implements ActivationStrategy {
+public class ReleaseDateActivationStrategy implements ParsedParametersActivationStrategy<Instant> {
 
     private final Logger log = LoggerFactory.getLogger(ReleaseDateActivationStrategy.class);
 
@@ -30,20 +30,21 @@ public class ReleaseDateActivationStrategy implements ActivationStrategy {
     }
 
     @Override
-    public boolean isActive(FeatureState featureState, FeatureUser user) {
-
+    public Instant parseParameters(FeatureState featureState) {
         String dateStr = featureState.getParameter(PARAM_DATE);
         String timeStr = featureState.getParameter(PARAM_TIME);
+        return parseReleaseDate(dateStr, timeStr);
+    }
 
-        Date releaseDate = parseReleaseDate(dateStr, timeStr);
+    @Override
+    public boolean evaluate(FeatureState featureState, FeatureUser user, Instant releaseDate) {
         if (releaseDate != null) {
-            return new Date().after(releaseDate);
+            return Instant.now().isAfter(releaseDate);
         }
         return false;
-
     }
 
-    private Date parseReleaseDate(String dateStr, String timeStr) {
+    private Instant parseReleaseDate(String dateStr, String timeStr) {
 
         StringBuilder fullDate = new StringBuilder();
         fullDate.append(dateStr.trim());
@@ -56,7 +57,7 @@ public class ReleaseDateActivationStrategy implements ActivationStrategy {
 
         SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
         try {
-            return dateFormat.parse(fullDate.toString());
+            return dateFormat.parse(fullDate.toString()).toInstant();
         } catch (ParseException e) {
             log.error("Invalid date and/or time: " + fullDate);
 
@@ -3,6 +3,7 @@ package org.togglz.core.activation;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.net.SocketException;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
@@ -11,7 +12,7 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.togglz.core.repository.FeatureState;
-import org.togglz.core.spi.ActivationStrategy;
+import org.togglz.core.spi.ParsedParametersActivationStrategy;
 import org.togglz.core.user.FeatureUser;
 import org.togglz.core.util.Strings;
 
@@ -21,7 +22,7 @@ import org.togglz.core.util.Strings;
  * @author Eli Abramovitch
  * @author Christian Kaltepoth
  */
-public class ServerIpActivationStrategy implements ActivationStrategy {
+public class ServerIpActivationStrategy implements ParsedParametersActivationStrategy<List<String>> {
 
     private final Logger log = LoggerFactory.getLogger(ScriptEngineActivationStrategy.class);
 
@@ -64,24 +65,22 @@ public class ServerIpActivationStrategy implements ActivationStrategy {
     }
 
     @Override
-    public boolean isActive(FeatureState featureState, FeatureUser user) {
-
+    public List<String> parseParameters(FeatureState featureState) {
         String allowedIpsParam = featureState.getParameter(PARAM_IPS);
-
         if (Strings.isNotBlank(allowedIpsParam)) {
+            return Collections.unmodifiableList(Strings.splitAndTrim(allowedIpsParam, "[\\s,]+"));
+        }
+        return Collections.emptyList();
+    }
 
-            List<String> allowedIps = Strings.splitAndTrim(allowedIpsParam, "[\\s,]+");
-
-            for (String allowedIp : allowedIps) {
-                if (ipAddresses.contains(allowedIp)) {
-                    return true;
-                }
+    @Override
+    public boolean evaluate(FeatureState featureState, FeatureUser user, List<String> allowedIps) {
+        for (String allowedIp : allowedIps) {
+            if (ipAddresses.contains(allowedIp)) {
+                return true;
             }
-
         }
-
         return false;
-
     }
 
     @Override
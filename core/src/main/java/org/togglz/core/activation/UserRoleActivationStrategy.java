@@ -1,10 +1,11 @@
 package org.togglz.core.activation;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.togglz.core.repository.FeatureState;
-import org.togglz.core.spi.ActivationStrategy;
+import org.togglz.core.spi.ParsedParametersActivationStrategy;
 import org.togglz.core.user.FeatureUser;
 import org.togglz.core.util.Strings;
 
@@ -18,7 +19,7 @@ import org.togglz.core.util.Strings;
  * 
  * @author Vasily Ivanov
  */
-public class UserRoleActivationStrategy implements ActivationStrategy {
+public class UserRoleActivationStrategy implements ParsedParametersActivationStrategy<List<String>> {
 
     public static final String ID = "user-role";
     public static final String NAME = "Users by role";
@@ -40,7 +41,16 @@ public class UserRoleActivationStrategy implements ActivationStrategy {
     }
 
     @Override
-    public boolean isActive(FeatureState state, FeatureUser user) {
+    public List<String> parseParameters(FeatureState state) {
+        String rolesAsString = state.getParameter(PARAM_ROLES_NAME);
+        if (Strings.isNotBlank(rolesAsString)) {
+            return Collections.unmodifiableList(Strings.splitAndTrim(rolesAsString, ","));
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean evaluate(FeatureState state, FeatureUser user, List<String> roles) {
 
         if (user != null) {
 
@@ -48,17 +58,9 @@ public class UserRoleActivationStrategy implements ActivationStrategy {
                 (Collection<String>) user.getAttribute(USER_ATTRIBUTE_ROLES);
 
             if (userRoles != null) {
-
-                String rolesAsString = state.getParameter(PARAM_ROLES_NAME);
-
-                if (Strings.isNotBlank(rolesAsString)) {
-
-                    List<String> roles = Strings.splitAndTrim(rolesAsString, ",");
-
-                    for (String authority : roles) {
-                        if (userRoles.contains(authority)) {
-                            return true;
-                        }
+                for (String authority : roles) {
+                    if (userRoles.contains(authority)) {
+                        return true;
                     }
                 }
             }
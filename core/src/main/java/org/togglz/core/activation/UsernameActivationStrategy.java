@@ -1,9 +1,11 @@
 package org.togglz.core.activation;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.togglz.core.repository.FeatureState;
-import org.togglz.core.spi.ActivationStrategy;
+import org.togglz.core.spi.ParsedParametersActivationStrategy;
 import org.togglz.core.user.FeatureUser;
 import org.togglz.core.util.Strings;
 
@@ -12,7 +14,7 @@ import org.togglz.core.util.Strings;
  * 
  * @author Christian Kaltepoth
  */
-public class UsernameActivationStrategy implements ActivationStrategy {
+public class UsernameActivationStrategy implements ParsedParametersActivationStrategy<Set<String>> {
 
     public static final String ID = "username";
 
@@ -29,25 +31,20 @@ public class UsernameActivationStrategy implements ActivationStrategy {
     }
 
     @Override
-    public boolean isActive(FeatureState state, FeatureUser user) {
-
+    public Set<String> parseParameters(FeatureState state) {
         String usersAsString = state.getParameter(PARAM_USERS);
-
         if (Strings.isNotBlank(usersAsString)) {
+            return Collections.unmodifiableSet(new HashSet<>(Strings.splitAndTrim(usersAsString, ",")));
+        }
+        return Collections.emptySet();
+    }
 
-            List<String> users = Strings.splitAndTrim(usersAsString, ",");
-
-            if (user != null && Strings.isNotBlank(user.getName())) {
-                for (String username : users) {
-                    if (username.equals(user.getName())) {
-                        return true;
-                    }
-                }
-            }
-
+    @Override
+    public boolean evaluate(FeatureState state, FeatureUser user, Set<String> users) {
+        if (user != null && Strings.isNotBlank(user.getName())) {
+            return users.contains(user.getName());
         }
         return false;
-
     }
 
     @Override
@@ -3,6 +3,7 @@ package org.togglz.core.context;
 import static org.togglz.core.util.ConcurrentReferenceHashMap.ReferenceType.STRONG;
 import static org.togglz.core.util.ConcurrentReferenceHashMap.ReferenceType.WEAK;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -19,6 +20,7 @@ import org.togglz.core.util.Weighted;
  *
  * This class is typically used to obtain the {@link FeatureManager} from application code. It uses the
  * {@link FeatureManagerProvider} to find the correct FeatureManager and caches it for each context class loader.
+ * Applications can reduce the lookup overhead by selecting a different {@link CacheMode}.
  *
  * @author Christian Kaltepoth
  *
@@ -33,6 +35,54 @@ public class FeatureContext {
     private static final ConcurrentReferenceHashMap<ClassLoader, FeatureManager> cache
             = new ConcurrentReferenceHashMap<>(WEAK, STRONG);
 
+    /**
+     * The strategy used to cache the {@link FeatureManager} between lookups.
+     */
+    public enum CacheMode {
+
+        /**
+         * The {@link FeatureManager} is cached for each context class loader. This is the default and works in all
+         * deployment scenarios.
+         */
+        CONTEXT_CLASS_LOADER,
+
+        /**
+         * The first {@link FeatureManager} found is used by all threads until {@link #clearCache()} is called. Only use
+         * this mode if there is a single {@link FeatureManager} in the JVM, for example in a Spring Boot application.
+         */
+        SINGLE_FEATURE_MANAGER,
+
+        /**
+         * Each thread remembers the {@link FeatureManager} it resolved last together with its context class loader.
+         * Lookups only hit the shared cache if the context class loader of the thread has changed. Suitable for
+         * containers with multiple applications.
+         */
+        THREAD
+
+    }
+
+    private static volatile CacheMode cacheMode = CacheMode.CONTEXT_CLASS_LOADER;
+
+    private static volatile FeatureManager singleFeatureManager;
+
+    /**
+     * Per-thread cache containing a weak reference to the context class loader, a weak reference to the
+     * {@link FeatureManager} and the generation. Only classes of the bootstrap class loader are stored, so that pool
+     * threads don't prevent undeployed applications from being garbage collected.
+     */
+    private static final ThreadLocal<Object[]> threadCache = new ThreadLocal<>();
+
+    private static final int THREAD_CACHE_CLASS_LOADER = 0;
+
+    private static final int THREAD_CACHE_FEATURE_MANAGER = 1;
+
+    private static final int THREAD_CACHE_GENERATION = 2;
+
+    /**
+     * Incremented by {@link #clearCache()} to invalidate the entries of all threads
+     */
+    private static volatile int generation;
+
     /**
      *
      * Returns the {@link FeatureManager} for the current application (context class loader). The method uses the
@@ -65,6 +115,48 @@ public class FeatureContext {
      * @return The {@link FeatureManager} for the application or <code>null</code>
      */
     public static FeatureManager getFeatureManagerOrNull() {
+        CacheMode mode = cacheMode;
+        if (mode == CacheMode.SINGLE_FEATURE_MANAGER) {
+            FeatureManager featureManager = singleFeatureManager;
+            if (featureManager == null) {
+                featureManager = resolveSingleFeatureManager();
+            }
+            return featureManager;
+        }
+        if (mode == CacheMode.THREAD) {
+            return getFeatureManagerForThread();
+        }
+        return getFeatureManagerForContextClassLoader();
+    }
+
+    private static synchronized FeatureManager resolveSingleFeatureManager() {
+        // synchronized with clearCache() so that a concurrent clear cannot be overwritten by an outdated manager
+        if (singleFeatureManager == null) {
+            singleFeatureManager = getFeatureManagerForContextClassLoader();
+        }
+        return singleFeatureManager;
+    }
+
+    private static FeatureManager getFeatureManagerForThread() {
+        ClassLoader classLoader = getContextClassLoader();
+        Object[] entry = threadCache.get();
+        if (entry != null && (Integer) entry[THREAD_CACHE_GENERATION] == generation
+            && ((WeakReference<?>) entry[THREAD_CACHE_CLASS_LOADER]).get() == classLoader) {
+            FeatureManager featureManager = (FeatureManager) ((WeakReference<?>) entry[THREAD_CACHE_FEATURE_MANAGER]).get();
+            if (featureManager != null) {
+                return featureManager;
+            }
+        }
+        int currentGeneration = generation;
+        FeatureManager featureManager = getFeatureManagerForContextClassLoader();
+        if (featureManager != null) {
+            threadCache.set(new Object[] {
+                new WeakReference<>(classLoader), new WeakReference<>(featureManager), currentGeneration });
+        }
+        return featureManager;
+    }
+
+    private static FeatureManager getFeatureManagerForContextClassLoader() {
         ClassLoader classLoader = getContextClassLoader();
         FeatureManager featureManager = cache.get(classLoader);
         if (featureManager != null) {
@@ -136,8 +228,43 @@ public class FeatureContext {
         return classLoader;
     }
 
-    public static void clearCache() {
+    /**
+     * Selects the strategy used to cache the {@link FeatureManager}. Clears the cache.
+     *
+     * @param mode The new cache mode
+     */
+    public static void setCacheMode(CacheMode mode) {
+        cacheMode = mode;
+        clearCache();
+    }
+
+    /**
+     * Clears the cached {@link FeatureManager} instances. The entries of other threads are invalidated and replaced on
+     * their next lookup, the entry of the current thread is removed. Integrations call this method when an application
+     * is shut down.
+     */
+    public static synchronized void clearCache() {
         cache.clear();
+        singleFeatureManager = null;
+        generation++;
+        threadCache.remove();
+    }
+
+    /**
+     * Clears the cached {@link FeatureManager} of the application using the supplied context class loader, leaving the
+     * entries of other applications sharing this class in place. Integrations call this method when an application is
+     * shut down.
+     *
+     * @param classLoader The context class loader of the application
+     */
+    public static synchronized void clearCache(ClassLoader classLoader) {
+        FeatureManager featureManager = classLoader != null ? cache.remove(classLoader) : null;
+        if (featureManager != null && featureManager == singleFeatureManager) {
+            singleFeatureManager = null;
+        }
+        // the entries of other threads resolve again from the shared cache, which still contains the other applications
+        generation++;
+        threadCache.remove();
     }
 
 }
@@ -60,6 +60,11 @@ public class LoggingStateRepository implements StateRepository {
         return delegate.getFeatureState(feature);
     }
 
+    @Override
+    public FeatureState getSharedFeatureState(Feature feature) {
+        return delegate.getSharedFeatureState(feature);
+    }
+
     @Override
     public void setFeatureState(FeatureState featureState) {
         if (customLogMessage != null) {
@@ -0,0 +1,84 @@
+package org.togglz.core.manager;
+
+import org.togglz.core.activation.ActivationStrategyProvider;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.spi.ActivationStrategy;
+import org.togglz.core.spi.ParsedParametersActivationStrategy;
+import org.togglz.core.user.FeatureUser;
+import org.togglz.core.user.UserProvider;
+
+/**
+ * Immutable, precompiled decision for a single feature. Instances are created from a {@link FeatureState} once and can
+ * then be evaluated any number of times without accessing the {@link org.togglz.core.repository.StateRepository} or
+ * searching for the activation strategy again. Parameters of {@link ParsedParametersActivationStrategy} implementations
+ * which don't override <code>isActive</code> are parsed once during compilation.
+ */
+final class CompiledFeatureState {
+
+    static final CompiledFeatureState ALWAYS_ACTIVE = new CompiledFeatureState(null, null, null, true);
+
+    static final CompiledFeatureState NEVER_ACTIVE = new CompiledFeatureState(null, null, null, false);
+
+    private final FeatureState state;
+    private final ActivationStrategy strategy;
+    private final Object parameters;
+    private final boolean constant;
+
+    private CompiledFeatureState(FeatureState state, ActivationStrategy strategy, Object parameters, boolean constant) {
+        this.state = state;
+        this.strategy = strategy;
+        this.parameters = parameters;
+        this.constant = constant;
+    }
+
+    /**
+     * Compiles the supplied state. The state is copied, so later modifications of the supplied instance won't affect the
+     * result.
+     */
+    static CompiledFeatureState compile(FeatureState state, ActivationStrategyProvider strategyProvider) {
+
+        if (state == null || !state.isEnabled()) {
+            return NEVER_ACTIVE;
+        }
+
+        // if no strategy is selected, the decision is simple
+        String strategyId = state.getStrategyId();
+        if (strategyId == null || strategyId.isEmpty()) {
+            return ALWAYS_ACTIVE;
+        }
+
+        ActivationStrategy strategy = strategyProvider.getActivationStrategy(strategyId);
+        if (strategy != null) {
+            FeatureState immutableState = state.toImmutable();
+            Object parameters = null;
+            if (ParsedParametersCache.usesParsedParameters(strategy)) {
+                parameters = ((ParsedParametersActivationStrategy<?>) strategy).parseParameters(immutableState);
+            }
+            return new CompiledFeatureState(immutableState, strategy, parameters, false);
+        }
+
+        // if the strategy was not found, the feature should be off
+        return NEVER_ACTIVE;
+
+    }
+
+    /**
+     * Evaluates the decision. The {@link UserProvider} is only consulted if the decision depends on the strategy.
+     */
+    boolean isActive(UserProvider userProvider) {
+        if (strategy == null) {
+            return constant;
+        }
+        FeatureUser user = userProvider.getCurrentUser();
+        if (ParsedParametersCache.usesParsedParameters(strategy)) {
+            return evaluate((ParsedParametersActivationStrategy<?>) strategy, user);
+        }
+        return strategy.isActive(state, user);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <P> boolean evaluate(ParsedParametersActivationStrategy<P> parsingStrategy, FeatureUser user) {
+        return parsingStrategy.evaluate(state, user, (P) parameters);
+    }
+
+}
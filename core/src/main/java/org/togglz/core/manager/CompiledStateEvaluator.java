@@ -0,0 +1,153 @@
+package org.togglz.core.manager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.togglz.core.Feature;
+import org.togglz.core.activation.ActivationStrategyProvider;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.repository.StateRepository;
+import org.togglz.core.spi.FeatureProvider;
+import org.togglz.core.user.UserProvider;
+
+/**
+ * Evaluation engine used by {@link DefaultFeatureManager} if compiled evaluation has been enabled using
+ * {@link FeatureManagerBuilder#compiledEvaluation(long, TimeUnit)}. The engine keeps an immutable snapshot of
+ * {@link CompiledFeatureState} instances indexed by the position of the feature. Entries are compiled lazily on first
+ * access and the snapshot is replaced atomically if the state of a feature is modified through the feature manager or
+ * if the configured refresh interval has elapsed.
+ */
+class CompiledStateEvaluator {
+
+    private final StateRepository stateRepository;
+    private final ActivationStrategyProvider strategyProvider;
+    private final DefaultFeatureManager featureManager;
+
+    private final Feature[] features;
+    private final Map<String, Integer> indexByName = new HashMap<>();
+    private final EnumBasedFeatureProvider enumProvider;
+
+    private final long refreshInterval;
+
+    private volatile CompiledFeatureState[] snapshot;
+    private volatile long expiresAt;
+    private long version = 0;
+
+    CompiledStateEvaluator(DefaultFeatureManager featureManager, FeatureProvider featureProvider,
+        StateRepository stateRepository, ActivationStrategyProvider strategyProvider, long refreshInterval) {
+        this.featureManager = featureManager;
+        this.stateRepository = stateRepository;
+        this.strategyProvider = strategyProvider;
+        this.refreshInterval = refreshInterval;
+
+        Set<Feature> allFeatures = featureProvider.getFeatures();
+        this.features = allFeatures.toArray(new Feature[0]);
+        for (int i = 0; i < features.length; i++) {
+            indexByName.put(features[i].name(), i);
+        }
+        // the ids of the enum provider are identical to the positions in getFeatures()
+        this.enumProvider = featureProvider instanceof EnumBasedFeatureProvider
+            ? (EnumBasedFeatureProvider) featureProvider : null;
+        this.snapshot = new CompiledFeatureState[features.length];
+        this.expiresAt = nextExpiry();
+    }
+
+    boolean isActive(Feature feature, UserProvider userProvider) {
+        return getCompiledState(feature).isActive(userProvider);
+    }
+
+    /**
+     * Discards the compiled state of the supplied feature. Must be called after the state has been modified.
+     */
+    synchronized void invalidate(Feature feature) {
+        int index = indexOf(feature);
+        if (index >= 0) {
+            CompiledFeatureState[] copy = snapshot.clone();
+            copy[index] = null;
+            snapshot = copy;
+        }
+        version++;
+    }
+
+    /**
+     * Discards all compiled states. They will be compiled again on next access.
+     */
+    synchronized void invalidateAll() {
+        snapshot = new CompiledFeatureState[features.length];
+        expiresAt = nextExpiry();
+        version++;
+    }
+
+    private synchronized void expire() {
+        // another thread may have already refreshed the snapshot
+        if (System.currentTimeMillis() > expiresAt) {
+            invalidateAll();
+        }
+    }
+
+    private CompiledFeatureState getCompiledState(Feature feature) {
+
+        if (refreshInterval > 0 && System.currentTimeMillis() > expiresAt) {
+            expire();
+        }
+
+        int index = indexOf(feature);
+        if (index < 0) {
+            // unknown features are not part of the snapshot
+            return compile(feature);
+        }
+
+        CompiledFeatureState compiled = snapshot[index];
+        if (compiled != null) {
+            return compiled;
+        }
+
+        long versionBeforeCompile;
+        synchronized (this) {
+            versionBeforeCompile = version;
+        }
+        compiled = compile(feature);
+        synchronized (this) {
+            // don't publish the result if the state was modified while compiling
+            if (version == versionBeforeCompile && snapshot[index] == null) {
+                CompiledFeatureState[] copy = snapshot.clone();
+                copy[index] = compiled;
+                snapshot = copy;
+            }
+        }
+        return compiled;
+
+    }
+
+    private CompiledFeatureState compile(Feature feature) {
+        FeatureState state = stateRepository.getSharedFeatureState(feature);
+        if (state == null) {
+            state = featureManager.getImmutableDefaultFeatureState(feature);
+        }
+        return CompiledFeatureState.compile(state, strategyProvider);
+    }
+
+    private int indexOf(Feature feature) {
+        if (enumProvider != null) {
+            int id = enumProvider.getFeatureId(feature);
+            if (id >= 0 && id < features.length && features[id] == feature) {
+                return id;
+            }
+        } else if (feature instanceof Enum) {
+            // fast path for the typical case of a single feature enum
+            int ordinal = ((Enum<?>) feature).ordinal();
+            if (ordinal < features.length && features[ordinal] == feature) {
+                return ordinal;
+            }
+        }
+        Integer index = indexByName.get(feature.name());
+        return index != null ? index : -1;
+    }
+
+    private long nextExpiry() {
+        return refreshInterval > 0 ? System.currentTimeMillis() + refreshInterval : Long.MAX_VALUE;
+    }
+
+}
@@ -1,7 +1,12 @@
 package org.togglz.core.manager;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.togglz.core.Feature;
@@ -29,14 +34,19 @@ public class DefaultFeatureManager implements FeatureManager {
     private final UserProvider userProvider;
     private final FeatureProvider featureProvider;
     private final ActivationStrategyProvider strategyProvider;
+    private final CompiledStateEvaluator compiledEvaluator;
+    private final ParsedParametersCache parsedParametersCache = new ParsedParametersCache();
 
     DefaultFeatureManager(String name, FeatureProvider featureProvider, StateRepository stateRepository,
-        UserProvider userProvider, ActivationStrategyProvider activationStrategyProvider) {
+        UserProvider userProvider, ActivationStrategyProvider activationStrategyProvider, boolean compiled,
+        long compiledRefreshInterval) {
         this.name = name;
         this.featureProvider = featureProvider;
         this.stateRepository = stateRepository;
         this.userProvider = userProvider;
         this.strategyProvider = activationStrategyProvider;
+        this.compiledEvaluator = compiled ? new CompiledStateEvaluator(this, featureProvider, stateRepository,
+            activationStrategyProvider, compiledRefreshInterval) : null;
     }
 
     @Override
@@ -64,10 +74,90 @@ public class DefaultFeatureManager implements FeatureManager {
 
         Validate.notNull(feature, "feature is required");
 
-        FeatureState state = stateRepository.getFeatureState(feature);
+        FeatureEvaluationScope scope = FeatureEvaluationScope.current();
+        if (scope != null) {
+            return isActiveInScope(feature, scope.getDecisions(this, userProvider));
+        }
+
+        return isActive(feature, userProvider);
+
+    }
+
+    @Override
+    public FeatureSnapshot evaluate(Collection<? extends Feature> features) {
+
+        Validate.notNull(features, "features are required");
+
+        // the user is resolved at most once for all features
+        UserProvider resolveOnceUserProvider = new ResolveOnceUserProvider(userProvider);
+
+        Feature[] array = new LinkedHashSet<>(features).toArray(new Feature[0]);
+        for (Feature feature : array) {
+            Validate.notNull(feature, "feature is required");
+        }
+
+        BitSet active = new BitSet(array.length);
+        FeatureEvaluationScope scope = FeatureEvaluationScope.current();
+        if (scope != null) {
+            // reuse the decisions made in the scope so that the snapshot is consistent with them
+            FeatureEvaluationScope.Decisions decisions = scope.getDecisions(this, userProvider);
+            for (int i = 0; i < array.length; i++) {
+                if (isActiveInScope(array[i], decisions)) {
+                    active.set(i);
+                }
+            }
+        } else if (compiledEvaluator != null) {
+            for (int i = 0; i < array.length; i++) {
+                if (compiledEvaluator.isActive(array[i], resolveOnceUserProvider)) {
+                    active.set(i);
+                }
+            }
+        } else {
+            // fetch all states with a single repository call
+            Map<Feature, FeatureState> states = stateRepository.getSharedFeatureStates(Arrays.asList(array));
+            for (int i = 0; i < array.length; i++) {
+                if (isActive(array[i], states.get(array[i]), resolveOnceUserProvider)) {
+                    active.set(i);
+                }
+            }
+        }
+        return new FeatureSnapshot(array, active);
+
+    }
+
+    private boolean isActiveInScope(Feature feature, FeatureEvaluationScope.Decisions decisions) {
+        Boolean active = decisions.get(feature);
+        if (active == null) {
+            active = isActive(feature, decisions.getUserProvider());
+            decisions.put(feature, active);
+        }
+        return active;
+    }
+
+    private boolean isActive(Feature feature, UserProvider userProvider) {
+
+        if (compiledEvaluator != null) {
+            return compiledEvaluator.isActive(feature, userProvider);
+        }
+
+        return isActive(feature, stateRepository.getSharedFeatureState(feature), userProvider);
+
+    }
+
+    /**
+     * Returns the shared default state of the feature, so that it doesn't have to be copied for every evaluation.
+     */
+    FeatureState getImmutableDefaultFeatureState(Feature feature) {
+        FeatureMetaData metaData = getMetaData(feature);
+        FeatureState state = metaData.getImmutableDefaultFeatureState();
+        // proxies or mocks of the interface may not invoke the default method
+        return state != null ? state : metaData.getDefaultFeatureState();
+    }
+
+    private boolean isActive(Feature feature, FeatureState state, UserProvider userProvider) {
 
         if (state == null) {
-            state = getMetaData(feature).getDefaultFeatureState();
+            state = getImmutableDefaultFeatureState(feature);
         }
 
         if (state.isEnabled()) {
@@ -78,13 +168,11 @@ public class DefaultFeatureManager implements FeatureManager {
                 return true;
             }
 
-            FeatureUser user = userProvider.getCurrentUser();
-
             // check the selected strategy
-            for (ActivationStrategy strategy : strategyProvider.getActivationStrategies()) {
-                if (strategy.getId().equalsIgnoreCase(strategyId)) {
-                    return strategy.isActive(state, user);
-                }
+            ActivationStrategy strategy = strategyProvider.getActivationStrategy(strategyId);
+            if (strategy != null) {
+                FeatureUser user = userProvider.getCurrentUser();
+                return parsedParametersCache.isActive(strategy, state, user);
             }
         }
 
@@ -100,13 +188,15 @@ public class DefaultFeatureManager implements FeatureManager {
         if (state == null) {
             state = getMetaData(feature).getDefaultFeatureState();
         }
-        return state;
+        // callers typically modify the state and pass it to setFeatureState()
+        return state.isImmutable() ? state.copy() : state;
     }
 
     @Override
     public void setFeatureState(FeatureState state) {
         Validate.notNull(state, "state is required");
         stateRepository.setFeatureState(state);
+        stateModified(state.getFeature());
     }
 
     @Override
@@ -114,21 +204,67 @@ public class DefaultFeatureManager implements FeatureManager {
         return strategyProvider.getActivationStrategies();
     }
 
+    @Override
+    public ActivationStrategy getActivationStrategy(String id) {
+        return strategyProvider.getActivationStrategy(id);
+    }
+
     @Override
     public void enable(Feature feature) {
         stateRepository.setFeatureState(new FeatureState(feature, true));
+        stateModified(feature);
     }
 
     @Override
     public void disable(Feature feature) {
         stateRepository.setFeatureState(new FeatureState(feature, false));
+        stateModified(feature);
     }
 
     @Override
     public FeatureUser getCurrentFeatureUser() {
+        FeatureEvaluationScope scope = FeatureEvaluationScope.current();
+        if (scope != null) {
+            return scope.getDecisions(this, userProvider).getUserProvider().getCurrentUser();
+        }
         return userProvider.getCurrentUser();
     }
 
+    private void stateModified(Feature feature) {
+        FeatureEvaluationScope scope = FeatureEvaluationScope.current();
+        if (scope != null) {
+            scope.getDecisions(this, userProvider).remove(feature);
+        }
+        parsedParametersCache.invalidate(feature);
+        if (compiledEvaluator != null) {
+            compiledEvaluator.invalidate(feature);
+        }
+    }
+
+    /**
+     * {@link UserProvider} which resolves the user only once. Used to evaluate several features for the same user.
+     */
+    static class ResolveOnceUserProvider implements UserProvider {
+
+        private final UserProvider delegate;
+        private boolean resolved = false;
+        private FeatureUser user;
+
+        ResolveOnceUserProvider(UserProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public FeatureUser getCurrentUser() {
+            if (!resolved) {
+                user = delegate.getCurrentUser();
+                resolved = true;
+            }
+            return user;
+        }
+
+    }
+
     @Override
     public String toString() {
         return "DefaultFeatureManager[" + getName() + "]";
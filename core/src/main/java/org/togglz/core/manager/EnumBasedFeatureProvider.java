@@ -5,23 +5,30 @@ import org.togglz.core.metadata.FeatureMetaData;
 import org.togglz.core.metadata.enums.EnumFeatureMetaData;
 import org.togglz.core.spi.FeatureProvider;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 /**
- * Implementation of {@link FeatureProvider} that uses an Java enum to represent features.
+ * Implementation of {@link FeatureProvider} that uses an Java enum to represent features. The metadata of the constants
+ * is stored in arrays indexed by their ordinal, so looking it up doesn't require hashing the feature name. Features
+ * which aren't enum constants, like {@link org.togglz.core.util.NamedFeature}, are looked up by name.
  *
  * @author Christian Kaltepoth
  */
 public class EnumBasedFeatureProvider implements FeatureProvider {
 
     private Map<String, FeatureMetaData> metaDataCache = null;
+    private Map<String, Integer> featureIds = null;
     private Set<Feature> features = null;
+    private final List<Feature> featuresById = new ArrayList<>();
+    private EnumIndex[] enumIndexes = new EnumIndex[0];
 
     public EnumBasedFeatureProvider() {
         // nothing to do
@@ -40,22 +47,35 @@ public class EnumBasedFeatureProvider implements FeatureProvider {
         if (featureEnum == null || !featureEnum.isEnum()) {
             throw new IllegalArgumentException("The featureEnum argument must be an enum");
         }
-        addFeatures(Arrays.asList(featureEnum.getEnumConstants()));
+        Feature[] constants = featureEnum.getEnumConstants();
+        EnumIndex enumIndex = new EnumIndex(featureEnum, constants.length);
+        addFeatures(Arrays.asList(constants), enumIndex);
+        enumIndexes = Arrays.copyOf(enumIndexes, enumIndexes.length + 1);
+        enumIndexes[enumIndexes.length - 1] = enumIndex;
         return this;
     }
 
-    private void addFeatures(Collection<? extends Feature> newFeatures) {
+    private void addFeatures(Collection<? extends Feature> newFeatures, EnumIndex enumIndex) {
         if (metaDataCache == null) {
             metaDataCache = new HashMap<>();
+            featureIds = new HashMap<>();
         }
         for (Feature newFeature : newFeatures) {
-            if (metaDataCache.put(newFeature.name(), new EnumFeatureMetaData(newFeature)) != null) {
+            FeatureMetaData metaData = new EnumFeatureMetaData(newFeature);
+            if (metaDataCache.put(newFeature.name(), metaData) != null) {
                 throw new IllegalStateException("The feature " + newFeature + " has already been added");
             }
             if (features == null){
                 features = new LinkedHashSet<>();
             }
             features.add(newFeature);
+
+            int id = featuresById.size();
+            featuresById.add(newFeature);
+            featureIds.put(newFeature.name(), id);
+            int ordinal = ((Enum<?>) newFeature).ordinal();
+            enumIndex.metaData[ordinal] = metaData;
+            enumIndex.ids[ordinal] = id;
         }
     }
 
@@ -72,6 +92,65 @@ public class EnumBasedFeatureProvider implements FeatureProvider {
         if (metaDataCache == null) {
             throw new IllegalStateException("There are no features added in this provider instance.");
         }
+        EnumIndex enumIndex = getEnumIndex(feature);
+        if (enumIndex != null) {
+            return enumIndex.metaData[((Enum<?>) feature).ordinal()];
+        }
         return metaDataCache.get(feature.name());
     }
+
+    /**
+     * Returns the dense id of the feature. Ids are assigned in the order the features have been added, starting with 0,
+     * and are identical to the position of the feature in {@link #getFeatures()}. They can be used to store data of
+     * features in arrays or bit sets. Ids are scoped to this provider, so other providers may use the same ids.
+     *
+     * @param feature The feature
+     * @return the id of the feature or <code>-1</code> if the feature is unknown
+     */
+    public int getFeatureId(Feature feature) {
+        EnumIndex enumIndex = getEnumIndex(feature);
+        if (enumIndex != null) {
+            return enumIndex.ids[((Enum<?>) feature).ordinal()];
+        }
+        Integer id = featureIds != null ? featureIds.get(feature.name()) : null;
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Returns the feature with the supplied id.
+     *
+     * @throws IndexOutOfBoundsException if there is no feature with this id
+     * @see #getFeatureId(Feature)
+     */
+    public Feature getFeature(int id) {
+        return featuresById.get(id);
+    }
+
+    private EnumIndex getEnumIndex(Feature feature) {
+        if (feature instanceof Enum) {
+            // constants with a body are instances of a subclass of the enum
+            Class<?> enumClass = ((Enum<?>) feature).getDeclaringClass();
+            for (EnumIndex enumIndex : enumIndexes) {
+                if (enumIndex.enumClass == enumClass) {
+                    return enumIndex;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static class EnumIndex {
+
+        private final Class<?> enumClass;
+        private final FeatureMetaData[] metaData;
+        private final int[] ids;
+
+        private EnumIndex(Class<?> enumClass, int size) {
+            this.enumClass = enumClass;
+            this.metaData = new FeatureMetaData[size];
+            this.ids = new int[size];
+        }
+
+    }
+
 }
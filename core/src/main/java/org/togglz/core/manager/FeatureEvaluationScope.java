@@ -0,0 +1,116 @@
+package org.togglz.core.manager;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.togglz.core.Feature;
+import org.togglz.core.user.FeatureUser;
+import org.togglz.core.user.UserProvider;
+
+/**
+ * <p>
+ * Memoizes the decisions of {@link DefaultFeatureManager#isActive(Feature)} and the current {@link FeatureUser} for
+ * the duration of a unit of work, typically a single HTTP request. While a scope is bound to the current thread, each
+ * feature is evaluated at most once and the {@link UserProvider} is consulted at most once per feature manager. This
+ * also ensures that all decisions within the scope are consistent.
+ * </p>
+ *
+ * <p>
+ * Modifications of a feature state made through the feature manager on the same thread discard the decision for this
+ * feature. Modifications made by other threads or directly in the
+ * {@link org.togglz.core.repository.StateRepository} are not visible until the scope ends.
+ * </p>
+ *
+ * <p>
+ * Scopes can be nested. Only the outermost {@link #end()} releases the scope.
+ * </p>
+ */
+public final class FeatureEvaluationScope {
+
+    private static final ThreadLocal<FeatureEvaluationScope> scopes = new ThreadLocal<>();
+
+    private final Map<DefaultFeatureManager, Decisions> decisions = new IdentityHashMap<>(4);
+
+    private int depth = 1;
+
+    private FeatureEvaluationScope() {
+    }
+
+    /**
+     * Binds a new scope to the current thread or enters the scope which is already bound.
+     */
+    public static void begin() {
+        FeatureEvaluationScope scope = scopes.get();
+        if (scope == null) {
+            scopes.set(new FeatureEvaluationScope());
+        } else {
+            scope.depth++;
+        }
+    }
+
+    /**
+     * Leaves the scope bound to the current thread. All memoized decisions are discarded when the outermost scope ends.
+     */
+    public static void end() {
+        FeatureEvaluationScope scope = scopes.get();
+        if (scope != null && --scope.depth == 0) {
+            scopes.remove();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if a scope is bound to the current thread.
+     */
+    public static boolean isBound() {
+        return scopes.get() != null;
+    }
+
+    static FeatureEvaluationScope current() {
+        return scopes.get();
+    }
+
+    Decisions getDecisions(DefaultFeatureManager featureManager, UserProvider userProvider) {
+        Decisions result = decisions.get(featureManager);
+        if (result == null) {
+            result = new Decisions(userProvider);
+            decisions.put(featureManager, result);
+        }
+        return result;
+    }
+
+    /**
+     * The memoized state of a single feature manager.
+     */
+    static class Decisions {
+
+        private final Map<String, Boolean> active = new HashMap<>();
+
+        private final UserProvider userProvider;
+
+        private Decisions(UserProvider userProvider) {
+            this.userProvider = new DefaultFeatureManager.ResolveOnceUserProvider(userProvider);
+        }
+
+        Boolean get(Feature feature) {
+            return active.get(feature.name());
+        }
+
+        void put(Feature feature, boolean value) {
+            active.put(feature.name(), value);
+        }
+
+        void remove(Feature feature) {
+            active.remove(feature.name());
+        }
+
+        /**
+         * A {@link UserProvider} which resolves the user only once for the whole scope.
+         */
+        UserProvider getUserProvider() {
+            return userProvider;
+        }
+
+    }
+
+}
@@ -1,9 +1,13 @@
 package org.togglz.core.manager;
 
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.togglz.core.Feature;
+import org.togglz.core.activation.ActivationStrategyProvider;
 import org.togglz.core.context.FeatureContext;
 import org.togglz.core.metadata.FeatureMetaData;
 import org.togglz.core.repository.FeatureState;
@@ -52,6 +56,33 @@ public interface FeatureManager {
      */
     boolean isActive(Feature feature);
 
+    /**
+     * Checks whether the supplied features are active or not. Implementations should resolve the current user only once
+     * and may load the feature states in a single batch, so this method is typically more efficient than invoking
+     * {@link #isActive(Feature)} for each feature.
+     *
+     * @param features The features to check
+     * @return an immutable snapshot of the decisions, never <code>null</code>
+     */
+    default FeatureSnapshot evaluate(Collection<? extends Feature> features) {
+        Feature[] array = new LinkedHashSet<>(features).toArray(new Feature[0]);
+        BitSet active = new BitSet(array.length);
+        for (int i = 0; i < array.length; i++) {
+            active.set(i, isActive(array[i]));
+        }
+        return new FeatureSnapshot(array, active);
+    }
+
+    /**
+     * Checks whether the features returned by {@link #getFeatures()} are active or not.
+     *
+     * @return an immutable snapshot of the decisions, never <code>null</code>
+     * @see #evaluate(Collection)
+     */
+    default FeatureSnapshot evaluateAll() {
+        return evaluate(getFeatures());
+    }
+
     /**
      * Get the current feature user. This method will internally use the configured {@link UserProvider} to obtain the
      * user.
@@ -84,6 +115,18 @@ public interface FeatureManager {
      */
     List<ActivationStrategy> getActivationStrategies();
 
+    /**
+     * Looks up an {@link ActivationStrategy} known by the manager. IDs are compared ignoring case, like in
+     * {@link ActivationStrategyProvider#getActivationStrategy(String)}, which the default implementation uses.
+     *
+     * @param id The ID of the strategy
+     * @return the strategy or <code>null</code> if there is no strategy with the supplied ID
+     */
+    default ActivationStrategy getActivationStrategy(String id) {
+        ActivationStrategyProvider strategies = this::getActivationStrategies;
+        return strategies.getActivationStrategy(id);
+    }
+
     void enable(Feature feature);
 
     void disable(Feature feature);
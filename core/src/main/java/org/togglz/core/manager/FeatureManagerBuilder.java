@@ -1,6 +1,7 @@
 package org.togglz.core.manager;
 
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import org.togglz.core.Feature;
 import org.togglz.core.activation.ActivationStrategyProvider;
@@ -25,6 +26,8 @@ public class FeatureManagerBuilder {
     private StateRepository stateRepository = null;
     private UserProvider userProvider = null;
     private ActivationStrategyProvider strategyProvider = null;
+    private boolean compiledEvaluation = false;
+    private long compiledRefreshInterval = 0;
 
     /**
      * Create a new builder
@@ -110,6 +113,35 @@ public class FeatureManagerBuilder {
             + DefaultActivationStrategyProvider.class.getSimpleName());
     }
 
+    /**
+     * Enables compiled evaluation of feature states. The feature manager will compile the state of each feature into an
+     * immutable decision on first access and reuse it for subsequent calls of {@link FeatureManager#isActive(Feature)}.
+     * Compiled states are discarded if the state of a feature is modified through the feature manager. You should
+     * therefore never use this method if the feature state is modified directly (for example by modifying the database
+     * table or the properties file). Use {@link #compiledEvaluation(long, TimeUnit)} in this case.
+     */
+    public FeatureManagerBuilder compiledEvaluation() {
+        return compiledEvaluation(0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Enables compiled evaluation of feature states like {@link #compiledEvaluation()}. All compiled states are
+     * additionally discarded after the supplied refresh interval so that modifications made directly in the
+     * {@link StateRepository} are picked up.
+     *
+     * @param refreshInterval The time after which all compiled states are discarded, <code>0</code> to disable refreshing
+     * @param timeUnit The unit that {@code refreshInterval} is expressed in
+     * @throws IllegalArgumentException if the specified interval is negative
+     */
+    public FeatureManagerBuilder compiledEvaluation(long refreshInterval, TimeUnit timeUnit) {
+        if (refreshInterval < 0) {
+            throw new IllegalArgumentException("Negative refresh interval: " + refreshInterval);
+        }
+        this.compiledEvaluation = true;
+        this.compiledRefreshInterval = timeUnit.toMillis(refreshInterval);
+        return this;
+    }
+
     /**
      * Initialize the builder with the configuration from the supplied {@link TogglzConfig} instance.
      */
@@ -132,7 +164,8 @@ public class FeatureManagerBuilder {
 
         Validate.notBlank(name, "No name specified");
         Validate.notNull(featureProvider, "No feature provider specified");
-        return new DefaultFeatureManager(name, featureProvider, stateRepository, userProvider, strategyProvider);
+        return new DefaultFeatureManager(name, featureProvider, stateRepository, userProvider, strategyProvider,
+            compiledEvaluation, compiledRefreshInterval);
     }
 
 }
@@ -0,0 +1,101 @@
+package org.togglz.core.manager;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.togglz.core.Feature;
+
+/**
+ * Immutable result of evaluating a number of features at once using {@link FeatureManager#evaluate(java.util.Collection)}
+ * or {@link FeatureManager#evaluateAll()}. The snapshot won't reflect any modifications of the feature states made after
+ * it has been created.
+ */
+public final class FeatureSnapshot {
+
+    private final Feature[] features;
+    private final BitSet active;
+    private final Map<String, Integer> indexByName;
+
+    FeatureSnapshot(Feature[] features, BitSet active) {
+        this.features = features;
+        this.active = active;
+        this.indexByName = new HashMap<>(features.length * 4 / 3 + 1);
+        for (int i = 0; i < features.length; i++) {
+            indexByName.putIfAbsent(features[i].name(), i);
+        }
+    }
+
+    /**
+     * Checks whether the supplied feature was active when the snapshot was created.
+     *
+     * @param feature The feature to check
+     * @return <code>true</code> if the feature was active, <code>false</code> if it was inactive or isn't part of the
+     *         snapshot
+     */
+    public boolean isActive(Feature feature) {
+        return isActive(feature.name());
+    }
+
+    /**
+     * Checks whether the feature with the supplied name was active when the snapshot was created.
+     *
+     * @param name The name of the feature to check
+     * @return <code>true</code> if the feature was active, <code>false</code> if it was inactive or isn't part of the
+     *         snapshot
+     */
+    public boolean isActive(String name) {
+        Integer index = indexByName.get(name);
+        return index != null && active.get(index);
+    }
+
+    /**
+     * Checks whether the supplied feature is part of the snapshot.
+     */
+    public boolean contains(Feature feature) {
+        return indexByName.containsKey(feature.name());
+    }
+
+    /**
+     * Returns all evaluated features in the order they were supplied.
+     */
+    public Set<Feature> getFeatures() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(features)));
+    }
+
+    /**
+     * Returns all features which were active when the snapshot was created.
+     */
+    public Set<Feature> getActiveFeatures() {
+        Set<Feature> result = new LinkedHashSet<>();
+        for (int i = active.nextSetBit(0); i >= 0; i = active.nextSetBit(i + 1)) {
+            result.add(features[i]);
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Returns the decisions as a {@link BitSet}. The bit at index <code>i</code> corresponds to the <code>i</code>-th
+     * feature returned by {@link #getFeatures()}.
+     */
+    public BitSet toBitSet() {
+        return (BitSet) active.clone();
+    }
+
+    /**
+     * The number of evaluated features.
+     */
+    public int size() {
+        return features.length;
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureSnapshot[active=" + getActiveFeatures() + "]";
+    }
+
+}
@@ -7,6 +7,7 @@ import org.togglz.core.repository.FeatureState;
 import org.togglz.core.spi.ActivationStrategy;
 import org.togglz.core.user.FeatureUser;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -41,6 +42,16 @@ public class LazyResolvingFeatureManager implements FeatureManager {
         return getDelegate().isActive(feature);
     }
 
+    @Override
+    public FeatureSnapshot evaluate(Collection<? extends Feature> features) {
+        return getDelegate().evaluate(features);
+    }
+
+    @Override
+    public FeatureSnapshot evaluateAll() {
+        return getDelegate().evaluateAll();
+    }
+
     @Override
     public FeatureUser getCurrentFeatureUser() {
         return getDelegate().getCurrentFeatureUser();
@@ -61,6 +72,11 @@ public class LazyResolvingFeatureManager implements FeatureManager {
         return getDelegate().getActivationStrategies();
     }
 
+    @Override
+    public ActivationStrategy getActivationStrategy(String id) {
+        return getDelegate().getActivationStrategy(id);
+    }
+
     @Override
     public void enable(Feature feature) {
         getDelegate().setFeatureState(new FeatureState(feature, true));
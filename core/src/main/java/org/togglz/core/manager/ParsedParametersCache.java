@@ -0,0 +1,94 @@
+package org.togglz.core.manager;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.togglz.core.Feature;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.spi.ActivationStrategy;
+import org.togglz.core.spi.ParsedParametersActivationStrategy;
+import org.togglz.core.user.FeatureUser;
+
+/**
+ * Caches the parameters parsed by {@link ParsedParametersActivationStrategy} implementations. An entry is only reused
+ * if the feature state it was parsed from is equal to the state being evaluated, so modifications made directly in the
+ * {@link org.togglz.core.repository.StateRepository} are detected. Entries are discarded by {@link #invalidate(Feature)}
+ * if the state is modified through the feature manager.
+ * <p>
+ * Parsed parameters are only used if {@link ActivationStrategy#isActive(FeatureState, FeatureUser)} isn't overridden,
+ * so subclasses of the built-in strategies which customize <code>isActive</code> are still invoked as before.
+ * </p>
+ */
+class ParsedParametersCache {
+
+    private static final ClassValue<Boolean> PARSED_EVALUATION = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (!ParsedParametersActivationStrategy.class.isAssignableFrom(type)) {
+                return false;
+            }
+            try {
+                // a final implementation can't be overridden, so it is consistent with evaluate()
+                Method isActive = type.getMethod("isActive", FeatureState.class, FeatureUser.class);
+                return isActive.getDeclaringClass() == ParsedParametersActivationStrategy.class
+                    || Modifier.isFinal(isActive.getModifiers());
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Evaluates the strategy for the supplied state. Strategies which don't support parsed parameters are invoked
+     * directly.
+     */
+    boolean isActive(ActivationStrategy strategy, FeatureState state, FeatureUser user) {
+        if (usesParsedParameters(strategy)) {
+            return evaluate((ParsedParametersActivationStrategy<?>) strategy, state, user);
+        }
+        return strategy.isActive(state, user);
+    }
+
+    /**
+     * Returns <code>true</code> if the strategy implements {@link ParsedParametersActivationStrategy} and doesn't
+     * override {@link ActivationStrategy#isActive(FeatureState, FeatureUser)}.
+     */
+    static boolean usesParsedParameters(ActivationStrategy strategy) {
+        return PARSED_EVALUATION.get(strategy.getClass());
+    }
+
+    void invalidate(Feature feature) {
+        entries.remove(feature.name());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <P> boolean evaluate(ParsedParametersActivationStrategy<P> strategy, FeatureState state, FeatureUser user) {
+        String name = state.getFeature().name();
+        Entry entry = entries.get(name);
+        if (entry == null || entry.strategy != strategy || !entry.state.equals(state)) {
+            // the state is copied unless it is immutable, because the repository may modify the returned instance
+            entry = new Entry(strategy, state.toImmutable(), strategy.parseParameters(state));
+            entries.put(name, entry);
+        }
+        return strategy.evaluate(state, user, (P) entry.parameters);
+    }
+
+    private static class Entry {
+
+        private final ActivationStrategy strategy;
+        private final FeatureState state;
+        private final Object parameters;
+
+        private Entry(ActivationStrategy strategy, FeatureState state, Object parameters) {
+            this.strategy = strategy;
+            this.state = state;
+            this.parameters = parameters;
+        }
+
+    }
+
+}
@@ -24,6 +24,16 @@ public interface FeatureMetaData {
      */
     FeatureState getDefaultFeatureState();
 
+    /**
+     * Immutable variant of {@link #getDefaultFeatureState()}, which is used when evaluating features without a stored
+     * state. Implementations should return a shared instance instead of creating a new state for every invocation.
+     *
+     * @see FeatureState#toImmutable()
+     */
+    default FeatureState getImmutableDefaultFeatureState() {
+        return getDefaultFeatureState().toImmutable();
+    }
+
     /**
      * The feature groups to which the feature belongs.
      */
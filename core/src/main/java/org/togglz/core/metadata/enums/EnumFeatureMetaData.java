@@ -40,18 +40,19 @@ public class EnumFeatureMetaData implements FeatureMetaData {
 
         // lookup default via @EnabledByDefault
         boolean enabledByDefault = FeatureAnnotations.isEnabledByDefault(feature);
-        this.defaultFeatureState = new FeatureState(feature, enabledByDefault);
+        FeatureState defaultState = new FeatureState(feature, enabledByDefault);
 
         // lookup default activation strategy @DefaultActivationStrategy
         DefaultActivationStrategy defaultActivationStrategy = FeatureAnnotations
                 .getAnnotation(feature, DefaultActivationStrategy.class);
         if (defaultActivationStrategy != null) {
-            this.defaultFeatureState.setStrategyId(defaultActivationStrategy.id());
+            defaultState.setStrategyId(defaultActivationStrategy.id());
 
             for (ActivationParameter parameter : defaultActivationStrategy.parameters()) {
-                this.defaultFeatureState.setParameter(parameter.name(), parameter.value());
+                defaultState.setParameter(parameter.name(), parameter.value());
             }
         }
+        this.defaultFeatureState = defaultState.toImmutable();
 
         // process annotations on the feature
         for (Annotation annotation : FeatureAnnotations.getAnnotations(feature)) {
@@ -90,6 +91,11 @@ public class EnumFeatureMetaData implements FeatureMetaData {
         return defaultFeatureState.copy();
     }
 
+    @Override
+    public FeatureState getImmutableDefaultFeatureState() {
+        return defaultFeatureState;
+    }
+
     @Override
     public Set<FeatureGroup> getGroups() {
         return groups;
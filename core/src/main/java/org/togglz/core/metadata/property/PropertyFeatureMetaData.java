@@ -45,7 +45,7 @@ public class PropertyFeatureMetaData implements FeatureMetaData {
             label = feature.name();
         }
 
-        defaultFeatureState = new FeatureState(feature, enabledByDefault);
+        defaultFeatureState = new FeatureState(feature, enabledByDefault).toImmutable();
 
     }
 
@@ -69,6 +69,11 @@ public class PropertyFeatureMetaData implements FeatureMetaData {
         return defaultFeatureState.copy();
     }
 
+    @Override
+    public FeatureState getImmutableDefaultFeatureState() {
+        return defaultFeatureState;
+    }
+
     @Override
     public Set<FeatureGroup> getGroups() {
         return groups;
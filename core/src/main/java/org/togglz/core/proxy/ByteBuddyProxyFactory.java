@@ -15,6 +15,7 @@ import org.togglz.core.manager.LazyResolvingFeatureManager;
 
 import net.bytebuddy.ByteBuddy;
 import net.bytebuddy.NamingStrategy;
+import net.bytebuddy.TypeCache;
 import net.bytebuddy.NamingStrategy.SuffixingRandom.BaseNameResolver.ForGivenType;
 import net.bytebuddy.implementation.Implementation;
 import net.bytebuddy.implementation.MethodCall;
@@ -49,6 +50,12 @@ import net.bytebuddy.implementation.MethodCall;
  * <p>For these cases {@code passiveProxyFor(...)} will generate classes that never check the feature state themselves.
  * To be updated they must be passed to {@link TogglzSwitchable#update(Object)}.
  *
+ * <h2>Change-driven mode</h2>
+ * Proxies created by {@code changeDrivenProxyFor(...)} are updated by a {@link TogglzSwitchableNotifier} when the state
+ * of the {@link Feature} is modified, so a call is just a field read and a direct invocation. This only applies while
+ * the feature is disabled or enabled without an activation strategy. If a strategy is selected, the decision may depend
+ * on the current user, so the proxy checks the feature state for every call like an active proxy.
+ *
  * <h2>Performance</h2>
  * Following gives approximate invocation overhead of using a {@link Feature}-controlled proxy vs direct calls.
  *
@@ -59,21 +66,43 @@ import net.bytebuddy.implementation.MethodCall;
  *     <tr><td>JDK Proxy</td> <td>10%</td></tr>
  * </table>
  *
+ * <h2>Type Caching</h2>
+ * The generated classes are cached per interface, context class loader and mode, so creating many proxies for the same
+ * interface only generates a single class. The cache holds the classes softly and doesn't prevent class loaders from
+ * being garbage collected.
+ *
  * @see TogglzSwitchable
  */
 public class ByteBuddyProxyFactory {
 
-  // TODO where is the type-caching?
-
   private static final Logger log = LoggerFactory.getLogger(ByteBuddyProxyFactory.class);
 
+  private enum ProxyMode {
+    ACTIVE("checkTogglzState"),
+    PASSIVE(null),
+    CHANGE_DRIVEN("checkTogglzStateIfRequired");
+
+    private final TypeCache<TypeCache.SimpleKey> types = new TypeCache.WithInlineExpunction<>(TypeCache.Sort.SOFT);
+
+    private final String checkMethod;
+
+    ProxyMode(String checkMethod) {
+      this.checkMethod = checkMethod;
+    }
+
+    Implementation implementation() {
+      Implementation.Composable delegateCall = MethodCall.invokeSelf().onField("delegate");
+      return checkMethod == null ? delegateCall : MethodCall.invoke(named(checkMethod)).onSuper().andThen(delegateCall);
+    }
+  }
+
   /**
    * Generate a passive {@link Feature} proxy.
    *
    * @see ByteBuddyProxyFactory
    */
   public static <T> T passiveProxyFor(Feature feature, Class<? super T> interfaceClass, T active, T inactive) {
-    return generateProxy(feature, interfaceClass, active, inactive, new LazyResolvingFeatureManager(), true);
+    return generateProxy(feature, interfaceClass, active, inactive, new LazyResolvingFeatureManager(), ProxyMode.PASSIVE);
   }
 
   /**
@@ -82,7 +111,7 @@ public class ByteBuddyProxyFactory {
    * @see ByteBuddyProxyFactory
    */
   public static <T> T passiveProxyFor(Feature feature, Class<? super T> interfaceClass, T active, T inactive, FeatureManager featureManager) {
-    return generateProxy(feature, interfaceClass, active, inactive, featureManager, true);
+    return generateProxy(feature, interfaceClass, active, inactive, featureManager, ProxyMode.PASSIVE);
   }
 
   /**
@@ -91,7 +120,7 @@ public class ByteBuddyProxyFactory {
    * @see ByteBuddyProxyFactory
    */
   public static <T> T proxyFor(Feature feature, Class<? super T> interfaceClass, T active, T inactive) {
-    return generateProxy(feature, interfaceClass, active, inactive, new LazyResolvingFeatureManager(), false);
+    return generateProxy(feature, interfaceClass, active, inactive, new LazyResolvingFeatureManager(), ProxyMode.ACTIVE);
   }
 
   /**
@@ -100,23 +129,45 @@ public class ByteBuddyProxyFactory {
    * @see ByteBuddyProxyFactory
    */
   public static <T> T proxyFor(Feature feature, Class<? super T> interfaceClass, T active, T inactive, FeatureManager featureManager) {
-    return generateProxy(feature, interfaceClass, active, inactive, featureManager, false);
+    return generateProxy(feature, interfaceClass, active, inactive, featureManager, ProxyMode.ACTIVE);
   }
 
-  private static <T> T generateProxy(Feature feature, Class<? super T> interfaceClass, T active, T inactive, FeatureManager featureManager, boolean passiveProxy) {
+  /**
+   * Generate a change-driven {@link Feature} proxy which is registered with the supplied notifier.
+   *
+   * @see ByteBuddyProxyFactory
+   */
+  public static <T> T changeDrivenProxyFor(Feature feature, Class<? super T> interfaceClass, T active, T inactive, TogglzSwitchableNotifier notifier) {
+    return changeDrivenProxyFor(feature, interfaceClass, active, inactive, new LazyResolvingFeatureManager(), notifier);
+  }
+
+  /**
+   * Generate a change-driven {@link Feature} proxy which is registered with the supplied notifier.
+   *
+   * @see ByteBuddyProxyFactory
+   */
+  public static <T> T changeDrivenProxyFor(Feature feature, Class<? super T> interfaceClass, T active, T inactive, FeatureManager featureManager, TogglzSwitchableNotifier notifier) {
+    T proxy = generateProxy(feature, interfaceClass, active, inactive, featureManager, ProxyMode.CHANGE_DRIVEN);
+    notifier.register((TogglzSwitchable<?>) proxy);
+    return proxy;
+  }
+
+  private static <T> T generateProxy(Feature feature, Class<? super T> interfaceClass, T active, T inactive, FeatureManager featureManager, ProxyMode mode) {
     try {
-      Class<?> clazz = generateProxyClass(interfaceClass, passiveProxy);
+      Class<?> clazz = getProxyClass(interfaceClass, mode);
       return (T)clazz.getConstructors()[0].newInstance(featureManager, feature, active, inactive);
     } catch (Exception e) {
       throw new RuntimeException("Failed to create proxy for " + interfaceClass.getSimpleName(), e);
     }
   }
 
-  private static Class<?> generateProxyClass(Class<?> interfaceClass, boolean passiveProxy) {
-    Implementation.Composable activeProxyImpl = MethodCall.invoke(named("checkTogglzState")).onSuper().andThen(MethodCall.invokeSelf().onField("delegate"));
-    Implementation.Composable passiveProxyImpl = MethodCall.invokeSelf().onField("delegate");
-
+  private static Class<?> getProxyClass(Class<?> interfaceClass, ProxyMode mode) {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    return mode.types.findOrInsert(classLoader, new TypeCache.SimpleKey(interfaceClass),
+      () -> generateProxyClass(interfaceClass, mode, classLoader), mode.types);
+  }
 
+  private static Class<?> generateProxyClass(Class<?> interfaceClass, ProxyMode mode, ClassLoader classLoader) {
     Class<?> clazz = new ByteBuddy()
       .with(new NamingStrategy.SuffixingRandom("togglz", new ForGivenType(of(interfaceClass))))
       .subclass(parameterizedType(TogglzSwitchable.class, interfaceClass).build())
@@ -125,10 +176,10 @@ public class ByteBuddyProxyFactory {
       // Define the interface methods excluding any that have default impls.
       .method(isDeclaredBy(interfaceClass).and(not(isDefaultMethod()))
                 .or(named("toString")))
-      .intercept(passiveProxy ? passiveProxyImpl : activeProxyImpl)
+      .intercept(mode.implementation())
 
       .make()
-      .load(Thread.currentThread().getContextClassLoader())
+      .load(classLoader)
       .getLoaded();
 
     if (log.isDebugEnabled()) {
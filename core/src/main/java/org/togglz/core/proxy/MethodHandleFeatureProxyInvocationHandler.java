@@ -0,0 +1,226 @@
+package org.togglz.core.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.togglz.core.Feature;
+import org.togglz.core.manager.FeatureManager;
+import org.togglz.core.manager.LazyResolvingFeatureManager;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.repository.listener.FeatureStateChangedListener;
+import org.togglz.core.util.Strings;
+
+/**
+ * <p>
+ * A {@link InvocationHandler} implementation that delegates invocation to one of two objects depending on the state of
+ * the specified feature. In contrast to {@link FeatureProxyInvocationHandler} the methods of both targets are bound to
+ * {@link MethodHandle}s when they are invoked for the first time, which avoids the overhead of reflective calls.
+ * </p>
+ *
+ * <p>
+ * The {@link Evaluation} controls when the feature state is checked. Passive handlers only switch the target if
+ * {@link #update()} is called. They can be registered with a
+ * {@link org.togglz.core.repository.listener.ListenableStateRepository} to switch as soon as the state of the feature is
+ * modified. The target is only fixed while the feature is disabled or enabled without an activation strategy, because
+ * other decisions may depend on the current user or time. Such states are still evaluated for every invocation.
+ * </p>
+ *
+ * @see FeatureProxyInvocationHandler
+ */
+public class MethodHandleFeatureProxyInvocationHandler implements InvocationHandler, FeatureStateChangedListener {
+
+    /**
+     * Controls when the feature state is checked.
+     */
+    public enum Evaluation {
+
+        /**
+         * The feature state is checked for every invocation.
+         */
+        PER_INVOCATION,
+
+        /**
+         * The feature state is checked when the handler is created and every time {@link #update()} is called. States
+         * with an activation strategy are evaluated for every invocation.
+         */
+        PASSIVE
+
+    }
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private static final MethodHandle INVOKE_REFLECTIVELY;
+
+    static {
+        try {
+            INVOKE_REFLECTIVELY = MethodHandles.lookup().findStatic(MethodHandleFeatureProxyInvocationHandler.class,
+                "invokeReflectively", MethodType.methodType(Object.class, Method.class, Object.class, Object[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Feature feature;
+
+    private final Object active;
+
+    private final Object inactive;
+
+    private final FeatureManager featureManager;
+
+    private final Evaluation evaluation;
+
+    private final Map<Method, TargetHandles> handles = new ConcurrentHashMap<>();
+
+    /**
+     * The target fixed by the last {@link #update()}, or <code>null</code> if every invocation has to be evaluated.
+     */
+    private volatile Boolean fixedActive;
+
+    public MethodHandleFeatureProxyInvocationHandler(Feature feature, Object active, Object inactive) {
+        this(feature, active, inactive, new LazyResolvingFeatureManager(), Evaluation.PER_INVOCATION);
+    }
+
+    public MethodHandleFeatureProxyInvocationHandler(Feature feature, Object active, Object inactive,
+        FeatureManager featureManager) {
+        this(feature, active, inactive, featureManager, Evaluation.PER_INVOCATION);
+    }
+
+    public MethodHandleFeatureProxyInvocationHandler(Feature feature, Object active, Object inactive,
+        FeatureManager featureManager, Evaluation evaluation) {
+        this.feature = feature;
+        this.active = active;
+        this.inactive = inactive;
+        this.featureManager = featureManager;
+        this.evaluation = evaluation;
+        if (evaluation == Evaluation.PASSIVE) {
+            update();
+        }
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        TargetHandles targetHandles = handles.get(method);
+        if (targetHandles == null) {
+            targetHandles = handles.computeIfAbsent(method, this::createHandles);
+        }
+        Boolean fixed = fixedActive;
+        boolean activeTarget = fixed != null ? fixed : featureManager.isActive(feature);
+        MethodHandle handle = activeTarget ? targetHandles.active : targetHandles.inactive;
+        Object[] arguments = args != null ? args : NO_ARGS;
+        return (Object) handle.invokeExact(arguments);
+    }
+
+    /**
+     * Checks the feature state and selects the target used by subsequent invocations. Only required for
+     * {@link Evaluation#PASSIVE} handlers.
+     */
+    public void update() {
+        apply(featureManager.getFeatureState(feature));
+    }
+
+    /**
+     * Applies the new state like {@link #update()} if the state of the feature of this handler has been modified.
+     */
+    @Override
+    public void onFeatureStateChanged(FeatureState fromState, FeatureState toState) {
+        if (toState != null && toState.getFeature().name().equals(feature.name())) {
+            apply(toState);
+        }
+    }
+
+    private void apply(FeatureState state) {
+        if (evaluation != Evaluation.PASSIVE) {
+            return;
+        }
+        if (state != null && (!state.isEnabled() || Strings.isBlank(state.getStrategyId()))) {
+            fixedActive = state.isEnabled();
+        } else {
+            // the decision may depend on the user or the time
+            fixedActive = null;
+        }
+    }
+
+    @Override
+    public int priority() {
+        return 100;
+    }
+
+    public Feature getFeature() {
+        return feature;
+    }
+
+    public Object getActive() {
+        return active;
+    }
+
+    public Object getInactive() {
+        return inactive;
+    }
+
+    public Evaluation getEvaluation() {
+        return evaluation;
+    }
+
+    private TargetHandles createHandles(Method method) {
+        MethodHandle handle = unreflect(method);
+        if (handle == null) {
+            // fall back to reflection if the method cannot be accessed using a method handle
+            MethodHandle reflective = INVOKE_REFLECTIVELY.bindTo(method);
+            return new TargetHandles(reflective.bindTo(active), reflective.bindTo(inactive));
+        }
+        return new TargetHandles(spread(handle.bindTo(active), method), spread(handle.bindTo(inactive), method));
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            // the interface isn't public, so try to suppress the access checks
+        }
+        try {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Adapts the handle to the type <code>(Object[])Object</code> so that it can be called using
+     * {@link MethodHandle#invokeExact(Object...)}.
+     */
+    private static MethodHandle spread(MethodHandle handle, Method method) {
+        return handle
+            .asSpreader(Object[].class, method.getParameterCount())
+            .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    private static Object invokeReflectively(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static class TargetHandles {
+
+        private final MethodHandle active;
+
+        private final MethodHandle inactive;
+
+        private TargetHandles(MethodHandle active, MethodHandle inactive) {
+            this.active = active;
+            this.inactive = inactive;
+        }
+
+    }
+
+}
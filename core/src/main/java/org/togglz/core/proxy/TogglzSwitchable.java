@@ -2,6 +2,8 @@ package org.togglz.core.proxy;
 
 import org.togglz.core.Feature;
 import org.togglz.core.manager.FeatureManager;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.util.Strings;
 
 /**
  * Simple switch which sets its delegate to one of two objects depending on the state of the specified {@link Feature}.
@@ -14,6 +16,11 @@ public abstract class TogglzSwitchable<T> {
   private final T inactive;
   protected T delegate;
 
+  // only used by change-driven proxies, see checkTogglzStateIfRequired()
+  private volatile boolean evaluatePerCall;
+  // number of state change events received, guarded by this
+  private long stateChanges;
+
   public TogglzSwitchable(FeatureManager featureManager, Feature feature, T active, T inactive) {
     this.featureManager = featureManager;
     this.feature = feature;
@@ -34,6 +41,57 @@ public abstract class TogglzSwitchable<T> {
     }
   }
 
+  /**
+   * Updates the internal delegate selection only if the current {@link FeatureState} depends on the strategy. This is
+   * intended for use with change-driven switching, where the delegate is usually updated by a
+   * {@link TogglzSwitchableNotifier}.
+   */
+  protected final void checkTogglzStateIfRequired() {
+    if (evaluatePerCall) {
+      checkTogglzState();
+    }
+  }
+
+  /**
+   * Selects the delegate for the supplied state. If the decision depends on an activation strategy, which may take the
+   * current user or time into account, the feature state will be checked for every call instead.
+   */
+  synchronized void onFeatureStateChanged(FeatureState state) {
+    stateChanges++;
+    applyFeatureState(state);
+  }
+
+  synchronized long getStateChanges() {
+    return stateChanges;
+  }
+
+  /**
+   * Selects the delegate for a state read by the caller, unless a change event has been received since the caller
+   * called {@link #getStateChanges()}. The state of such an event may be more recent than the state read.
+   */
+  synchronized void onFeatureStateRead(FeatureState state, long seenStateChanges) {
+    if (stateChanges == seenStateChanges) {
+      applyFeatureState(state);
+    }
+  }
+
+  private void applyFeatureState(FeatureState state) {
+    if (state != null && (!state.isEnabled() || Strings.isBlank(state.getStrategyId()))) {
+      delegate = state.isEnabled() ? active : inactive;
+      evaluatePerCall = false;
+    } else {
+      evaluatePerCall = true;
+    }
+  }
+
+  Feature getFeature() {
+    return feature;
+  }
+
+  FeatureManager getFeatureManager() {
+    return featureManager;
+  }
+
   /**
    * Manually update the internal delegation of a {@link TogglzSwitchable} against its
    * {@link Feature} state. This is intended for use with passive switching.
@@ -0,0 +1,59 @@
+package org.togglz.core.proxy;
+
+import static org.togglz.core.util.ConcurrentReferenceHashMap.ReferenceType.STRONG;
+import static org.togglz.core.util.ConcurrentReferenceHashMap.ReferenceType.WEAK;
+
+import java.util.EnumSet;
+
+import org.togglz.core.Feature;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.repository.listener.FeatureStateChangedListener;
+import org.togglz.core.util.ConcurrentReferenceHashMap;
+
+/**
+ * <p>
+ * Updates the delegates of change-driven {@link TogglzSwitchable} proxies when the state of their {@link Feature} is
+ * modified. The notifier has to be registered with the
+ * {@link org.togglz.core.repository.listener.ListenableStateRepository} used by the feature manager.
+ * </p>
+ *
+ * <p>
+ * Only modifications made through the listenable repository are detected. Proxies are referenced weakly, so they don't
+ * have to be unregistered.
+ * </p>
+ *
+ * @see ByteBuddyProxyFactory#changeDrivenProxyFor(Feature, Class, Object, Object, org.togglz.core.manager.FeatureManager,
+ *      TogglzSwitchableNotifier)
+ */
+public class TogglzSwitchableNotifier implements FeatureStateChangedListener {
+
+  private final ConcurrentReferenceHashMap<TogglzSwitchable<?>, Boolean> switchables =
+    new ConcurrentReferenceHashMap<>(WEAK, STRONG, EnumSet.of(ConcurrentReferenceHashMap.Option.IDENTITY_COMPARISONS));
+
+  /**
+   * Registers the switchable and selects its delegate according to the current state of the feature. A modification
+   * notified while the state is read takes precedence over the state read.
+   */
+  public void register(TogglzSwitchable<?> switchable) {
+    switchables.put(switchable, Boolean.TRUE);
+    long seenStateChanges = switchable.getStateChanges();
+    FeatureState state = switchable.getFeatureManager().getFeatureState(switchable.getFeature());
+    switchable.onFeatureStateRead(state, seenStateChanges);
+  }
+
+  @Override
+  public void onFeatureStateChanged(FeatureState fromState, FeatureState toState) {
+    String name = toState.getFeature().name();
+    for (TogglzSwitchable<?> switchable : switchables.keySet()) {
+      if (switchable.getFeature().name().equals(name)) {
+        switchable.onFeatureStateChanged(toState);
+      }
+    }
+  }
+
+  @Override
+  public int priority() {
+    return 100;
+  }
+
+}
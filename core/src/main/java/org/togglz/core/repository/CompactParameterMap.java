@@ -0,0 +1,113 @@
+package org.togglz.core.repository;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Unmodifiable map used for the parameters of immutable {@link FeatureState} instances. Keys and values are stored in
+ * two arrays sorted by key, which is considerably smaller than a {@link java.util.HashMap} for the typical handful of
+ * parameters.
+ *
+ * @see FeatureState#toImmutable()
+ */
+final class CompactParameterMap extends AbstractMap<String, String> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final CompactParameterMap EMPTY = new CompactParameterMap(new String[0], new String[0]);
+
+    private final String[] keys;
+    private final String[] values;
+
+    private CompactParameterMap(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    static CompactParameterMap copyOf(Map<String, String> parameters) {
+        if (parameters instanceof CompactParameterMap) {
+            return (CompactParameterMap) parameters;
+        }
+        if (parameters.isEmpty()) {
+            return EMPTY;
+        }
+        String[] keys = parameters.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        String[] values = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = parameters.get(keys[i]);
+        }
+        return new CompactParameterMap(keys, values);
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<Entry<String, String>>() {
+
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (index >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, String> entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+                        index++;
+                        return entry;
+                    }
+
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+
+        };
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        return Arrays.binarySearch(keys, key);
+    }
+
+}
@@ -6,12 +6,19 @@ import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 
 /**
+ * <p>
  * This class represents the state of a feature that is persisted by {@link StateRepository} implementations.
+ * </p>
+ *
+ * <p>
+ * Feature states are mutable by default. {@link #toImmutable()} creates an immutable state, which can be shared by
+ * repositories and caches without defensive copies. Invoking a modifying method on an immutable state throws an
+ * {@link UnsupportedOperationException}, use {@link #copy()} to obtain a modifiable state.
+ * </p>
  *
  * @author Christian Kaltepoth
  */
@@ -22,7 +29,8 @@ public class FeatureState implements Serializable {
     private final Feature feature;
     private boolean enabled;
     private String strategyId;
-    private final Map<String, String> parameters = new HashMap<>();
+    private final Map<String, String> parameters;
+    private final boolean immutable;
 
     /**
      * This constructor creates a new feature state for the given feature. The feature is initially disabled if this constructor
@@ -43,21 +51,52 @@ public class FeatureState implements Serializable {
     public FeatureState(Feature feature, boolean enabled) {
         this.feature = feature;
         this.enabled = enabled;
+        this.parameters = new HashMap<>();
+        this.immutable = false;
+    }
+
+    private FeatureState(Feature feature, FeatureState state) {
+        this.feature = feature;
+        this.enabled = state.enabled;
+        this.strategyId = state.strategyId;
+        this.parameters = CompactParameterMap.copyOf(state.parameters);
+        this.immutable = true;
     }
 
     /**
-     * Creates a copy of this state object
+     * Creates a copy of this state object. The copy is always modifiable.
      */
     public FeatureState copy() {
-        FeatureState copy = new FeatureState(feature);
-        copy.setEnabled(this.enabled);
-        copy.setStrategyId(this.strategyId);
-        for (Entry<String, String> entry : this.parameters.entrySet()) {
-            copy.setParameter(entry.getKey(), entry.getValue());
-        }
+        FeatureState copy = new FeatureState(feature, enabled);
+        copy.strategyId = this.strategyId;
+        copy.parameters.putAll(this.parameters);
         return copy;
     }
 
+    /**
+     * Returns an immutable state equal to this one. Returns this instance if it is already immutable.
+     */
+    public FeatureState toImmutable() {
+        return immutable ? this : new FeatureState(feature, this);
+    }
+
+    /**
+     * Returns an immutable state equal to this one which represents the supplied feature. Repositories which look up
+     * states by name use this to return a shared state for another instance of the feature, for example a
+     * {@link org.togglz.core.util.NamedFeature} instead of an enum constant. The parameters of an immutable state are
+     * shared, and this instance is returned if it is immutable and already represents the feature.
+     */
+    public FeatureState toImmutable(Feature feature) {
+        return immutable && this.feature == feature ? this : new FeatureState(feature, this);
+    }
+
+    /**
+     * Whether this state has been created by {@link #toImmutable()} and therefore cannot be modified.
+     */
+    public boolean isImmutable() {
+        return immutable;
+    }
+
     /**
      * Returns the feature represented by this feature state.
      *
@@ -78,6 +117,7 @@ public class FeatureState implements Serializable {
      * Enables or disables the feature.
      */
     public FeatureState setEnabled(boolean enabled) {
+        checkModifiable();
         this.enabled = enabled;
         return this;
     }
@@ -107,6 +147,7 @@ public class FeatureState implements Serializable {
      * Sets the selected activation strategy ID
      */
     public FeatureState setStrategyId(String strategyId) {
+        checkModifiable();
         this.strategyId = strategyId;
         return this;
     }
@@ -122,6 +163,7 @@ public class FeatureState implements Serializable {
      * Sets a new value for the given parameter.
      */
     public FeatureState setParameter(String name, String value) {
+        checkModifiable();
         if (value != null && !value.isEmpty()) {
             this.parameters.put(name, value);
         } else {
@@ -137,11 +179,17 @@ public class FeatureState implements Serializable {
         return this.parameters.keySet();
     }
 
+    private void checkModifiable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("The state of feature " + feature.name() + " is immutable");
+        }
+    }
+
     /**
      * Returns an unmodifiable map of parameters
      */
     public Map<String, String> getParameterMap() {
-        return Collections.unmodifiableMap(this.parameters);
+        return immutable ? this.parameters : Collections.unmodifiableMap(this.parameters);
     }
 
     @Override
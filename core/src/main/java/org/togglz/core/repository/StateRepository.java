@@ -1,5 +1,9 @@
 package org.togglz.core.repository;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.togglz.core.Feature;
 
 /**
@@ -21,6 +25,51 @@ public interface StateRepository {
      */
     FeatureState getFeatureState(Feature feature);
 
+    /**
+     * Variant of {@link #getFeatureState(Feature)} used when evaluating features. The returned state may be shared with
+     * other callers and must not be modified. Implementations which keep {@link FeatureState#toImmutable() immutable}
+     * states should override this method and return them directly, while {@link #getFeatureState(Feature)} returns a
+     * modifiable copy. The default implementation delegates to {@link #getFeatureState(Feature)}.
+     *
+     * @param feature The feature to read the state for
+     * @return The persisted feature state or <code>null</code>
+     */
+    default FeatureState getSharedFeatureState(Feature feature) {
+        return getFeatureState(feature);
+    }
+
+    /**
+     * Get the persisted state of several features from the repository. Implementations should override this method if
+     * they are able to load the states more efficiently than by calling {@link #getFeatureState(Feature)} for each
+     * feature, for example by using a single database query.
+     * 
+     * @param features The features to read the state for
+     * @return A map containing the persisted state for each of the supplied features. Features for which the repository
+     *         doesn't contain any information are not contained in the map.
+     */
+    default Map<Feature, FeatureState> getFeatureStates(Collection<? extends Feature> features) {
+        Map<Feature, FeatureState> result = new LinkedHashMap<>();
+        for (Feature feature : features) {
+            FeatureState state = getFeatureState(feature);
+            if (state != null) {
+                result.put(feature, state);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Variant of {@link #getFeatureStates(Collection)} used when evaluating several features at once. Like
+     * {@link #getSharedFeatureState(Feature)}, the returned states may be shared with other callers and must not be
+     * modified. The default implementation delegates to {@link #getFeatureStates(Collection)}.
+     *
+     * @param features The features to read the state for
+     * @return A map containing the persisted state for each of the supplied features
+     */
+    default Map<Feature, FeatureState> getSharedFeatureStates(Collection<? extends Feature> features) {
+        return getFeatureStates(features);
+    }
+
     /**
      * Persist the supplied feature state. The repository implementation must ensure that subsequent calls to
      * {@link #getFeatureState(Feature)} return the same state as persisted using this method.
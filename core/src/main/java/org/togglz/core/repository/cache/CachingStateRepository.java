@@ -1,13 +1,22 @@
 package org.togglz.core.repository.cache;
 
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.togglz.core.Feature;
 import org.togglz.core.repository.FeatureState;
 import org.togglz.core.repository.StateRepository;
@@ -16,6 +25,11 @@ import org.togglz.core.repository.StateRepository;
  * Simple implementation of {@link StateRepository} which adds caching capabilities to an existing repository. You should
  * consider using this class if lookups in your {@link StateRepository} are expensive (like database queries).
  *
+ * <p>
+ * Use {@link #newBuilder(StateRepository)} to configure a refresh-ahead cache, which reloads entries in the background
+ * before they expire and keeps serving the last known state while the reload is in progress or if it fails.
+ * </p>
+ *
  * @author Christian Kaltepoth
  */
 public class CachingStateRepository implements StateRepository {
@@ -26,10 +40,30 @@ public class CachingStateRepository implements StateRepository {
 
     private final long ttl;
 
-    private final Map<Feature, Lock> locks = new ConcurrentHashMap<>();
+    private final long negativeTtl;
+
+    /**
+     * The number of locks used to serialize reloads. Must be a power of two.
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
 
     private final ExecutorService executorService;
 
+    private final long refreshAfter;
+
+    private final long maxStaleness;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Incremented after every modification, so that loads which started before cannot cache outdated states.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Logger log = LoggerFactory.getLogger(CachingStateRepository.class);
+
     //visible for tests
     static Clock clock = Clock.systemUTC();
 
@@ -79,13 +113,24 @@ public class CachingStateRepository implements StateRepository {
      * @throws IllegalArgumentException if the specified ttl is negative
      */
     public CachingStateRepository(StateRepository delegate, long ttl, ExecutorService executorService) {
+        this(delegate, ttl, ttl, executorService, 0, 0);
+    }
+
+    private CachingStateRepository(StateRepository delegate, long ttl, long negativeTtl, ExecutorService executorService,
+                                   long refreshAfter, long maxStaleness) {
         if (ttl < 0) {
             throw new IllegalArgumentException("Negative TTL value: " + ttl);
         }
 
         this.delegate = delegate;
         this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
         this.executorService = executorService;
+        this.refreshAfter = refreshAfter;
+        this.maxStaleness = maxStaleness;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
     }
 
     /**
@@ -102,14 +147,29 @@ public class CachingStateRepository implements StateRepository {
         this(delegate, ttlTimeUnit.toMillis(ttl), executorService);
     }
 
+    /**
+     * Returns a modifiable copy of the cached state.
+     */
     @Override
     public FeatureState getFeatureState(Feature feature) {
+        return FeatureState.copyOf(getSharedFeatureState(feature));
+    }
+
+    /**
+     * Returns the cached state, which is immutable and shared by all callers.
+     */
+    @Override
+    public FeatureState getSharedFeatureState(Feature feature) {
         // first try to find it from the cache
         CacheEntry entry = cache.get(feature.name());
+        if (refreshAhead()) {
+            return getWithRefreshAhead(feature, entry);
+        }
         if (asyncReload()) {
             if (entry == null || entry.isExpired()) {
-                executorService.execute(() -> reloadFeatureState(feature));
+                scheduleRefresh(feature);
             }
+            // null if the feature isn't cached yet or is known to have no state
             return entry == null ? null : entry.getState();
         } else {
             if (isValidEntry(entry)) {
@@ -120,28 +180,169 @@ public class CachingStateRepository implements StateRepository {
         }
     }
 
+    /**
+     * Returns the cached states of the supplied features. In synchronous mode all features without a valid cache entry are
+     * fetched from the delegate using a single {@link StateRepository#getFeatureStates(Collection)} call. The returned
+     * states are modifiable copies.
+     */
+    @Override
+    public Map<Feature, FeatureState> getFeatureStates(Collection<? extends Feature> features) {
+        if (asyncReload()) {
+            return StateRepository.super.getFeatureStates(features);
+        }
+        return getFeatureStates(features, true);
+    }
+
+    /**
+     * Like {@link #getFeatureStates(Collection)}, but returns the cached states, which are immutable and shared by all
+     * callers.
+     */
+    @Override
+    public Map<Feature, FeatureState> getSharedFeatureStates(Collection<? extends Feature> features) {
+        if (asyncReload()) {
+            Map<Feature, FeatureState> result = new LinkedHashMap<>();
+            for (Feature feature : features) {
+                FeatureState state = getSharedFeatureState(feature);
+                if (state != null) {
+                    result.put(feature, state);
+                }
+            }
+            return result;
+        }
+        return getFeatureStates(features, false);
+    }
+
+    private Map<Feature, FeatureState> getFeatureStates(Collection<? extends Feature> features, boolean copy) {
+        Map<Feature, FeatureState> result = new LinkedHashMap<>();
+        List<Feature> misses = new ArrayList<>();
+        for (Feature feature : features) {
+            CacheEntry entry = cache.get(feature.name());
+            if (isValidEntry(entry)) {
+                if (entry.getState() != null) {
+                    result.put(feature, copy ? entry.getState().copy() : entry.getState());
+                }
+            } else {
+                misses.add(feature);
+            }
+        }
+        if (!misses.isEmpty()) {
+            long loadGeneration = generation.get();
+            Map<Feature, FeatureState> loaded = delegate.getFeatureStates(misses);
+            for (Feature feature : misses) {
+                FeatureState state = loaded.get(feature);
+                FeatureState cached = storeFeatureState(feature, state, loadGeneration);
+                if (state != null) {
+                    // the cache keeps its own immutable instance
+                    result.put(feature, copy ? (state.isImmutable() ? state.copy() : state) : cached);
+                }
+            }
+        }
+        return result;
+    }
+
     private boolean asyncReload() {
         return executorService != null;
     }
 
+    private boolean refreshAhead() {
+        return refreshAfter > 0;
+    }
+
+    private FeatureState getWithRefreshAhead(Feature feature, CacheEntry entry) {
+
+        // a cold miss is loaded synchronously, concurrent callers wait for the same load
+        if (entry == null) {
+            return reloadFeatureState(feature);
+        }
+
+        // entries without a TTL never expire
+        if (entry.ttl == 0) {
+            return entry.getState();
+        }
+
+        long age = clock.millis() - entry.timestamp;
+        if (age >= Math.min(refreshAfter, entry.ttl)) {
+            scheduleRefresh(feature);
+        }
+
+        // the last known state may be used until the maximum staleness is exceeded
+        if (age > entry.ttl + maxStaleness) {
+            return reloadFeatureState(feature);
+        }
+        return entry.getState();
+
+    }
+
+    /**
+     * Schedules a background refresh of the supplied feature unless a refresh is already pending, so that frequent
+     * lookups of a missing entry don't flood the executor. If the refresh fails, the current entry is kept.
+     */
+    private void scheduleRefresh(Feature feature) {
+        String name = feature.name();
+        if (!refreshing.add(name)) {
+            return;
+        }
+        try {
+            executorService.execute(() -> {
+                try {
+                    long loadGeneration = generation.get();
+                    storeFeatureState(feature, delegate.getFeatureState(feature), loadGeneration);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to refresh the state of feature {}, keeping the cached state", name, e);
+                } finally {
+                    refreshing.remove(name);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(name);
+            log.warn("Failed to schedule the refresh of feature {}", name, e);
+        }
+    }
+
     private FeatureState reloadFeatureState(Feature feature) {
-        locks.computeIfAbsent(feature, it -> new ReentrantLock())
-             .lock();
+        Lock lock = lockFor(feature);
+        lock.lock();
         try {
             CacheEntry cachedState = cache.get(feature.name());
             if (isValidEntry(cachedState)) {
                 return cachedState.getState();
             }
+            long loadGeneration = generation.get();
             FeatureState featureState = delegate.getFeatureState(feature);
-            storeFeatureState(feature, featureState);
-            return featureState;
+            return storeFeatureState(feature, featureState, loadGeneration);
         } finally {
-            locks.get(feature).unlock();
+            lock.unlock();
         }
     }
 
-    private void storeFeatureState(Feature feature, FeatureState featureState) {
-        cache.put(feature.name(), new CacheEntry(featureState != null ? featureState.copy() : null, ttl));
+    /**
+     * Features are mapped to a fixed number of locks by name, so that different {@link Feature} implementations with the
+     * same name share a lock and the number of locks doesn't grow with the number of features.
+     */
+    private Lock lockFor(Feature feature) {
+        int hash = feature.name().hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Caches the state loaded from the delegate. If the repository has been modified since the load started, the loaded
+     * state may be outdated and is discarded again.
+     */
+    private FeatureState storeFeatureState(Feature feature, FeatureState featureState, long loadGeneration) {
+        CacheEntry entry;
+        if (featureState != null) {
+            // immutable states can be returned to all callers without copying
+            entry = new CacheEntry(featureState.toImmutable(), ttl);
+        } else {
+            // remember that the delegate doesn't know the feature
+            entry = new CacheEntry(null, negativeTtl);
+        }
+        cache.put(feature.name(), entry);
+        // checked after storing the entry, because a concurrent modification may have removed the previous one already
+        if (generation.get() != loadGeneration) {
+            cache.remove(feature.name(), entry);
+        }
+        return entry.getState();
     }
 
     private boolean isValidEntry(CacheEntry entry) {
@@ -151,6 +352,7 @@ public class CachingStateRepository implements StateRepository {
     @Override
     public void setFeatureState(FeatureState featureState) {
         delegate.setFeatureState(featureState);
+        generation.incrementAndGet();
         cache.remove(featureState.getFeature().name());
     }
 
@@ -158,9 +360,142 @@ public class CachingStateRepository implements StateRepository {
      * Clears the contents of the cache
      */
     public void clear() {
+        generation.incrementAndGet();
         cache.clear();
     }
 
+    /**
+     * Creates a new builder for a {@link CachingStateRepository}.
+     *
+     * @param delegate The repository to delegate invocations to
+     */
+    public static Builder newBuilder(StateRepository delegate) {
+        return new Builder(delegate);
+    }
+
+    /**
+     * Builder for a {@link CachingStateRepository}.
+     *
+     * <pre>
+     * StateRepository repository = CachingStateRepository.newBuilder(delegate)
+     *     .ttl(1, TimeUnit.MINUTES)
+     *     .refreshAhead(0.8, executorService)
+     *     .maxStaleness(10, TimeUnit.MINUTES)
+     *     .build();
+     * </pre>
+     */
+    public static class Builder {
+
+        private final StateRepository delegate;
+        private long ttl = 0;
+        private ExecutorService executorService;
+        private double refreshAheadFactor = 0;
+        private long maxStaleness = -1;
+        private long negativeTtl = -1;
+
+        /**
+         * Creates a new builder for a {@link CachingStateRepository}.
+         *
+         * @param delegate The repository to delegate invocations to
+         */
+        public Builder(StateRepository delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * The time after which a cache entry expires. The default is <code>0</code>, which means that entries only
+         * expire if the state is modified through the repository.
+         *
+         * @throws IllegalArgumentException if the specified ttl is negative
+         */
+        public Builder ttl(long ttl, TimeUnit unit) {
+            if (ttl < 0) {
+                throw new IllegalArgumentException("Negative TTL value: " + ttl);
+            }
+            this.ttl = unit.toMillis(ttl);
+            return this;
+        }
+
+        /**
+         * The thread pool for reloading expired entries asynchronously. Lookups of features which are not cached yet
+         * will return <code>null</code> until the entry has been loaded. By default entries are reloaded
+         * synchronously.
+         */
+        public Builder executorService(ExecutorService executorService) {
+            this.executorService = executorService;
+            return this;
+        }
+
+        /**
+         * The time after which the information that the delegate has no state for a feature expires. Features without a
+         * state are typically looked up very often because their default state is used, so this value can be larger
+         * than the regular TTL. By default the regular TTL is used.
+         *
+         * @throws IllegalArgumentException if the specified ttl is negative
+         */
+        public Builder negativeTtl(long negativeTtl, TimeUnit unit) {
+            if (negativeTtl < 0) {
+                throw new IllegalArgumentException("Negative TTL value: " + negativeTtl);
+            }
+            this.negativeTtl = unit.toMillis(negativeTtl);
+            return this;
+        }
+
+        /**
+         * Reloads entries asynchronously if they are accessed after the supplied fraction of the TTL has elapsed, for
+         * example <code>0.8</code> to start reloading after 80% of the TTL. Only a single reload per feature is in
+         * progress at any time and the cached state is returned until the reload has completed. Features not cached yet
+         * are loaded synchronously.
+         *
+         * @param factor The fraction of the TTL after which entries are reloaded, must be greater than 0 and not greater
+         *        than 1
+         * @param executorService The thread pool used to reload entries
+         * @throws IllegalArgumentException if the factor is out of range
+         */
+        public Builder refreshAhead(double factor, ExecutorService executorService) {
+            if (factor <= 0 || factor > 1) {
+                throw new IllegalArgumentException("Refresh-ahead factor must be in (0, 1]: " + factor);
+            }
+            this.refreshAheadFactor = factor;
+            this.executorService = executorService;
+            return this;
+        }
+
+        /**
+         * The time an expired entry may still be returned in refresh-ahead mode, for example because the delegate is not
+         * available. Lookups of entries older than the TTL plus this value block until the delegate returns the current
+         * state. By default expired entries are returned for another TTL.
+         *
+         * @throws IllegalArgumentException if the specified value is negative
+         */
+        public Builder maxStaleness(long maxStaleness, TimeUnit unit) {
+            if (maxStaleness < 0) {
+                throw new IllegalArgumentException("Negative max staleness: " + maxStaleness);
+            }
+            this.maxStaleness = unit.toMillis(maxStaleness);
+            return this;
+        }
+
+        /**
+         * Creates a new {@link CachingStateRepository} using the current settings.
+         *
+         * @throws IllegalStateException if refresh-ahead is configured without a TTL
+         */
+        public CachingStateRepository build() {
+            long effectiveNegativeTtl = negativeTtl >= 0 ? negativeTtl : ttl;
+            if (refreshAheadFactor == 0) {
+                return new CachingStateRepository(delegate, ttl, effectiveNegativeTtl, executorService, 0, 0);
+            }
+            if (ttl == 0) {
+                throw new IllegalStateException("Refresh-ahead requires a TTL");
+            }
+            long refreshAfter = Math.max(1, (long) (ttl * refreshAheadFactor));
+            return new CachingStateRepository(delegate, ttl, effectiveNegativeTtl, executorService, refreshAfter,
+                maxStaleness >= 0 ? maxStaleness : ttl);
+        }
+
+    }
+
     /**
      * This class represents a cached repository lookup
      */
@@ -172,10 +507,13 @@ public class CachingStateRepository implements StateRepository {
 
         private final long ttl;
 
+        private final long expiresAt;
+
         public CacheEntry(FeatureState state, final long ttl) {
             this.state = state;
             this.timestamp = clock.millis();
             this.ttl = ttl;
+            this.expiresAt = ttl == 0 ? Long.MAX_VALUE : timestamp + ttl;
         }
 
         public FeatureState getState() {
@@ -183,10 +521,8 @@ public class CachingStateRepository implements StateRepository {
         }
 
         public boolean isExpired() {
-            if (ttl == 0) {
-                return false;
-            }
-            return timestamp + ttl < clock.millis();
+            // entries without TTL don't need to read the clock
+            return expiresAt != Long.MAX_VALUE && expiresAt < clock.millis();
         }
     }
 
@@ -2,8 +2,14 @@ package org.togglz.core.repository.composite;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.togglz.core.Feature;
 import org.togglz.core.repository.FeatureState;
@@ -81,6 +87,58 @@ public class CompositeStateRepository implements StateRepository {
         return null;
     }
 
+    /**
+     * Returns the first non-null shared feature state as determined by the current iteration order.
+     * 
+     * @see #setIterationOrder(RepositorySelector)
+     */
+    @Override
+    public FeatureState getSharedFeatureState(Feature feature) {
+
+        for (StateRepository repository : iterationOrder.getSelected(repositories)) {
+            FeatureState featureState = repository.getSharedFeatureState(feature);
+            if (featureState != null) {
+                return featureState;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the first non-null feature state of each feature as determined by the current iteration order. Each
+     * underlying repository is only asked for the features for which no state has been found so far.
+     * 
+     * @see #setIterationOrder(RepositorySelector)
+     */
+    @Override
+    public Map<Feature, FeatureState> getFeatureStates(Collection<? extends Feature> features) {
+
+        Set<Feature> missing = new LinkedHashSet<>(features);
+        Map<Feature, FeatureState> found = new HashMap<>();
+        for (StateRepository repository : iterationOrder.getSelected(repositories)) {
+            if (missing.isEmpty()) {
+                break;
+            }
+            Map<Feature, FeatureState> states = repository.getFeatureStates(missing);
+            for (Map.Entry<Feature, FeatureState> entry : states.entrySet()) {
+                if (entry.getValue() != null && missing.remove(entry.getKey())) {
+                    found.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        // keep the order of the supplied features
+        Map<Feature, FeatureState> result = new LinkedHashMap<>();
+        for (Feature feature : features) {
+            FeatureState state = found.get(feature);
+            if (state != null) {
+                result.put(feature, state);
+            }
+        }
+        return result;
+    }
+
     /**
      * Sets the feature state on the repositories returned by the current setter selection.
      * 
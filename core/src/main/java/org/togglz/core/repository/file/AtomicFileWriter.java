@@ -0,0 +1,58 @@
+package org.togglz.core.repository.file;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+
+/**
+ * Replaces files by writing the new content to a temporary file in the same directory which then atomically replaces
+ * the file. Readers therefore either see the old or the new content, but never a partially written file. Files which
+ * are memory-mapped by readers stay valid because they are never modified in place. If the file is a symbolic link,
+ * the file it points to is replaced and the link is kept.
+ * <p>
+ * As the file is replaced by a new file, it gets the owner, group and permissions of a newly created file in its
+ * directory instead of keeping those of the replaced file.
+ * </p>
+ */
+final class AtomicFileWriter {
+
+    private AtomicFileWriter() {
+    }
+
+    /**
+     * Replaces the content of the file. Falls back to a non-atomic replace if the file system doesn't support atomic
+     * moves.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    static void write(File file, byte[] content) throws IOException {
+        File target = file.getAbsoluteFile();
+        if (target.exists()) {
+            // don't replace a symbolic link with a regular file
+            target = target.toPath().toRealPath().toFile();
+        }
+        File temp = File.createTempFile("." + target.getName() + "-", ".tmp", target.getParentFile());
+        try {
+            try (FileOutputStream stream = new FileOutputStream(temp)) {
+                stream.write(content);
+                // the content must be on disk before it replaces the file, or a crash could leave an empty file
+                stream.getFD().sync();
+            }
+            try {
+                Files.move(temp.toPath(), target.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), target.toPath(), REPLACE_EXISTING);
+            }
+        } finally {
+            if (temp.exists() && !temp.delete()) {
+                temp.deleteOnExit();
+            }
+        }
+    }
+
+}
@@ -1,10 +1,12 @@
 package org.togglz.core.repository.file;
 
+import java.io.Closeable;
 import java.io.File;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.togglz.core.repository.property.PropertyBasedStateRepository;
+import org.togglz.core.repository.property.PropertySource;
 
 /**
  *
@@ -14,13 +16,26 @@ import org.togglz.core.repository.property.PropertyBasedStateRepository;
  * case.
  * </p>
  *
+ * <p>
+ * By default the modification date of the file is checked while reading the state, at most once per
+ * <code>minCheckInterval</code>. Repositories created using {@link #watching(File, int)} instead reload the file in a
+ * background thread, so reads neither lock nor access the file system. Such repositories have to be closed to stop
+ * the thread.
+ * </p>
+ *
+ * <p>
+ * The file is always replaced atomically when the state of a feature is modified.
+ * </p>
+ *
  * @author Christian Kaltepoth
  *
  */
-public class FileBasedStateRepository extends PropertyBasedStateRepository {
+public class FileBasedStateRepository extends PropertyBasedStateRepository implements Closeable {
 
     private final Logger log = LoggerFactory.getLogger(FileBasedStateRepository.class);
 
+    private final PropertySource propertySource;
+
     /**
      * Constructor for {@link FileBasedStateRepository}.
      *
@@ -38,8 +53,53 @@ public class FileBasedStateRepository extends PropertyBasedStateRepository {
      *        date.
      */
     public FileBasedStateRepository(File file, int minCheckInterval) {
-        super(new ReloadablePropertiesFile(file, minCheckInterval));
+        this(file, new ReloadablePropertiesFile(file, minCheckInterval));
+    }
+
+    /**
+     * Constructor for {@link FileBasedStateRepository} which writes modifications in the background. All modifications
+     * made within <code>writeDelay</code> milliseconds are written to the file at once. The repository has to be closed
+     * to write pending modifications on shutdown.
+     *
+     * @param file A {@link File} representing the Java properties file to use.
+     * @param minCheckInterval the minimum amount of time in milliseconds to wait between checks of the file's modification
+     *        date.
+     * @param writeDelay the amount of time in milliseconds to wait for further modifications before writing the file.
+     */
+    public FileBasedStateRepository(File file, int minCheckInterval, int writeDelay) {
+        this(file, new ReloadablePropertiesFile(file, minCheckInterval, writeDelay));
+    }
+
+    private FileBasedStateRepository(File file, PropertySource propertySource) {
+        super(propertySource);
+        this.propertySource = propertySource;
         log.debug(this.getClass().getSimpleName() + " initialized with: " + file.getAbsolutePath());
     }
 
+    /**
+     * Creates a {@link FileBasedStateRepository} which reloads the file in a background thread as soon as a
+     * {@link java.nio.file.WatchService} reports a change in the directory of the file. If the file system doesn't
+     * support change notifications, the file is only checked every <code>pollInterval</code> milliseconds.
+     *
+     * @param file A {@link File} representing the Java properties file to use.
+     * @param pollInterval the maximum amount of time in milliseconds to wait between checks of the file's modification
+     *        date.
+     */
+    public static FileBasedStateRepository watching(File file, int pollInterval) {
+        return new FileBasedStateRepository(file, new WatchingPropertiesFile(file, pollInterval));
+    }
+
+    /**
+     * Writes pending modifications and stops background threads.
+     */
+    @Override
+    public void close() {
+        if (propertySource instanceof WatchingPropertiesFile) {
+            ((WatchingPropertiesFile) propertySource).close();
+        }
+        if (propertySource instanceof ReloadablePropertiesFile) {
+            ((ReloadablePropertiesFile) propertySource).close();
+        }
+    }
+
 }
@@ -0,0 +1,560 @@
+package org.togglz.core.repository.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.togglz.core.Feature;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.repository.StateRepository;
+import org.togglz.core.repository.property.PropertiesSnapshot;
+import org.togglz.core.repository.property.PropertyBasedStateRepository;
+import org.togglz.core.util.NamedFeature;
+
+/**
+ * <p>
+ * A {@link StateRepository} which reads the state of features from a compact binary snapshot file using a
+ * memory-mapped {@link FileChannel}. This is useful if the state is shipped as a file, for example by a sidecar
+ * process or a config map. Reloading the file only requires mapping it again and validating it instead of decoding
+ * the whole file, and all processes on a host share the mapped pages.
+ * </p>
+ *
+ * <p>
+ * The file is created using {@link #write(File, Collection)} or converted from the format of the
+ * {@link FileBasedStateRepository} using {@link #convert(File, File)}. The modification date, size and file key (for
+ * example the inode) of the file are checked at most once per <code>minCheckInterval</code>. Files must always be
+ * replaced instead of being modified in place, which is what {@link #write(File, Collection)} does, because modifying
+ * a mapped file affects all readers. An empty file is treated like a file without any states.
+ * </p>
+ *
+ * <p>
+ * All numbers of the format are stored in big-endian byte order:
+ * </p>
+ *
+ * <pre>
+ * header:  int magic ("TGLZ"), short version, short reserved, int feature count, int file length
+ * index:   for each feature: int offset of name, int offset of data, int flags (bit 0: enabled),
+ *          sorted by the UTF-8 bytes of the names
+ * data:    for each feature: string name, string strategy id, int parameter count, string name and value of each
+ *          parameter
+ * strings: int length of the UTF-8 bytes (-1 for null), UTF-8 bytes
+ * </pre>
+ */
+public class MappedFileStateRepository implements StateRepository {
+
+    private static final int MAGIC = 0x54474C5A;
+
+    private static final short VERSION = 2;
+
+    private static final int HEADER_SIZE = 16;
+
+    private static final int INDEX_ENTRY_SIZE = 12;
+
+    private static final int FLAG_ENABLED = 1;
+
+    private static final Mapping EMPTY = new Mapping(null, ByteBuffer.allocate(0), 0);
+
+    private final Logger log = LoggerFactory.getLogger(MappedFileStateRepository.class);
+
+    private final File file;
+
+    private final int minCheckInterval;
+
+    private volatile Mapping mapping = EMPTY;
+
+    private volatile long nextCheck = 0;
+
+    /**
+     * Constructor for {@link MappedFileStateRepository}.
+     *
+     * @param file A {@link File} representing the binary snapshot file to use.
+     */
+    public MappedFileStateRepository(File file) {
+        this(file, 1000);
+    }
+
+    /**
+     * Constructor for {@link MappedFileStateRepository}.
+     *
+     * @param file A {@link File} representing the binary snapshot file to use.
+     * @param minCheckInterval the minimum amount of time in milliseconds to wait between checks of the file's modification
+     *        date.
+     */
+    public MappedFileStateRepository(File file, int minCheckInterval) {
+        this.file = file.getAbsoluteFile();
+        this.minCheckInterval = minCheckInterval;
+        log.debug(this.getClass().getSimpleName() + " initialized with: " + this.file);
+    }
+
+    @Override
+    public FeatureState getFeatureState(Feature feature) {
+        return FeatureState.copyOf(currentMapping().getFeatureState(feature));
+    }
+
+    /**
+     * Returns the decoded state, which is immutable and shared by all callers.
+     */
+    @Override
+    public FeatureState getSharedFeatureState(Feature feature) {
+        return currentMapping().getFeatureState(feature);
+    }
+
+    /**
+     * Replaces the file by a new snapshot containing the supplied state and the state of all other features stored in
+     * the file.
+     *
+     * @throws IllegalStateException if the existing file cannot be read or the new file cannot be written
+     */
+    @Override
+    public synchronized void setFeatureState(FeatureState featureState) {
+        Mapping current;
+        try {
+            current = refresh(false);
+        } catch (IOException | RuntimeException e) {
+            // writing only the new state would silently drop all other states stored in the file
+            throw new IllegalStateException("Failed to read file: " + file, e);
+        }
+        Map<String, FeatureState> states = new TreeMap<>();
+        for (FeatureState state : current.getFeatureStates()) {
+            states.put(state.getFeature().name(), state);
+        }
+        states.put(featureState.getFeature().name(), featureState);
+        try {
+            write(file, states.values());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write file: " + file, e);
+        }
+
+        // the new file may have the same modification date and size as the old one
+        nextCheck = System.currentTimeMillis() + minCheckInterval;
+        try {
+            refresh(true);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to map file: " + file, e);
+        }
+    }
+
+    private Mapping currentMapping() {
+        if (System.currentTimeMillis() >= nextCheck) {
+            return reload(false);
+        }
+        return mapping;
+    }
+
+    private synchronized Mapping reload(boolean force) {
+        long now = System.currentTimeMillis();
+        if (!force && now < nextCheck) {
+            return mapping;
+        }
+        nextCheck = now + minCheckInterval;
+
+        try {
+            return refresh(false);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to map file: " + file, e);
+            return mapping;
+        }
+    }
+
+    /**
+     * Maps the file again if it has been replaced or if <code>remap</code> is set.
+     *
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalStateException if the file isn't a valid snapshot
+     */
+    private synchronized Mapping refresh(boolean remap) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            log.debug("File not found: " + file);
+            mapping = EMPTY;
+            return EMPTY;
+        }
+
+        Mapping current = mapping;
+        if (!remap && current.isMappingOf(attributes)) {
+            return current;
+        }
+
+        if (attributes.size() == 0) {
+            mapping = new Mapping(attributes, ByteBuffer.allocate(0), 0);
+            return mapping;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel has been closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapping = Mapping.create(attributes, buffer);
+            log.info("Mapped file: " + file);
+        }
+        return mapping;
+    }
+
+    /**
+     * Writes a binary snapshot file containing the supplied states. An existing file is replaced atomically.
+     *
+     * @param file the file to write
+     * @param states the states to write, the names of the features must be unique
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the names of the features aren't unique
+     */
+    public static void write(File file, Collection<FeatureState> states) throws IOException {
+
+        // the index is sorted by the UTF-8 bytes of the names, which is the order of their code points
+        List<Map.Entry<byte[], FeatureState>> entries = new ArrayList<>(states.size());
+        for (FeatureState state : states) {
+            entries.add(new AbstractMap.SimpleEntry<>(state.getFeature().name().getBytes(StandardCharsets.UTF_8), state));
+        }
+        entries.sort((a, b) -> Arrays.compareUnsigned(a.getKey(), b.getKey()));
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        DataOutputStream dataOut = new DataOutputStream(data);
+        int dataStart = HEADER_SIZE + entries.size() * INDEX_ENTRY_SIZE;
+
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+
+        byte[] previous = null;
+        for (Map.Entry<byte[], FeatureState> entry : entries) {
+            byte[] name = entry.getKey();
+            FeatureState state = entry.getValue();
+            if (previous != null && Arrays.equals(previous, name)) {
+                throw new IllegalArgumentException("Duplicate feature: " + state.getFeature().name());
+            }
+            previous = name;
+
+            indexOut.writeInt(dataStart + dataOut.size());
+            dataOut.writeInt(name.length);
+            dataOut.write(name);
+            indexOut.writeInt(dataStart + dataOut.size());
+            indexOut.writeInt(state.isEnabled() ? FLAG_ENABLED : 0);
+            writeString(dataOut, state.getStrategyId());
+            dataOut.writeInt(state.getParameterNames().size());
+            for (String parameter : state.getParameterNames()) {
+                writeString(dataOut, parameter);
+                writeString(dataOut, state.getParameter(parameter));
+            }
+        }
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream(dataStart + data.size());
+        DataOutputStream out = new DataOutputStream(content);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(0);
+        out.writeInt(entries.size());
+        out.writeInt(dataStart + data.size());
+        index.writeTo(out);
+        data.writeTo(out);
+        out.flush();
+
+        AtomicFileWriter.write(file, content.toByteArray());
+    }
+
+    /**
+     * Converts a properties file in the format of the {@link FileBasedStateRepository} to a binary snapshot file.
+     *
+     * @param propertiesFile the properties file to read
+     * @param file the binary snapshot file to write
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void convert(File propertiesFile, File file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream stream = new FileInputStream(propertiesFile)) {
+            properties.load(stream);
+        }
+
+        // the enabled flag of a feature is stored using its name as the key
+        PropertyBasedStateRepository repository = new PropertyBasedStateRepository(new PropertiesSnapshot(properties));
+        Map<String, FeatureState> states = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.contains(".param.") && !key.endsWith(".strategy") && !key.endsWith(".users")) {
+                FeatureState state = repository.getFeatureState(new NamedFeature(key));
+                if (state != null) {
+                    states.put(key, state);
+                }
+            }
+        }
+
+        write(file, states.values());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * A validated mapping of the file. Features are looked up by a binary search of the sorted index in the mapped
+     * buffer, and the states are decoded when they are requested for the first time.
+     */
+    private static class Mapping {
+
+        private final BasicFileAttributes attributes;
+
+        private final ByteBuffer buffer;
+
+        private final int count;
+
+        private final AtomicReferenceArray<FeatureState> states;
+
+        private Mapping(BasicFileAttributes attributes, ByteBuffer buffer, int count) {
+            this.attributes = attributes;
+            this.buffer = buffer;
+            this.count = count;
+            this.states = new AtomicReferenceArray<>(count);
+        }
+
+        /**
+         * Validates the header and all entries of the file, so that a corrupt file is rejected before it replaces the
+         * current mapping.
+         */
+        private static Mapping create(BasicFileAttributes attributes, ByteBuffer buffer) {
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Not a feature state snapshot");
+            }
+            if (buffer.getShort(4) != VERSION) {
+                throw new IllegalStateException("Unsupported snapshot version: " + buffer.getShort(4));
+            }
+            int count = buffer.getInt(8);
+            if (count < 0 || buffer.getInt(12) != buffer.capacity()
+                || HEADER_SIZE + (long) count * INDEX_ENTRY_SIZE > buffer.capacity()) {
+                throw corrupt();
+            }
+            Mapping mapping = new Mapping(attributes, buffer, count);
+            for (int i = 0; i < count; i++) {
+                mapping.validate(i);
+            }
+            return mapping;
+        }
+
+        private void validate(int position) {
+            int entryOffset = HEADER_SIZE + position * INDEX_ENTRY_SIZE;
+            int nameOffset = buffer.getInt(entryOffset);
+            int nameEnd = skipString(nameOffset, false);
+            for (int offset = nameOffset + 4; offset < nameEnd; offset += sequenceLength(buffer.get(offset))) {
+                codePointAt(offset, nameEnd);
+            }
+            if (position > 0 && compareNames(buffer.getInt(entryOffset - INDEX_ENTRY_SIZE), nameOffset) >= 0) {
+                throw new IllegalStateException("Snapshot index is not sorted: " + readString(nameOffset));
+            }
+
+            int offset = skipString(buffer.getInt(entryOffset + 4), true);
+            if (offset > buffer.capacity() - 4) {
+                throw corrupt();
+            }
+            int parameters = buffer.getInt(offset);
+            offset += 4;
+            if (parameters < 0) {
+                throw corrupt();
+            }
+            for (int i = 0; i < parameters; i++) {
+                offset = skipString(offset, false);
+                offset = skipString(offset, true);
+            }
+        }
+
+        /**
+         * Returns the offset after the string starting at the supplied offset.
+         */
+        private int skipString(int offset, boolean nullable) {
+            if (offset < HEADER_SIZE || offset > buffer.capacity() - 4) {
+                throw corrupt();
+            }
+            int length = buffer.getInt(offset);
+            if (length < 0 && nullable) {
+                return offset + 4;
+            }
+            if (length < 0 || length > buffer.capacity() - offset - 4) {
+                throw corrupt();
+            }
+            return offset + 4 + length;
+        }
+
+        /**
+         * Compares the names at the supplied offsets by their UTF-8 bytes.
+         */
+        private int compareNames(int offset1, int offset2) {
+            int length1 = buffer.getInt(offset1);
+            int length2 = buffer.getInt(offset2);
+            for (int i = 0; i < Math.min(length1, length2); i++) {
+                int result = Byte.compareUnsigned(buffer.get(offset1 + 4 + i), buffer.get(offset2 + 4 + i));
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return Integer.compare(length1, length2);
+        }
+
+        /**
+         * Compares the name of the feature at the supplied position with the supplied name without decoding it.
+         */
+        private int compareName(int position, String name) {
+            int offset = buffer.getInt(HEADER_SIZE + position * INDEX_ENTRY_SIZE);
+            int end = offset + 4 + buffer.getInt(offset);
+            offset += 4;
+            int i = 0;
+            while (offset < end && i < name.length()) {
+                int codePoint = codePointAt(offset, end);
+                int other = name.codePointAt(i);
+                if (codePoint != other) {
+                    return Integer.compare(codePoint, other);
+                }
+                offset += sequenceLength(buffer.get(offset));
+                i += Character.charCount(other);
+            }
+            return offset < end ? 1 : i < name.length() ? -1 : 0;
+        }
+
+        private int codePointAt(int offset, int end) {
+            int lead = buffer.get(offset) & 0xFF;
+            int length = sequenceLength((byte) lead);
+            if (length == 1) {
+                return lead;
+            }
+            if (length == 0 || length > end - offset) {
+                throw corrupt();
+            }
+            int codePoint = lead & (0x7F >> length);
+            for (int i = 1; i < length; i++) {
+                int next = buffer.get(offset + i) & 0xFF;
+                if ((next & 0xC0) != 0x80) {
+                    throw corrupt();
+                }
+                codePoint = codePoint << 6 | next & 0x3F;
+            }
+            // overlong encodings and surrogates would break the order of the index
+            if (codePoint < (length == 2 ? 0x80 : length == 3 ? 0x800 : 0x10000) || codePoint > Character.MAX_CODE_POINT
+                || codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+                throw corrupt();
+            }
+            return codePoint;
+        }
+
+        private static int sequenceLength(byte lead) {
+            if (lead >= 0) {
+                return 1;
+            }
+            if ((lead & 0xE0) == 0xC0) {
+                return 2;
+            }
+            if ((lead & 0xF0) == 0xE0) {
+                return 3;
+            }
+            if ((lead & 0xF8) == 0xF0) {
+                return 4;
+            }
+            return 0;
+        }
+
+        /**
+         * Returns <code>true</code> if the file described by the attributes is the file which has been mapped. The file
+         * key detects a replaced file even if it has the same modification date and size.
+         */
+        private boolean isMappingOf(BasicFileAttributes current) {
+            return attributes != null
+                && attributes.lastModifiedTime().equals(current.lastModifiedTime())
+                && attributes.size() == current.size()
+                && Objects.equals(attributes.fileKey(), current.fileKey());
+        }
+
+        private FeatureState getFeatureState(Feature feature) {
+            String name = feature.name();
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int result = compareName(middle, name);
+                if (result < 0) {
+                    low = middle + 1;
+                } else if (result > 0) {
+                    high = middle - 1;
+                } else {
+                    return getFeatureState(feature, middle);
+                }
+            }
+            return null;
+        }
+
+        private FeatureState getFeatureState(Feature feature, int position) {
+            // cached per position only, so callers using different instances of the feature don't replace each other's state
+            FeatureState state = states.get(position);
+            if (state == null) {
+                state = decode(feature, position);
+                states.set(position, state);
+            }
+            return state.toImmutable(feature);
+        }
+
+        private List<FeatureState> getFeatureStates() {
+            List<FeatureState> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = readString(buffer.getInt(HEADER_SIZE + i * INDEX_ENTRY_SIZE));
+                result.add(getFeatureState(new NamedFeature(name), i));
+            }
+            return result;
+        }
+
+        private FeatureState decode(Feature feature, int position) {
+            int entryOffset = HEADER_SIZE + position * INDEX_ENTRY_SIZE;
+            int offset = buffer.getInt(entryOffset + 4);
+            FeatureState state = new FeatureState(feature, (buffer.getInt(entryOffset + 8) & FLAG_ENABLED) != 0);
+            state.setStrategyId(readString(offset));
+            offset = skipString(offset, true);
+            int parameters = buffer.getInt(offset);
+            offset += 4;
+            for (int i = 0; i < parameters; i++) {
+                String name = readString(offset);
+                offset = skipString(offset, false);
+                state.setParameter(name, readString(offset));
+                offset = skipString(offset, true);
+            }
+            return state.toImmutable();
+        }
+
+        private String readString(int offset) {
+            int length = buffer.getInt(offset);
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            ByteBuffer data = buffer.duplicate();
+            data.position(offset + 4);
+            data.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static IllegalStateException corrupt() {
+            return new IllegalStateException("Snapshot is truncated or corrupt");
+        }
+
+    }
+
+}
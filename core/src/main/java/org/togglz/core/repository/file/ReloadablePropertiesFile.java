@@ -1,25 +1,38 @@
 package org.togglz.core.repository.file;
 
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Enumeration;
-import java.util.HashSet;
 import java.util.Properties;
 import java.util.Set;
-
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.togglz.core.repository.property.PropertiesSnapshot;
 import org.togglz.core.repository.property.PropertySource;
 import org.togglz.core.util.IOUtils;
 
 /**
- * Please note that this class is NOT thread-safe.
+ * <p>
+ * A {@link PropertySource} for a properties file which is reloaded by {@link #reloadIfUpdated()} if its modification
+ * date changed. The file is replaced atomically by a temporary file when the values are modified, so readers never see
+ * a partially written file. The modified values are used immediately without reading the file again.
+ * </p>
+ *
+ * <p>
+ * If a <code>writeDelay</code> is configured, modifications are written in the background after the delay and all
+ * modifications made in the meantime are written at once. The file isn't reloaded while a write is pending. After
+ * {@link #close()}, modifications are written immediately.
+ * </p>
  */
-class ReloadablePropertiesFile implements PropertySource {
+class ReloadablePropertiesFile implements PropertySource, Closeable {
 
     private final Logger log = LoggerFactory.getLogger(ReloadablePropertiesFile.class);
 
@@ -27,22 +40,41 @@ class ReloadablePropertiesFile implements PropertySource {
 
     private final int minCheckInterval;
 
-    private Properties values = new Properties();
+    private final int writeDelay;
+
+    private Properties pendingValues;
+
+    private ScheduledExecutorService writer;
+
+    private boolean closed;
+
+    private volatile PropertiesSnapshot values = new PropertiesSnapshot(new Properties());
 
     private long lastRead = 0;
 
-    private long lastCheck = 0;
+    private volatile long lastCheck = 0;
 
     private final ReentrantLock lock = new ReentrantLock();
 
     public ReloadablePropertiesFile(File file, int minCheckInterval) {
+        this(file, minCheckInterval, 0);
+    }
+
+    public ReloadablePropertiesFile(File file, int minCheckInterval, int writeDelay) {
         this.file = file;
         this.minCheckInterval = minCheckInterval;
+        this.writeDelay = writeDelay;
     }
 
     public void reloadIfUpdated() {
         lock.lock();
         try {
+            if (pendingValues != null) {
+                // the modified values haven't been written yet
+                lastCheck = System.currentTimeMillis();
+                return;
+            }
+
             if (!this.file.exists()) {
                 try {
                     if (this.file.createNewFile()) {
@@ -70,7 +102,7 @@ class ReloadablePropertiesFile implements PropertySource {
                         newValues.load(stream);
 
                         // update state
-                        values = newValues;
+                        values = new PropertiesSnapshot(newValues);
                         lastRead = System.currentTimeMillis();
 
                         log.info("Reloaded file: " + file.getCanonicalPath());
@@ -90,40 +122,135 @@ class ReloadablePropertiesFile implements PropertySource {
         }
     }
 
+    /**
+     * Returns the current values after checking the file if <code>minCheckInterval</code> has elapsed since the last
+     * check, so readers only take the lock while a check is due.
+     */
+    @Override
+    public PropertySource getSnapshot() {
+        if (System.currentTimeMillis() - lastCheck > minCheckInterval) {
+            reloadIfUpdated();
+        }
+        return values;
+    }
+
     public String getValue(String key, String defaultValue) {
-        return values.getProperty(key, defaultValue);
+        return values.getValue(key, defaultValue);
     }
 
     public Set<String> getKeysStartingWith(String prefix) {
-        Set<String> result = new HashSet<>();
+        return values.getKeysStartingWith(prefix);
+    }
+
+    public PropertySource.Editor getEditor() {
+        return new PropertyFileEditor(values.toProperties());
+    }
 
-        Enumeration<?> keys = values.propertyNames();
-        while (keys.hasMoreElements()) {
-            String key = keys.nextElement().toString();
-            if (key.startsWith(prefix)) {
-                result.add(key);
+    /**
+     * Writes pending modifications immediately. If the file cannot be written, the modifications stay pending and
+     * another write is scheduled.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            if (pendingValues != null) {
+                Properties newValues = pendingValues;
+                pendingValues = null;
+                try {
+                    store(newValues);
+                } catch (RuntimeException e) {
+                    // don't lose the modifications
+                    pendingValues = newValues;
+                    if (!closed) {
+                        getWriter().schedule(this::flushInBackground, writeDelay, TimeUnit.MILLISECONDS);
+                    }
+                    throw e;
+                }
             }
+        } finally {
+            lock.unlock();
         }
-        return result;
     }
 
-    public PropertySource.Editor getEditor() {
-        return new PropertyFileEditor(values);
+    /**
+     * Writes pending modifications and stops the background writer. Later modifications are written immediately.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            try {
+                flush();
+            } finally {
+                if (writer != null) {
+                    writer.shutdown();
+                    writer = null;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     private void write(Properties newValues) {
+        lock.lock();
+        try {
+
+            // the new values are visible immediately
+            values = new PropertiesSnapshot(newValues);
+
+            if (writeDelay > 0 && !closed) {
+                boolean scheduled = pendingValues != null;
+                pendingValues = newValues;
+                if (!scheduled) {
+                    getWriter().schedule(this::flushInBackground, writeDelay, TimeUnit.MILLISECONDS);
+                }
+            } else {
+                store(newValues);
+            }
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushInBackground() {
         try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to write file: " + file, e);
+        }
+    }
+
+    private void store(Properties newValues) {
+        store(file, newValues);
+        lastRead = file.lastModified();
+        lastCheck = System.currentTimeMillis();
+    }
 
-            FileOutputStream fos = new FileOutputStream(file);
-            newValues.store(fos, null);
-            fos.flush();
-            fos.close();
+    private ScheduledExecutorService getWriter() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "togglz-file-writer-" + file.getName());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return writer;
+    }
 
+    /**
+     * Writes the values to the file using {@link AtomicFileWriter}.
+     */
+    static void store(File file, Properties values) {
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            values.store(content, null);
+            AtomicFileWriter.write(file, content.toByteArray());
         } catch (IOException e) {
             throw new IllegalStateException("Failed to write new values", e);
         }
-        lastRead = 0;
-        lastCheck = 0;
     }
 
     private class PropertyFileEditor implements PropertySource.Editor {
@@ -131,8 +258,7 @@ class ReloadablePropertiesFile implements PropertySource {
         private final Properties newValues;
 
         private PropertyFileEditor(Properties props) {
-            newValues = new Properties();
-            newValues.putAll(props);
+            newValues = props;
         }
 
         public void setValue(String key, String value) {
@@ -0,0 +1,223 @@
+package org.togglz.core.repository.file;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.togglz.core.repository.property.PropertiesSnapshot;
+import org.togglz.core.repository.property.PropertySource;
+
+/**
+ * <p>
+ * A {@link PropertySource} for a properties file which is reloaded by a background thread. The thread is woken up by a
+ * {@link WatchService} registered for the directory of the file and additionally checks the modification date of the
+ * file every <code>pollInterval</code> milliseconds, which covers file systems without native change notifications.
+ * </p>
+ *
+ * <p>
+ * Each load publishes an immutable {@link PropertiesSnapshot}, so reads never block and never access the file system.
+ * Modifications made using the {@link #getEditor() editor} are visible as soon as the editor is committed.
+ * </p>
+ */
+class WatchingPropertiesFile implements PropertySource, Closeable {
+
+    private final Logger log = LoggerFactory.getLogger(WatchingPropertiesFile.class);
+
+    private final File file;
+
+    private final long pollInterval;
+
+    private final Object writeLock = new Object();
+
+    private final Thread watcher;
+
+    private volatile PropertiesSnapshot snapshot = new PropertiesSnapshot(new Properties());
+
+    private volatile boolean closed = false;
+
+    private long lastModified = -1;
+
+    private long lastLength = -1;
+
+    private final WatchService watchService;
+
+    public WatchingPropertiesFile(File file, long pollInterval) {
+        this.file = file.getAbsoluteFile();
+        this.pollInterval = pollInterval;
+        createIfMissing();
+        reload(true);
+        this.watchService = createWatchService();
+        this.watcher = new Thread(this::watch, "togglz-file-watcher-" + file.getName());
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    /**
+     * Does nothing because the file is reloaded in the background.
+     */
+    @Override
+    public void reloadIfUpdated() {
+    }
+
+    @Override
+    public Set<String> getKeysStartingWith(String prefix) {
+        return snapshot.getKeysStartingWith(prefix);
+    }
+
+    @Override
+    public String getValue(String key, String defaultValue) {
+        return snapshot.getValue(key, defaultValue);
+    }
+
+    @Override
+    public PropertySource getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public Editor getEditor() {
+        return new Editor() {
+
+            private final Properties newValues = snapshot.toProperties();
+
+            @Override
+            public void setValue(String key, String value) {
+                if (value != null) {
+                    newValues.setProperty(key, value);
+                } else {
+                    newValues.remove(key);
+                }
+            }
+
+            @Override
+            public void removeKeysStartingWith(String prefix) {
+                newValues.entrySet().removeIf(entry -> entry.getKey().toString().startsWith(prefix));
+            }
+
+            @Override
+            public void commit() {
+                write(newValues);
+            }
+
+        };
+    }
+
+    /**
+     * Stops the background thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Failed to close watch service", e);
+            }
+        }
+        watcher.interrupt();
+    }
+
+    private void write(Properties newValues) {
+        synchronized (writeLock) {
+            ReloadablePropertiesFile.store(file, newValues);
+            // publish the new values immediately instead of waiting for the watcher
+            snapshot = new PropertiesSnapshot(newValues);
+            lastModified = file.lastModified();
+            lastLength = file.length();
+        }
+    }
+
+    private void watch() {
+        while (!closed) {
+            try {
+                if (watchService != null) {
+                    WatchKey key = watchService.poll(pollInterval, TimeUnit.MILLISECONDS);
+                    if (key != null) {
+                        // the events are not inspected because a changed file may be a symbolic link
+                        key.pollEvents();
+                        key.reset();
+                    }
+                } else {
+                    Thread.sleep(pollInterval);
+                }
+                reload(false);
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to reload file: " + file, e);
+            }
+        }
+    }
+
+    private void reload(boolean force) {
+        synchronized (writeLock) {
+            long modified = file.lastModified();
+            long length = file.length();
+            if (!force && modified == lastModified && length == lastLength) {
+                return;
+            }
+            if (!file.exists()) {
+                log.debug("File not found: " + file);
+                return;
+            }
+            try (InputStream stream = new FileInputStream(file)) {
+                Properties newValues = new Properties();
+                newValues.load(stream);
+                snapshot = new PropertiesSnapshot(newValues);
+                lastModified = modified;
+                lastLength = length;
+                log.info("Reloaded file: " + file);
+            } catch (IOException e) {
+                log.error("Failed to read file", e);
+            }
+        }
+    }
+
+    private void createIfMissing() {
+        try {
+            if (file.createNewFile()) {
+                log.debug("Created non-existent file.");
+            }
+        } catch (IOException e) {
+            log.error("Error creating missing file " + file.getName(), e);
+        }
+    }
+
+    private WatchService createWatchService() {
+        Path directory = file.toPath().getParent();
+        WatchService service = null;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+            directory.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            return service;
+        } catch (IOException | UnsupportedOperationException e) {
+            log.info("Cannot watch " + directory + ", falling back to polling every " + pollInterval + "ms");
+            if (service != null) {
+                try {
+                    service.close();
+                } catch (IOException ex) {
+                    log.debug("Failed to close watch service", ex);
+                }
+            }
+            return null;
+        }
+    }
+
+}
@@ -14,5 +14,6 @@ class Columns {
     public static final String STRATEGY_ID = "STRATEGY_ID";
     public static final String STRATEGY_PARAMS = "STRATEGY_PARAMS";
     public static final String FEATURE_USERS = "FEATURE_USERS";
+    public static final String CHANGE_VERSION = "CHANGE_VERSION";
 
 }
@@ -0,0 +1,55 @@
+package org.togglz.core.repository.jdbc;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.togglz.core.repository.FeatureState;
+
+/**
+ * <p>
+ * The feature states which have been modified since a given change version. Returned by
+ * {@link JDBCStateRepository#getFeatureStatesChangedSince(long)}.
+ * </p>
+ *
+ * <p>
+ * Only rows which still exist are reported. A row deleted directly from the table leaves no trace, so callers which
+ * have to notice deletions must reload all states from time to time. The row holding the change counter is never
+ * included.
+ * </p>
+ *
+ * @see JDBCStateRepository.Builder#changeVersionColumn(boolean)
+ */
+public final class FeatureStateChanges {
+
+    private final Map<String, FeatureState> featureStates;
+
+    private final long version;
+
+    FeatureStateChanges(Map<String, FeatureState> featureStates, long version) {
+        this.featureStates = Collections.unmodifiableMap(featureStates);
+        this.version = version;
+    }
+
+    /**
+     * The modified feature states indexed by the feature name.
+     */
+    public Map<String, FeatureState> getFeatureStates() {
+        return featureStates;
+    }
+
+    /**
+     * The highest change version of the modified rows, or the version supplied to the query if nothing has changed. Pass
+     * this value to the next invocation of {@link JDBCStateRepository#getFeatureStatesChangedSince(long)}.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns <code>true</code> if no feature state has been modified.
+     */
+    public boolean isEmpty() {
+        return featureStates.isEmpty();
+    }
+
+}
@@ -4,17 +4,30 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.sql.DataSource;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.togglz.core.Feature;
 import org.togglz.core.repository.FeatureState;
 import org.togglz.core.repository.StateRepository;
 import org.togglz.core.repository.util.DefaultMapSerializer;
 import org.togglz.core.repository.util.MapSerializer;
 import org.togglz.core.util.DbUtils;
+import org.togglz.core.util.NamedFeature;
 import org.togglz.core.util.Strings;
 
 /**
@@ -58,11 +71,38 @@ import org.togglz.core.util.Strings;
  * strategy mechanism. The table structure will be automatically migrated to the new format.
  * </p>
  *
+ * <p>
+ * If the table is small and rarely modified, the repository can be configured to load the complete table into memory
+ * using {@link Builder#snapshot(long, TimeUnit)}. Lookups are then answered from the snapshot without obtaining a
+ * connection from the {@link DataSource}.
+ * </p>
+ *
+ * <p>
+ * If enabled using {@link Builder#changeVersionColumn(boolean)}, the table contains an additional
+ * <code>CHANGE_VERSION BIGINT</code> column which is increased on every modification. This allows to fetch only the rows
+ * modified since a given version using {@link #getFeatureStatesChangedSince(long)}. The last assigned version is kept in
+ * an additional row named <code>__TOGGLZ_CHANGE_VERSION__</code>, which is locked by every modification until it is
+ * committed. Versions are therefore assigned in the order in which the modifications are committed. The row is ignored
+ * by snapshots and {@link #getFeatureStatesChangedSince(long)}, but it is an ordinary row of the table: tools reading the
+ * table directly see it as a disabled feature and must not delete it.
+ * </p>
+ *
  * @author Christian Kaltepoth
  *
  */
 public class JDBCStateRepository implements StateRepository {
 
+    /**
+     * The maximum number of feature names used in a single <code>IN</code> clause by
+     * {@link #getFeatureStates(Collection)}.
+     */
+    protected static final int MAX_IN_PARAMETERS = 500;
+
+    /**
+     * The name of the row holding the last change version if {@link Builder#changeVersionColumn(boolean)} is used.
+     */
+    static final String CHANGE_COUNTER_ROW = "__TOGGLZ_CHANGE_VERSION__";
+
     protected final DataSource dataSource;
 
     protected final String tableName;
@@ -73,6 +113,20 @@ public class JDBCStateRepository implements StateRepository {
 
     protected final boolean usePostgresTextColumns;
 
+    protected final boolean snapshotMode;
+
+    protected final long snapshotRefreshInterval;
+
+    protected final String snapshotVersionQuery;
+
+    protected final boolean changeVersionColumn;
+
+    private final Logger log = LoggerFactory.getLogger(JDBCStateRepository.class);
+
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
     /**
      * Constructor of {@link JDBCStateRepository}. A database table called <code>TOGGLZ</code> will be created automatically for
      * you.
@@ -103,6 +157,10 @@ public class JDBCStateRepository implements StateRepository {
         this.serializer = builder.serializer;
         this.noCommit = builder.noCommit;
         this.usePostgresTextColumns = builder.usePostgresTextColumns;
+        this.snapshotMode = builder.snapshotMode;
+        this.snapshotRefreshInterval = builder.snapshotRefreshInterval;
+        this.snapshotVersionQuery = builder.snapshotVersionQuery;
+        this.changeVersionColumn = builder.changeVersionColumn;
         if (builder.createTable) {
             migrateSchema();
         }
@@ -130,6 +188,9 @@ public class JDBCStateRepository implements StateRepository {
                 if (usePostgresTextColumns && updater.isPostgres()) {
                     updater.migrateToTextColumns();
                 }
+                if (changeVersionColumn && updater.isSchemaVersion2()) {
+                    updater.migrateToVersion3();
+                }
 
                 afterSchemaMigration(connection);
 
@@ -163,6 +224,10 @@ public class JDBCStateRepository implements StateRepository {
     @Override
     public FeatureState getFeatureState(Feature feature) {
 
+        if (snapshotMode) {
+            return copyFor(feature, getSnapshotStates().get(feature.name()));
+        }
+
         try {
 
             Connection connection = dataSource.getConnection();
@@ -178,33 +243,94 @@ public class JDBCStateRepository implements StateRepository {
                     try {
 
                         if (resultSet.next()) {
+                            return readFeatureState(feature, resultSet);
+                        }
 
-                            boolean enabled = resultSet.getInt(Columns.FEATURE_ENABLED) > 0;
-                            FeatureState state = new FeatureState(feature, enabled);
+                    } finally {
+                        DbUtils.closeQuietly(resultSet);
+                    }
 
-                            String strategyId = resultSet.getString(Columns.STRATEGY_ID);
-                            if (Strings.isNotBlank(strategyId)) {
-                                state.setStrategyId(strategyId.trim());
-                            }
+                } finally {
+                    DbUtils.closeQuietly(statement);
+                }
+
+            } finally {
+                DbUtils.closeQuietly(connection);
+            }
+
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to fetch the feature's state from the database", e);
+        }
 
-                            String paramData = resultSet.getString(Columns.STRATEGY_PARAMS);
-                            if (Strings.isNotBlank(paramData)) {
-                                Map<String, String> params = serializer.deserialize(paramData);
-                                for (Entry<String, String> param : params.entrySet()) {
-                                    state.setParameter(param.getKey(), param.getValue());
+        return null;
+    }
+
+    /**
+     * Loads the states of all supplied features using <code>SELECT ... WHERE FEATURE_NAME IN (...)</code> queries. Each
+     * query contains at most {@value #MAX_IN_PARAMETERS} feature names.
+     */
+    @Override
+    public Map<Feature, FeatureState> getFeatureStates(Collection<? extends Feature> features) {
+
+        if (snapshotMode) {
+            Map<String, FeatureState> states = getSnapshotStates();
+            Map<Feature, FeatureState> result = new LinkedHashMap<>();
+            for (Feature feature : features) {
+                FeatureState state = states.get(feature.name());
+                if (state != null) {
+                    result.put(feature, copyFor(feature, state));
+                }
+            }
+            return result;
+        }
+
+        Map<String, Feature> featuresByName = new LinkedHashMap<>();
+        for (Feature feature : features) {
+            featuresByName.putIfAbsent(feature.name(), feature);
+        }
+
+        Map<Feature, FeatureState> result = new LinkedHashMap<>();
+        if (featuresByName.isEmpty()) {
+            return result;
+        }
+
+        try {
+
+            Connection connection = dataSource.getConnection();
+            try {
+
+                List<String> names = new ArrayList<>(featuresByName.keySet());
+                for (int from = 0; from < names.size(); from += MAX_IN_PARAMETERS) {
+
+                    List<String> chunk = names.subList(from, Math.min(names.size(), from + MAX_IN_PARAMETERS));
+
+                    String sql = "SELECT FEATURE_NAME, FEATURE_ENABLED, STRATEGY_ID, STRATEGY_PARAMS FROM %TABLE% WHERE FEATURE_NAME IN ("
+                        + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+                    PreparedStatement statement = connection.prepareStatement(insertTableName(sql));
+                    try {
+
+                        for (int i = 0; i < chunk.size(); i++) {
+                            statement.setString(i + 1, chunk.get(i));
+                        }
+
+                        ResultSet resultSet = statement.executeQuery();
+                        try {
+
+                            while (resultSet.next()) {
+                                Feature feature = featuresByName.get(resultSet.getString(Columns.FEATURE_NAME));
+                                if (feature != null) {
+                                    result.put(feature, readFeatureState(feature, resultSet));
                                 }
                             }
 
-                            return state;
-
+                        } finally {
+                            DbUtils.closeQuietly(resultSet);
                         }
 
                     } finally {
-                        DbUtils.closeQuietly(resultSet);
+                        DbUtils.closeQuietly(statement);
                     }
 
-                } finally {
-                    DbUtils.closeQuietly(statement);
                 }
 
             } finally {
@@ -212,10 +338,34 @@ public class JDBCStateRepository implements StateRepository {
             }
 
         } catch (SQLException e) {
-            throw new IllegalStateException("Failed to fetch the feature's state from the database", e);
+            throw new IllegalStateException("Failed to fetch the feature states from the database", e);
         }
 
-        return null;
+        return result;
+    }
+
+    /**
+     * Creates the feature state from the current row of the supplied result set.
+     */
+    protected FeatureState readFeatureState(Feature feature, ResultSet resultSet) throws SQLException {
+
+        boolean enabled = resultSet.getInt(Columns.FEATURE_ENABLED) > 0;
+        FeatureState state = new FeatureState(feature, enabled);
+
+        String strategyId = resultSet.getString(Columns.STRATEGY_ID);
+        if (Strings.isNotBlank(strategyId)) {
+            state.setStrategyId(strategyId.trim());
+        }
+
+        String paramData = resultSet.getString(Columns.STRATEGY_PARAMS);
+        if (Strings.isNotBlank(paramData)) {
+            Map<String, String> params = serializer.deserialize(paramData);
+            for (Entry<String, String> param : params.entrySet()) {
+                state.setParameter(param.getKey(), param.getValue());
+            }
+        }
+
+        return state;
     }
 
     @Override
@@ -224,23 +374,38 @@ public class JDBCStateRepository implements StateRepository {
         try {
 
             Connection connection = dataSource.getConnection();
+
+            // the change counter has to stay locked until the modified row is committed
+            boolean ownTransaction = changeVersionColumn && connection.getAutoCommit();
             try {
 
+                if (ownTransaction) {
+                    connection.setAutoCommit(false);
+                }
+
                 int updatedRows = 0;
 
+                long changeVersion = changeVersionColumn ? nextChangeVersion(connection) : 0;
+
                 /*
                  * First try to update an existing row
                  */
-                String updateSql = "UPDATE %TABLE% SET FEATURE_ENABLED = ?, STRATEGY_ID = ?, STRATEGY_PARAMS = ? WHERE FEATURE_NAME = ?";
+                String updateSql = changeVersionColumn
+                    ? "UPDATE %TABLE% SET FEATURE_ENABLED = ?, STRATEGY_ID = ?, STRATEGY_PARAMS = ?, CHANGE_VERSION = ? WHERE FEATURE_NAME = ?"
+                    : "UPDATE %TABLE% SET FEATURE_ENABLED = ?, STRATEGY_ID = ?, STRATEGY_PARAMS = ? WHERE FEATURE_NAME = ?";
                 PreparedStatement updateStatement = connection.prepareStatement(insertTableName(updateSql));
                 try {
 
                     String paramData = serializer.serialize(featureState.getParameterMap());
 
-                    updateStatement.setInt(1, featureState.isEnabled() ? 1 : 0);
-                    updateStatement.setString(2, Strings.trimToNull(featureState.getStrategyId()));
-                    updateStatement.setString(3, Strings.trimToNull(paramData));
-                    updateStatement.setString(4, featureState.getFeature().name());
+                    int index = 1;
+                    updateStatement.setInt(index++, featureState.isEnabled() ? 1 : 0);
+                    updateStatement.setString(index++, Strings.trimToNull(featureState.getStrategyId()));
+                    updateStatement.setString(index++, Strings.trimToNull(paramData));
+                    if (changeVersionColumn) {
+                        updateStatement.setLong(index++, changeVersion);
+                    }
+                    updateStatement.setString(index, featureState.getFeature().name());
 
                     updatedRows = updateStatement.executeUpdate();
 
@@ -253,7 +418,9 @@ public class JDBCStateRepository implements StateRepository {
                  */
                 if (updatedRows == 0) {
 
-                    String insertSql = "INSERT INTO %TABLE% (FEATURE_NAME, FEATURE_ENABLED, STRATEGY_ID, STRATEGY_PARAMS) VALUES (?,?,?,?)";
+                    String insertSql = changeVersionColumn
+                        ? "INSERT INTO %TABLE% (FEATURE_NAME, FEATURE_ENABLED, STRATEGY_ID, STRATEGY_PARAMS, CHANGE_VERSION) VALUES (?,?,?,?,?)"
+                        : "INSERT INTO %TABLE% (FEATURE_NAME, FEATURE_ENABLED, STRATEGY_ID, STRATEGY_PARAMS) VALUES (?,?,?,?)";
                     PreparedStatement insertStatement = connection.prepareStatement(insertTableName(insertSql));
                     try {
 
@@ -263,6 +430,9 @@ public class JDBCStateRepository implements StateRepository {
                         insertStatement.setInt(2, featureState.isEnabled() ? 1 : 0);
                         insertStatement.setString(3, Strings.trimToNull(featureState.getStrategyId()));
                         insertStatement.setString(4, Strings.trimToNull(paramsAsString));
+                        if (changeVersionColumn) {
+                            insertStatement.setLong(5, changeVersion);
+                        }
 
                         insertStatement.executeUpdate();
 
@@ -272,11 +442,19 @@ public class JDBCStateRepository implements StateRepository {
 
                 }
 
-                if (!connection.getAutoCommit() && !noCommit) {
+                if (ownTransaction || !connection.getAutoCommit() && !noCommit) {
                     connection.commit();
                 }
 
+            } catch (SQLException | RuntimeException e) {
+                if (ownTransaction) {
+                    rollbackQuietly(connection);
+                }
+                throw e;
             } finally {
+                if (ownTransaction) {
+                    resetAutoCommitQuietly(connection);
+                }
                 DbUtils.closeQuietly(connection);
             }
 
@@ -284,12 +462,397 @@ public class JDBCStateRepository implements StateRepository {
             throw new IllegalStateException("Failed to set the feature's state in the database", e);
         }
 
+        if (snapshotMode) {
+            updateSnapshot(featureState);
+        }
+
+    }
+
+    /**
+     * <p>
+     * Returns the states of all features which have been modified after the supplied change version. Typically a caller
+     * remembers {@link FeatureStateChanges#getVersion()} and passes it to the next invocation, so that polling for changes
+     * is a single indexed query which doesn't return any rows if nothing has been modified.
+     * </p>
+     *
+     * <p>
+     * Every modification increments the version stored in a counter row, which stays locked until the modification is
+     * committed. Concurrent modifications, even from different repository instances, are therefore assigned distinct
+     * versions in the order in which they are committed, so no modification is missed by polling for newer versions.
+     * Rows deleted from the table are not reported, see {@link FeatureStateChanges}.
+     * </p>
+     *
+     * @param version The change version to compare with, <code>0</code> to fetch all rows
+     * @throws IllegalStateException if the repository wasn't configured using {@link Builder#changeVersionColumn(boolean)}
+     */
+    public FeatureStateChanges getFeatureStatesChangedSince(long version) {
+
+        if (!changeVersionColumn) {
+            throw new IllegalStateException("The change version column has not been enabled for this repository");
+        }
+
+        try {
+
+            Connection connection = dataSource.getConnection();
+            try {
+
+                String sql = "SELECT FEATURE_NAME, FEATURE_ENABLED, STRATEGY_ID, STRATEGY_PARAMS, CHANGE_VERSION FROM %TABLE% WHERE CHANGE_VERSION > ? AND FEATURE_NAME <> ?";
+                PreparedStatement statement = connection.prepareStatement(insertTableName(sql));
+                try {
+
+                    statement.setLong(1, version);
+                    statement.setString(2, CHANGE_COUNTER_ROW);
+
+                    ResultSet resultSet = statement.executeQuery();
+                    try {
+
+                        Map<String, FeatureState> states = new HashMap<>();
+                        long latestVersion = version;
+                        while (resultSet.next()) {
+                            String name = resultSet.getString(Columns.FEATURE_NAME);
+                            states.put(name, readFeatureState(new NamedFeature(name), resultSet));
+                            latestVersion = Math.max(latestVersion, resultSet.getLong(Columns.CHANGE_VERSION));
+                        }
+                        return new FeatureStateChanges(states, latestVersion);
+
+                    } finally {
+                        DbUtils.closeQuietly(resultSet);
+                    }
+
+                } finally {
+                    DbUtils.closeQuietly(statement);
+                }
+
+            } finally {
+                DbUtils.closeQuietly(connection);
+            }
+
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to fetch the modified feature states from the database", e);
+        }
+
+    }
+
+    /**
+     * Increments the change counter and returns the new version. Updating the counter row locks it until the current
+     * transaction is committed, so concurrent writers wait for each other.
+     */
+    private long nextChangeVersion(Connection connection) throws SQLException {
+
+        PreparedStatement updateStatement = connection.prepareStatement(
+            insertTableName("UPDATE %TABLE% SET CHANGE_VERSION = CHANGE_VERSION + 1 WHERE FEATURE_NAME = ?"));
+        try {
+            updateStatement.setString(1, CHANGE_COUNTER_ROW);
+            if (updateStatement.executeUpdate() == 0) {
+                // tables which got the column before the counter row was introduced
+                long changeVersion = queryMaxChangeVersion(connection) + 1;
+                if (insertChangeCounter(connection, changeVersion)) {
+                    return changeVersion;
+                }
+                // another writer created the row in the meantime
+                if (updateStatement.executeUpdate() == 0) {
+                    throw new SQLException("The change counter row doesn't exist");
+                }
+            }
+        } finally {
+            DbUtils.closeQuietly(updateStatement);
+        }
+
+        PreparedStatement selectStatement = connection.prepareStatement(
+            insertTableName("SELECT CHANGE_VERSION FROM %TABLE% WHERE FEATURE_NAME = ?"));
+        try {
+            selectStatement.setString(1, CHANGE_COUNTER_ROW);
+            ResultSet resultSet = selectStatement.executeQuery();
+            try {
+                if (!resultSet.next()) {
+                    throw new SQLException("The change counter row doesn't exist");
+                }
+                return resultSet.getLong(1);
+            } finally {
+                DbUtils.closeQuietly(resultSet);
+            }
+        } finally {
+            DbUtils.closeQuietly(selectStatement);
+        }
+    }
+
+    /**
+     * Creates the counter row. Returns <code>false</code> if the row has been created by a concurrent writer. The
+     * insert is rolled back to a savepoint in this case, because some databases abort the whole transaction otherwise.
+     */
+    private boolean insertChangeCounter(Connection connection, long changeVersion) throws SQLException {
+
+        Savepoint savepoint = connection.setSavepoint();
+        PreparedStatement insertStatement = connection.prepareStatement(
+            insertTableName("INSERT INTO %TABLE% (FEATURE_NAME, FEATURE_ENABLED, CHANGE_VERSION) VALUES (?,?,?)"));
+        try {
+            insertStatement.setString(1, CHANGE_COUNTER_ROW);
+            insertStatement.setInt(2, 0);
+            insertStatement.setLong(3, changeVersion);
+            insertStatement.executeUpdate();
+        } catch (SQLException e) {
+            // SQL state class 23 is an integrity constraint violation like a duplicate key
+            if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                throw e;
+            }
+            connection.rollback(savepoint);
+            return false;
+        } finally {
+            DbUtils.closeQuietly(insertStatement);
+        }
+        connection.releaseSavepoint(savepoint);
+        return true;
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+
+    private static void resetAutoCommitQuietly(Connection connection) {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+
+    private long queryMaxChangeVersion(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(insertTableName("SELECT MAX(CHANGE_VERSION) FROM %TABLE%"));
+        try {
+            ResultSet resultSet = statement.executeQuery();
+            try {
+                // getLong() returns 0 for an empty table
+                return resultSet.next() ? resultSet.getLong(1) : 0;
+            } finally {
+                DbUtils.closeQuietly(resultSet);
+            }
+        } finally {
+            DbUtils.closeQuietly(statement);
+        }
+    }
+
+    /**
+     * Marks the current snapshot as expired so that the complete table is loaded again on next access. Other threads
+     * keep using the current snapshot until the reload has finished. Only relevant if the repository has been configured
+     * to use a snapshot using {@link Builder#snapshot(long, TimeUnit)}.
+     */
+    public void invalidateSnapshot() {
+        // acquiring the lock ensures that a refresh in progress cannot publish outdated data afterwards
+        snapshotLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current != null) {
+                snapshot = new Snapshot(current.states, current.version, true, true);
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Adds a modified state to the current snapshot, so that it is visible immediately, and marks the snapshot as expired.
+     * The next access then refreshes the snapshot while other threads keep using the updated one.
+     */
+    private void updateSnapshot(FeatureState featureState) {
+        // acquiring the lock ensures that a refresh in progress cannot publish outdated data afterwards
+        snapshotLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current != null) {
+                String name = featureState.getFeature().name();
+                Map<String, FeatureState> states = new HashMap<>(current.states);
+                states.put(name, copyFor(new NamedFeature(name), featureState));
+                snapshot = new Snapshot(Collections.unmodifiableMap(states), current.version, true, current.invalidated);
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private Map<String, FeatureState> getSnapshotStates() {
+
+        Snapshot current = snapshot;
+
+        if (current == null) {
+            snapshotLock.lock();
+            try {
+                if (snapshot == null) {
+                    snapshot = loadSnapshot(null);
+                }
+                return snapshot.states;
+            } finally {
+                snapshotLock.unlock();
+            }
+        }
+
+        // only one thread refreshes an expired snapshot, all others keep using the current one
+        if (current.isExpired(snapshotRefreshInterval) && snapshotLock.tryLock()) {
+            try {
+                if (snapshot == current) {
+                    current = loadSnapshot(current);
+                    snapshot = current;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh the feature state snapshot, will retry later", e);
+                if (snapshotRefreshInterval > 0) {
+                    snapshot = current.renew();
+                }
+            } finally {
+                snapshotLock.unlock();
+            }
+        }
+
+        return current.states;
+    }
+
+    /**
+     * Loads all rows of the table. If a version query has been configured and its result didn't change since the
+     * supplied snapshot has been loaded, the rows are not read again. If the change version column is used instead, only
+     * the rows modified since the supplied snapshot has been loaded are read.
+     */
+    private Snapshot loadSnapshot(Snapshot previous) {
+
+        if (previous != null && previous.invalidated) {
+            previous = null;
+        }
+
+        if (previous != null && useChangeVersionForSnapshot()) {
+            FeatureStateChanges changes = getFeatureStatesChangedSince((Long) previous.version);
+            if (changes.isEmpty()) {
+                return previous.renew();
+            }
+            Map<String, FeatureState> states = new HashMap<>(previous.states);
+            states.putAll(changes.getFeatureStates());
+            return new Snapshot(Collections.unmodifiableMap(states), changes.getVersion());
+        }
+
+        try {
+
+            Connection connection = dataSource.getConnection();
+            try {
+
+                Object version = null;
+                if (snapshotVersionQuery != null) {
+                    version = queryVersion(connection);
+                    if (previous != null && Objects.equals(previous.version, version)) {
+                        return previous.renew();
+                    }
+                } else if (useChangeVersionForSnapshot()) {
+                    version = queryMaxChangeVersion(connection);
+                }
+
+                String sql = "SELECT FEATURE_NAME, FEATURE_ENABLED, STRATEGY_ID, STRATEGY_PARAMS FROM %TABLE%";
+                PreparedStatement statement = connection.prepareStatement(insertTableName(sql));
+                try {
+
+                    ResultSet resultSet = statement.executeQuery();
+                    try {
+
+                        Map<String, FeatureState> states = new HashMap<>();
+                        while (resultSet.next()) {
+                            String name = resultSet.getString(Columns.FEATURE_NAME);
+                            if (!CHANGE_COUNTER_ROW.equals(name)) {
+                                states.put(name, readFeatureState(new NamedFeature(name), resultSet));
+                            }
+                        }
+                        return new Snapshot(Collections.unmodifiableMap(states), version);
+
+                    } finally {
+                        DbUtils.closeQuietly(resultSet);
+                    }
+
+                } finally {
+                    DbUtils.closeQuietly(statement);
+                }
+
+            } finally {
+                DbUtils.closeQuietly(connection);
+            }
+
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load the feature states from the database", e);
+        }
+
+    }
+
+    private boolean useChangeVersionForSnapshot() {
+        return changeVersionColumn && snapshotVersionQuery == null;
+    }
+
+    private Object queryVersion(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(insertTableName(snapshotVersionQuery));
+        try {
+            ResultSet resultSet = statement.executeQuery();
+            try {
+                return resultSet.next() ? resultSet.getObject(1) : null;
+            } finally {
+                DbUtils.closeQuietly(resultSet);
+            }
+        } finally {
+            DbUtils.closeQuietly(statement);
+        }
+    }
+
+    /**
+     * The snapshot is shared between threads, so callers get their own copy bound to the requested feature.
+     */
+    private static FeatureState copyFor(Feature feature, FeatureState state) {
+        if (state == null) {
+            return null;
+        }
+        FeatureState copy = new FeatureState(feature, state.isEnabled());
+        copy.setStrategyId(state.getStrategyId());
+        for (Entry<String, String> param : state.getParameterMap().entrySet()) {
+            copy.setParameter(param.getKey(), param.getValue());
+        }
+        return copy;
     }
 
     protected String insertTableName(String s) {
         return s.replace("%TABLE%", tableName);
     }
 
+    /**
+     * Immutable in-memory copy of the complete table
+     */
+    private static class Snapshot {
+
+        private final Map<String, FeatureState> states;
+        private final Object version;
+        private final long loadedAt;
+        private final boolean expired;
+        private final boolean invalidated;
+
+        private Snapshot(Map<String, FeatureState> states, Object version) {
+            this(states, version, false, false);
+        }
+
+        /**
+         * @param expired if the snapshot has to be refreshed on next access
+         * @param invalidated if the refresh has to read all rows instead of only the modified ones
+         */
+        private Snapshot(Map<String, FeatureState> states, Object version, boolean expired, boolean invalidated) {
+            this.states = states;
+            this.version = version;
+            this.loadedAt = System.currentTimeMillis();
+            this.expired = expired;
+            this.invalidated = invalidated;
+        }
+
+        private Snapshot renew() {
+            return new Snapshot(states, version, false, invalidated);
+        }
+
+        private boolean isExpired(long refreshInterval) {
+            return expired || refreshInterval > 0 && System.currentTimeMillis() - loadedAt >= refreshInterval;
+        }
+
+    }
+
     /**
      * Creates a new builder for creating a {@link JDBCStateRepository}.
      *
@@ -310,6 +873,10 @@ public class JDBCStateRepository implements StateRepository {
         private boolean noCommit = false;
         private boolean createTable = true;
         private boolean usePostgresTextColumns = false;
+        private boolean snapshotMode = false;
+        private long snapshotRefreshInterval = 0;
+        private String snapshotVersionQuery = null;
+        private boolean changeVersionColumn = false;
 
         /**
          * Creates a new builder for creating a {@link JDBCStateRepository}.
@@ -374,6 +941,53 @@ public class JDBCStateRepository implements StateRepository {
             return this;
         }
 
+        /**
+         * Loads the complete table into memory with a single query and answers all lookups from this snapshot. The
+         * snapshot is loaded again after the supplied interval or if the state of a feature is modified through the
+         * repository, which adds the modified state to the current snapshot right away. While a refresh is in progress,
+         * other threads keep using the previous snapshot. An interval of
+         * <code>0</code> disables the periodic refresh, so changes made directly in the database won't be picked up.
+         *
+         * @param refreshInterval The time after which the snapshot is refreshed
+         * @param unit The unit of the refresh interval
+         * @throws IllegalArgumentException if the specified interval is negative
+         */
+        public Builder snapshot(long refreshInterval, TimeUnit unit) {
+            if (refreshInterval < 0) {
+                throw new IllegalArgumentException("Negative refresh interval: " + refreshInterval);
+            }
+            this.snapshotMode = true;
+            this.snapshotRefreshInterval = unit.toMillis(refreshInterval);
+            return this;
+        }
+
+        /**
+         * A query returning a single value which changes whenever the table is modified, for example
+         * <code>SELECT MAX(LAST_MODIFIED) FROM %TABLE%</code>. The placeholder <code>%TABLE%</code> is replaced with the
+         * table name. If set, a snapshot refresh only reads the table if the result of this query has changed. Only
+         * used together with {@link #snapshot(long, TimeUnit)}.
+         *
+         * @param snapshotVersionQuery The SQL query to use
+         */
+        public Builder snapshotVersionQuery(String snapshotVersionQuery) {
+            this.snapshotVersionQuery = snapshotVersionQuery;
+            return this;
+        }
+
+        /**
+         * If set to <code>true</code>, the repository maintains a <code>CHANGE_VERSION</code> column which is increased
+         * whenever a feature state is modified, and {@link JDBCStateRepository#getFeatureStatesChangedSince(long)} can be
+         * used to fetch recent modifications. A snapshot configured using {@link #snapshot(long, TimeUnit)} will then
+         * only read the modified rows when refreshing. If {@link #createTable(boolean)} is enabled, the column is added
+         * to existing tables automatically. The default is <code>false</code>.
+         *
+         * @param changeVersionColumn <code>true</code> to use the change version column
+         */
+        public Builder changeVersionColumn(boolean changeVersionColumn) {
+            this.changeVersionColumn = changeVersionColumn;
+            return this;
+        }
+
         /**
          * Creates a {@link JDBCStateRepository} from the current configuration
          */
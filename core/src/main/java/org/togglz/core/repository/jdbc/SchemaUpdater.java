@@ -102,6 +102,31 @@ class SchemaUpdater {
 
     }
 
+    protected boolean isSchemaVersion2() throws SQLException {
+        return columnExists(Columns.STRATEGY_ID) && !columnExists(Columns.CHANGE_VERSION);
+    }
+
+    protected void migrateToVersion3() throws SQLException {
+
+        /*
+         * step 1: add the version column and initialize existing rows
+         */
+        execute("ALTER TABLE %TABLE% ADD CHANGE_VERSION BIGINT");
+        execute("UPDATE %TABLE% SET CHANGE_VERSION = 0");
+
+        /*
+         * step 2: index the column so that queries for recent changes don't scan the table
+         */
+        execute("CREATE INDEX " + indexName("CHANGE_VERSION") + " ON %TABLE% (CHANGE_VERSION)");
+
+        /*
+         * step 3: create the row holding the last assigned version
+         */
+        execute("INSERT INTO %TABLE% (FEATURE_NAME, FEATURE_ENABLED, CHANGE_VERSION) VALUES ('"
+            + JDBCStateRepository.CHANGE_COUNTER_ROW + "', 0, 0)");
+
+    }
+
     protected boolean isPostgres() throws SQLException {
         String dbName = connection.getMetaData().getDatabaseProductName();
         return "PostgreSQL".equals(dbName);
@@ -151,6 +176,15 @@ class SchemaUpdater {
         }
     }
 
+    /**
+     * Returns a plain identifier for an index of the table. The table name may be qualified by a schema or quoted, so
+     * only the unqualified name without quotes is used as prefix.
+     */
+    String indexName(String suffix) {
+        String name = tableName.substring(tableName.lastIndexOf('.') + 1);
+        return name.replaceAll("[^A-Za-z0-9_]", "") + "_" + suffix;
+    }
+
     /**
      * Replaces <code>%TABLE%</code> with the table name configured.
      */
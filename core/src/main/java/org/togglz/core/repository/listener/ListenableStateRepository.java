@@ -5,7 +5,9 @@ import org.togglz.core.repository.FeatureState;
 import org.togglz.core.repository.StateRepository;
 import org.togglz.core.util.Weighted;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ListenableStateRepository implements StateRepository {
@@ -31,6 +33,21 @@ public class ListenableStateRepository implements StateRepository {
         return delegate.getFeatureState(feature);
     }
 
+    @Override
+    public FeatureState getSharedFeatureState(final Feature feature) {
+        return delegate.getSharedFeatureState(feature);
+    }
+
+    @Override
+    public Map<Feature, FeatureState> getFeatureStates(final Collection<? extends Feature> features) {
+        return delegate.getFeatureStates(features);
+    }
+
+    @Override
+    public Map<Feature, FeatureState> getSharedFeatureStates(final Collection<? extends Feature> features) {
+        return delegate.getSharedFeatureStates(features);
+    }
+
     @Override
     public void setFeatureState(final FeatureState featureState) {
         final FeatureState fromState = getFeatureState(featureState.getFeature());
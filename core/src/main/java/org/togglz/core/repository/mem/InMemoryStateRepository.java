@@ -25,9 +25,14 @@ public class InMemoryStateRepository implements StateRepository {
         return FeatureState.copyOf(states.get(feature.name()));
     }
 
+    @Override
+    public FeatureState getSharedFeatureState(Feature feature) {
+        return states.get(feature.name());
+    }
+
     @Override
     public void setFeatureState(FeatureState featureState) {
-        states.put(featureState.getFeature().name(), FeatureState.copyOf(featureState));
+        states.put(featureState.getFeature().name(), featureState.toImmutable());
     }
 
 }
@@ -0,0 +1,112 @@
+package org.togglz.core.repository.property;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.togglz.core.Feature;
+import org.togglz.core.repository.FeatureState;
+
+/**
+ * <p>
+ * An immutable {@link PropertySource} holding a copy of the supplied properties. Snapshots can be read concurrently
+ * without any locking and are used to implement {@link PropertySource#getSnapshot()}.
+ * </p>
+ *
+ * <p>
+ * The keys of feature parameters are indexed by their prefix when the snapshot is created, so looking up the
+ * parameters of a feature doesn't have to scan all keys. {@link PropertyBasedStateRepository} additionally keeps the
+ * states it reads from a snapshot in the snapshot, so each state is only built once per snapshot.
+ * </p>
+ */
+public final class PropertiesSnapshot implements PropertySource {
+
+    static final String PARAM_INFIX = ".param.";
+
+    private final Map<String, String> values;
+
+    private final Map<String, Set<String>> parameterKeys = new HashMap<>();
+
+    private final Map<String, Optional<FeatureState>> states = new ConcurrentHashMap<>();
+
+    public PropertiesSnapshot(Properties values) {
+        this.values = new HashMap<>(values.size() * 4 / 3 + 1);
+        for (String key : values.stringPropertyNames()) {
+            this.values.put(key, values.getProperty(key));
+            int index = key.indexOf(PARAM_INFIX);
+            while (index >= 0) {
+                String prefix = key.substring(0, index + PARAM_INFIX.length());
+                parameterKeys.computeIfAbsent(prefix, p -> new HashSet<>()).add(key);
+                index = key.indexOf(PARAM_INFIX, index + 1);
+            }
+        }
+    }
+
+    /**
+     * Does nothing because snapshots never change.
+     */
+    @Override
+    public void reloadIfUpdated() {
+    }
+
+    @Override
+    public Set<String> getKeysStartingWith(String prefix) {
+        if (prefix.endsWith(PARAM_INFIX)) {
+            Set<String> keys = parameterKeys.get(prefix);
+            return keys != null ? Collections.unmodifiableSet(keys) : Collections.emptySet();
+        }
+        Set<String> result = new HashSet<>();
+        for (String key : values.keySet()) {
+            if (key.startsWith(prefix)) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String getValue(String key, String defaultValue) {
+        String value = values.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Returns a copy of all values of this snapshot.
+     */
+    public Properties toProperties() {
+        Properties copy = new Properties();
+        copy.putAll(values);
+        return copy;
+    }
+
+    @Override
+    public Editor getEditor() {
+        throw new UnsupportedOperationException("Snapshots cannot be modified");
+    }
+
+    @Override
+    public PropertySource getSnapshot() {
+        return this;
+    }
+
+    /**
+     * Returns the state of the feature read by the supplied function. The state has to be immutable and is read only
+     * once for each feature name, other instances of the feature get the state rebound to them.
+     */
+    FeatureState getFeatureState(Feature feature, Function<Feature, FeatureState> reader) {
+        Optional<FeatureState> state = states.get(feature.name());
+        if (state == null) {
+            state = Optional.ofNullable(reader.apply(feature));
+            states.put(feature.name(), state);
+        }
+        FeatureState result = state.orElse(null);
+        return result != null ? result.toImmutable(feature) : null;
+    }
+
+}
@@ -43,59 +43,98 @@ public class PropertyBasedStateRepository implements StateRepository {
     }
 
     public FeatureState getFeatureState(Feature feature) {
+        PropertySource snapshot = propertySource.getSnapshot();
+        if (snapshot instanceof PropertiesSnapshot) {
+            return FeatureState.copyOf(getSnapshotFeatureState((PropertiesSnapshot) snapshot, feature));
+        }
+        return loadFeatureState(snapshot, feature);
+    }
+
+    /**
+     * Returns the state shared by all callers if the {@link PropertySource} provides a {@link PropertiesSnapshot}.
+     */
+    @Override
+    public FeatureState getSharedFeatureState(Feature feature) {
+        PropertySource snapshot = propertySource.getSnapshot();
+        if (snapshot instanceof PropertiesSnapshot) {
+            return getSnapshotFeatureState((PropertiesSnapshot) snapshot, feature);
+        }
+        return loadFeatureState(snapshot, feature);
+    }
+
+    private static FeatureState getSnapshotFeatureState(PropertiesSnapshot snapshot, Feature feature) {
+        // the state is only built once for each snapshot
+        return snapshot.getFeatureState(feature, f -> {
+            FeatureState state = readFeatureState(snapshot, f);
+            return state != null ? state.toImmutable() : null;
+        });
+    }
+
+    private FeatureState loadFeatureState(PropertySource snapshot, Feature feature) {
+
+        // immutable snapshots can be read without locking
+        if (snapshot != null) {
+            return readFeatureState(snapshot, feature);
+        }
+
         lock.lock();
         try {
             // update file if changed
             propertySource.reloadIfUpdated();
 
-            // if we got this one, the feature is present in the repository
-            String enabledAsStr = propertySource.getValue(getEnabledPropertyName(feature), null);
+            return readFeatureState(propertySource, feature);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static FeatureState readFeatureState(PropertySource propertySource, Feature feature) {
 
-            if (enabledAsStr != null) {
+        // if we got this one, the feature is present in the repository
+        String enabledAsStr = propertySource.getValue(getEnabledPropertyName(feature), null);
 
-                // new state instance
-                FeatureState state = new FeatureState(feature);
-                state.setEnabled(isTrue(enabledAsStr));
+        if (enabledAsStr != null) {
 
-                // active strategy (may be null)
-                String strategy = propertySource.getValue(getStrategyPropertyName(feature), null);
-                state.setStrategyId(strategy);
+            // new state instance
+            FeatureState state = new FeatureState(feature);
+            state.setEnabled(isTrue(enabledAsStr));
 
-                // all parameters
-                String paramPrefix = getParameterPropertyName(feature, "");
-                for (String key : propertySource.getKeysStartingWith(paramPrefix)) {
-                    String id = key.substring(paramPrefix.length());
-                    String value = propertySource.getValue(key, null);
-                    state.setParameter(id, value);
-                }
+            // active strategy (may be null)
+            String strategy = propertySource.getValue(getStrategyPropertyName(feature), null);
+            state.setStrategyId(strategy);
 
-                /*
-                 * Backwards compatibility: if there are users stored in the old format, add them to the corresponding property
-                 */
-                List<String> additionalUsers = toList(propertySource.getValue(getUsersPropertyName(feature), null));
-                if (!additionalUsers.isEmpty()) {
+            // all parameters
+            String paramPrefix = getParameterPropertyName(feature, "");
+            for (String key : propertySource.getKeysStartingWith(paramPrefix)) {
+                String id = key.substring(paramPrefix.length());
+                String value = propertySource.getValue(key, null);
+                state.setParameter(id, value);
+            }
 
-                    // join the users to one list and update the property
-                    List<String> currentUsers = toList(state.getParameter(UsernameActivationStrategy.PARAM_USERS));
-                    currentUsers.addAll(additionalUsers);
-                    state.setParameter(UsernameActivationStrategy.PARAM_USERS, Strings.join(currentUsers, ","));
+            /*
+             * Backwards compatibility: if there are users stored in the old format, add them to the corresponding property
+             */
+            List<String> additionalUsers = toList(propertySource.getValue(getUsersPropertyName(feature), null));
+            if (!additionalUsers.isEmpty()) {
 
-                    // we should set strategy id if it is not yet set
-                    if (state.getStrategyId() == null) {
-                        state.setStrategyId(UsernameActivationStrategy.ID);
-                    }
+                // join the users to one list and update the property
+                List<String> currentUsers = toList(state.getParameter(UsernameActivationStrategy.PARAM_USERS));
+                currentUsers.addAll(additionalUsers);
+                state.setParameter(UsernameActivationStrategy.PARAM_USERS, Strings.join(currentUsers, ","));
 
+                // we should set strategy id if it is not yet set
+                if (state.getStrategyId() == null) {
+                    state.setStrategyId(UsernameActivationStrategy.ID);
                 }
 
-                return state;
-
             }
 
-            // the feature is not configured in the repository
-            return null;
-        } finally {
-            lock.unlock();
+            return state;
+
         }
+
+        // the feature is not configured in the repository
+        return null;
     }
 
     public void setFeatureState(FeatureState featureState) {
@@ -142,7 +181,7 @@ public class PropertyBasedStateRepository implements StateRepository {
     }
 
     private static String getParameterPropertyName(Feature feature, String parameter) {
-        return feature.name() + ".param." + parameter;
+        return feature.name() + PropertiesSnapshot.PARAM_INFIX + parameter;
     }
 
     private static String getUsersPropertyName(Feature feature) {
@@ -39,6 +39,18 @@ public interface PropertySource {
      */
     Editor getEditor();
 
+    /**
+     * Returns an immutable view of the current values which can be read concurrently without any locking and without
+     * calling {@link #reloadIfUpdated()}. Sources which reload their values in the background should return the
+     * snapshot of the last load. The default implementation returns <code>null</code>, which means that the source has
+     * to be reloaded and read while holding a lock.
+     *
+     * @return the current snapshot or <code>null</code> if snapshots aren't supported
+     */
+    default PropertySource getSnapshot() {
+        return null;
+    }
+
     /**
      * Provides a means to update the underlying store in a thread-safe manner.
      */
@@ -0,0 +1,53 @@
+package org.togglz.core.spi;
+
+import org.togglz.core.manager.FeatureManager;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.user.FeatureUser;
+
+/**
+ * <p>
+ * Optional extension of {@link ActivationStrategy} for strategies which have to parse their configuration parameters
+ * before they can decide whether a feature is active. The parsing is separated from the evaluation so that the
+ * {@link FeatureManager} can parse the parameters of a {@link FeatureState} once and reuse the result until the state
+ * is modified.
+ * </p>
+ *
+ * <p>
+ * The object returned by {@link #parseParameters(FeatureState)} is shared between threads and must therefore be
+ * immutable.
+ * </p>
+ *
+ * @param <P> The type of the parsed parameters
+ */
+public interface ParsedParametersActivationStrategy<P> extends ActivationStrategy {
+
+    /**
+     * Parses the configuration parameters stored in the supplied feature state.
+     *
+     * @param featureState The feature state which represents the current configuration of the feature
+     * @return the parsed parameters, may be <code>null</code> if the parameters are invalid
+     */
+    P parseParameters(FeatureState featureState);
+
+    /**
+     * Decides whether a feature is active like {@link #isActive(FeatureState, FeatureUser)}, but uses parameters which
+     * have already been parsed by {@link #parseParameters(FeatureState)}.
+     *
+     * @param featureState The feature state which represents the current configuration of the feature
+     * @param user The user for which to decide whether the feature is active. May be <code>null</code>.
+     * @param parameters The result of {@link #parseParameters(FeatureState)} for the supplied feature state
+     * @return <code>true</code> if the feature should be active, else <code>false</code>
+     */
+    boolean evaluate(FeatureState featureState, FeatureUser user, P parameters);
+
+    /**
+     * Parses the parameters and evaluates the strategy. Callers which evaluate the same state repeatedly should cache
+     * the result of {@link #parseParameters(FeatureState)} and call {@link #evaluate(FeatureState, FeatureUser, Object)}
+     * instead.
+     */
+    @Override
+    default boolean isActive(FeatureState featureState, FeatureUser user) {
+        return evaluate(featureState, user, parseParameters(featureState));
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.togglz.core.user;
+
+import static org.togglz.core.util.ConcurrentReferenceHashMap.ReferenceType.STRONG;
+import static org.togglz.core.util.ConcurrentReferenceHashMap.ReferenceType.WEAK;
+
+import java.util.EnumSet;
+import java.util.function.Supplier;
+
+import org.togglz.core.util.ConcurrentReferenceHashMap;
+import org.togglz.core.util.Validate;
+
+/**
+ * <p>
+ * A {@link UserProvider} which reuses the {@link FeatureUser} resolved by another provider as long as the object
+ * identifying the current user doesn't change. This is typically the principal of a request or the authentication of
+ * a security context. Keys are compared by identity and referenced weakly, so a new authentication always resolves the
+ * user again and discarded authentications don't leak.
+ * </p>
+ *
+ * <p>
+ * If the key supplier returns <code>null</code>, the delegate is asked for the user every time. The cached users are
+ * shared between threads and should therefore not be modified.
+ * </p>
+ */
+public class CachingUserProvider implements UserProvider {
+
+    private final UserProvider delegate;
+
+    private final Supplier<?> keySupplier;
+
+    private final ConcurrentReferenceHashMap<Object, FeatureUser> users =
+        new ConcurrentReferenceHashMap<>(WEAK, STRONG, EnumSet.of(ConcurrentReferenceHashMap.Option.IDENTITY_COMPARISONS));
+
+    /**
+     * @param delegate the provider resolving the user
+     * @param keySupplier supplies the object identifying the current user
+     */
+    public CachingUserProvider(UserProvider delegate, Supplier<?> keySupplier) {
+        Validate.notNull(delegate, "delegate is required");
+        Validate.notNull(keySupplier, "keySupplier is required");
+        this.delegate = delegate;
+        this.keySupplier = keySupplier;
+    }
+
+    @Override
+    public FeatureUser getCurrentUser() {
+        Object key = keySupplier.get();
+        if (key == null) {
+            return delegate.getCurrentUser();
+        }
+        FeatureUser user = users.get(key);
+        if (user == null) {
+            user = delegate.getCurrentUser();
+            if (user != null) {
+                users.put(key, user);
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Removes all cached users.
+     */
+    public void clear() {
+        users.clear();
+    }
+
+}
@@ -10,16 +10,28 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Utility class to read annotation on feature enums.
+ * Utility class to read annotation on feature enums. The annotations are read once per class and kept in an index, so
+ * repeated lookups don't use reflection.
  *
  * @author Christian Kaltepoth
  * @author Eli Abramovitch
  */
 public class FeatureAnnotations {
 
+    private static final Annotation[] NO_FIELD = new Annotation[0];
+
+    private static final ClassValue<AnnotationIndex> annotationIndex = new ClassValue<AnnotationIndex>() {
+        @Override
+        protected AnnotationIndex computeValue(Class<?> type) {
+            return new AnnotationIndex(type);
+        }
+    };
+
     public static String getLabel(Feature feature) {
         Label label = getAnnotation(feature, Label.class);
         if (label != null) {
@@ -37,31 +49,66 @@ public class FeatureAnnotations {
     }
 
     public static Set<Annotation> getAnnotations(Feature feature) {
-        Set<Annotation> annotations = new HashSet<>();
-        try {
-            Class<? extends Feature> featureClass = feature.getClass();
-            Annotation[] fieldAnnotations = featureClass.getField(feature.name()).getAnnotations();
-            Annotation[] classAnnotations = featureClass.getAnnotations();
+        return getAnnotations(feature.getClass(), getFieldAnnotations(feature));
+    }
 
-            annotations.addAll(Arrays.asList(fieldAnnotations));
-            annotations.addAll(Arrays.asList(classAnnotations));
+    public static <A extends Annotation> A getAnnotation(Feature feature, Class<A> annotationType) {
+        return getAnnotation(feature.getClass(), getFieldAnnotations(feature), annotationType);
+    }
+
+    /**
+     * Returns the annotations of an enum constant and its class. Intended for enums which don't implement
+     * {@link Feature}.
+     */
+    public static Set<Annotation> getEnumAnnotations(Enum<?> featureEnum) {
+        return getAnnotations(featureEnum.getClass(), getConstantAnnotations(featureEnum));
+    }
+
+    /**
+     * Returns an annotation of an enum constant or, if not present, its class. Intended for enums which don't implement
+     * {@link Feature}.
+     */
+    public static <A extends Annotation> A getEnumAnnotation(Enum<?> featureEnum, Class<A> annotationType) {
+        return getAnnotation(featureEnum.getClass(), getConstantAnnotations(featureEnum), annotationType);
+    }
 
-            return annotations;
-        } catch (SecurityException | NoSuchFieldException e) {
-            // ignore
+    private static Set<Annotation> getAnnotations(Class<?> featureClass, Annotation[] fieldAnnotations) {
+        Set<Annotation> annotations = new HashSet<>();
+        if (fieldAnnotations != NO_FIELD) {
+            annotations.addAll(Arrays.asList(fieldAnnotations));
+            annotations.addAll(Arrays.asList(annotationIndex.get(featureClass).classAnnotations));
         }
         return annotations;
     }
 
-    public static <A extends Annotation> A getAnnotation(Feature feature, Class<A> annotationType) {
-        try {
-            Class<? extends Feature> featureClass = feature.getClass();
-            A fieldAnnotation = featureClass.getField(feature.name()).getAnnotation(annotationType);
-            A classAnnotation = featureClass.getAnnotation(annotationType);
+    private static <A extends Annotation> A getAnnotation(Class<?> featureClass, Annotation[] fieldAnnotations,
+        Class<A> annotationType) {
+        if (fieldAnnotations == NO_FIELD) {
+            return null;
+        }
+        A fieldAnnotation = find(fieldAnnotations, annotationType);
+        return fieldAnnotation != null ? fieldAnnotation : find(annotationIndex.get(featureClass).classAnnotations,
+            annotationType);
+    }
+
+    private static Annotation[] getFieldAnnotations(Feature feature) {
+        if (feature instanceof Enum) {
+            return getConstantAnnotations((Enum<?>) feature);
+        }
+        return annotationIndex.get(feature.getClass()).getFieldAnnotations(feature.name());
+    }
+
+    private static Annotation[] getConstantAnnotations(Enum<?> featureEnum) {
+        // constants with a body are instances of a subclass, so use the enum class itself for the lookup by ordinal
+        Annotation[][] constantAnnotations = annotationIndex.get(featureEnum.getDeclaringClass()).constantAnnotations;
+        return constantAnnotations[featureEnum.ordinal()];
+    }
 
-            return fieldAnnotation != null ? fieldAnnotation : classAnnotation;
-        } catch (SecurityException | NoSuchFieldException e) {
-            // ignore
+    private static <A extends Annotation> A find(Annotation[] annotations, Class<A> annotationType) {
+        for (Annotation annotation : annotations) {
+            if (annotation.annotationType() == annotationType) {
+                return annotationType.cast(annotation);
+            }
         }
         return null;
     }
@@ -93,4 +140,48 @@ public class FeatureAnnotations {
         }
         return null;
     }
+
+    /**
+     * The annotations of a feature class. For enums the annotations of the constants are indexed by their ordinal,
+     * annotations of other features are looked up by name on first access.
+     */
+    private static class AnnotationIndex {
+
+        private final Class<?> featureClass;
+
+        private final Annotation[] classAnnotations;
+
+        private final Annotation[][] constantAnnotations;
+
+        private final Map<String, Annotation[]> fieldAnnotations = new ConcurrentHashMap<>();
+
+        private AnnotationIndex(Class<?> featureClass) {
+            this.featureClass = featureClass;
+            this.classAnnotations = featureClass.getAnnotations();
+            Object[] constants = featureClass.getEnumConstants();
+            if (constants != null) {
+                this.constantAnnotations = new Annotation[constants.length][];
+                for (Object constant : constants) {
+                    Enum<?> featureEnum = (Enum<?>) constant;
+                    constantAnnotations[featureEnum.ordinal()] = readFieldAnnotations(featureEnum.name());
+                }
+            } else {
+                this.constantAnnotations = null;
+            }
+        }
+
+        private Annotation[] getFieldAnnotations(String name) {
+            return fieldAnnotations.computeIfAbsent(name, this::readFieldAnnotations);
+        }
+
+        private Annotation[] readFieldAnnotations(String name) {
+            try {
+                return featureClass.getField(name).getAnnotations();
+            } catch (SecurityException | NoSuchFieldException e) {
+                return NO_FIELD;
+            }
+        }
+
+    }
+
 }
@@ -7,6 +7,7 @@ import java.util.Set;
 import org.togglz.core.Feature;
 import org.togglz.core.context.FeatureContext;
 import org.togglz.core.manager.FeatureManager;
+import org.togglz.core.manager.FeatureSnapshot;
 import org.togglz.core.manager.LazyResolvingFeatureManager;
 
 /**
@@ -19,6 +20,11 @@ import org.togglz.core.manager.LazyResolvingFeatureManager;
  * The map allows constructor-based injection of the {@link FeatureManager} for use in DI containers.
  * </p>
  * 
+ * <p>
+ * If the map is created for a {@link FeatureSnapshot}, all lookups are answered by the snapshot. This is useful if the
+ * state of all features is required several times, for example when rendering a view.
+ * </p>
+ * 
  * @author Mauro Talevi
  * @author Christian Kaltepoth
  */
@@ -26,6 +32,8 @@ public class FeatureMap implements Map<Object, Boolean> {
 
     private final FeatureManager manager;
 
+    private final FeatureSnapshot snapshot;
+
     /**
      * Constructor that will configure the map to lazily lookup the {@link FeatureManager} from the {@link FeatureContext}.
      */
@@ -38,6 +46,16 @@ public class FeatureMap implements Map<Object, Boolean> {
      */
     public FeatureMap(FeatureManager manager) {
         this.manager = manager;
+        this.snapshot = null;
+    }
+
+    /**
+     * Constructor that will answer all lookups using the supplied snapshot, typically obtained from
+     * {@link FeatureManager#evaluateAll()}.
+     */
+    public FeatureMap(FeatureSnapshot snapshot) {
+        this.manager = null;
+        this.snapshot = snapshot;
     }
 
     @Override
@@ -45,6 +63,10 @@ public class FeatureMap implements Map<Object, Boolean> {
 
         Validate.notNull(key, "The feature must not be null");
 
+        if (snapshot != null) {
+            return key instanceof Feature ? snapshot.isActive((Feature) key) : snapshot.isActive(key.toString());
+        }
+
         Feature feature = null;
         if (key instanceof Feature) {
             feature = (Feature) key;
@@ -57,6 +79,9 @@ public class FeatureMap implements Map<Object, Boolean> {
 
     @Override
     public int size() {
+        if (snapshot != null) {
+            return snapshot.size();
+        }
         return manager.getFeatures().size();
     }
 
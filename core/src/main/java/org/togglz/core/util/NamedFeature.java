@@ -32,6 +32,9 @@ public class NamedFeature implements Feature, Serializable {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         return o instanceof NamedFeature && this.name.equals(((NamedFeature) o).name());
     }
 }
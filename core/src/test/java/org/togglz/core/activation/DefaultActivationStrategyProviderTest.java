@@ -61,6 +61,44 @@ class DefaultActivationStrategyProviderTest {
 
     }
 
+    @Test
+    void shouldLookupStrategyByIdIgnoringCase() {
+        CustomActivationStrategy strategy = new CustomActivationStrategy();
+        provider.addActivationStrategy(strategy);
+
+        assertThat(provider.getActivationStrategy("customactivationstrategy")).isSameAs(strategy);
+        assertThat(provider.getActivationStrategy("CUSTOMACTIVATIONSTRATEGY")).isSameAs(strategy);
+        assertThat(provider.getActivationStrategy("GRADUAL")).isInstanceOf(GradualActivationStrategy.class);
+    }
+
+    @Test
+    void shouldMatchSameIdsAsLinearLookup() {
+        CustomActivationStrategy strategy = new CustomActivationStrategy();
+        provider.addActivationStrategy(strategy);
+        ActivationStrategyProvider linearProvider = () -> provider.getActivationStrategies();
+
+        // long s and dotted capital I are equal to 's' and 'i' ignoring case, but not after toLowerCase()
+        for (String id : new String[] { "CUSTOMACTIVATION\u017FTRATEGY", "CUSTOMACT\u0130VATIONSTRATEGY",
+            "CustomActivationStrategy", "Custom" }) {
+            assertThat(provider.getActivationStrategy(id)).isSameAs(linearProvider.getActivationStrategy(id));
+        }
+        assertThat(provider.getActivationStrategy("CUSTOMACTIVATION\u017FTRATEGY")).isSameAs(strategy);
+    }
+
+    @Test
+    void shouldReturnNullForUnknownStrategyId() {
+        assertThat(provider.getActivationStrategy("NoSuchActivationStrategy")).isNull();
+        assertThat(provider.getActivationStrategy(null)).isNull();
+    }
+
+    @Test
+    void shouldPreferFirstRegisteredStrategyWithSameId() {
+        CustomActivationStrategy first = new CustomActivationStrategy();
+        provider.addActivationStrategies(List.of(first, new CustomActivationStrategy()));
+
+        assertThat(provider.getActivationStrategy(CustomActivationStrategy.class.getSimpleName())).isSameAs(first);
+    }
+
     private static class CustomActivationStrategy implements ActivationStrategy {
 
         @Override
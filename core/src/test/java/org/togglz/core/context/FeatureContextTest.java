@@ -0,0 +1,100 @@
+package org.togglz.core.context;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.togglz.core.Feature;
+import org.togglz.core.manager.FeatureManager;
+import org.togglz.core.manager.FeatureManagerBuilder;
+import org.togglz.core.repository.mem.InMemoryStateRepository;
+import org.togglz.core.user.NoOpUserProvider;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FeatureContextTest {
+
+    @AfterEach
+    void after() {
+        ThreadLocalFeatureManagerProvider.release();
+        FeatureContext.setCacheMode(FeatureContext.CacheMode.CONTEXT_CLASS_LOADER);
+    }
+
+    @Test
+    void singleModeReusesManagerUntilCacheIsCleared() {
+        FeatureContext.setCacheMode(FeatureContext.CacheMode.SINGLE_FEATURE_MANAGER);
+
+        FeatureManager first = createFeatureManager();
+        ThreadLocalFeatureManagerProvider.bind(first);
+        assertSame(first, FeatureContext.getFeatureManager());
+
+        ThreadLocalFeatureManagerProvider.release();
+
+        FeatureManager second = createFeatureManager();
+        ThreadLocalFeatureManagerProvider.bind(second);
+        assertSame(first, FeatureContext.getFeatureManager());
+
+        FeatureContext.clearCache();
+        assertSame(second, FeatureContext.getFeatureManager());
+    }
+
+    @Test
+    void threadModeResolvesAgainAfterCacheIsCleared() {
+        FeatureContext.setCacheMode(FeatureContext.CacheMode.THREAD);
+
+        FeatureManager first = createFeatureManager();
+        ThreadLocalFeatureManagerProvider.bind(first);
+        assertSame(first, FeatureContext.getFeatureManager());
+        ThreadLocalFeatureManagerProvider.release();
+
+        FeatureManager second = createFeatureManager();
+        ThreadLocalFeatureManagerProvider.bind(second);
+        assertSame(first, FeatureContext.getFeatureManager());
+
+        FeatureContext.clearCache();
+        assertSame(second, FeatureContext.getFeatureManager());
+    }
+
+    @Test
+    void clearingTheCacheOfClassLoaderKeepsOtherClassLoaders() {
+        FeatureManager first = createFeatureManager();
+        ThreadLocalFeatureManagerProvider.bind(first);
+        assertSame(first, FeatureContext.getFeatureManager());
+
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        ClassLoader otherClassLoader = new URLClassLoader(new URL[0], contextClassLoader);
+        Thread.currentThread().setContextClassLoader(otherClassLoader);
+        try {
+            assertSame(first, FeatureContext.getFeatureManager());
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+        ThreadLocalFeatureManagerProvider.release();
+
+        FeatureManager second = createFeatureManager();
+        ThreadLocalFeatureManagerProvider.bind(second);
+        FeatureContext.clearCache(otherClassLoader);
+        assertSame(first, FeatureContext.getFeatureManager());
+
+        Thread.currentThread().setContextClassLoader(otherClassLoader);
+        try {
+            assertSame(second, FeatureContext.getFeatureManager());
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    private static FeatureManager createFeatureManager() {
+        return new FeatureManagerBuilder()
+                .featureEnum(MyFeature.class)
+                .stateRepository(new InMemoryStateRepository())
+                .userProvider(new NoOpUserProvider())
+                .build();
+    }
+
+    private enum MyFeature implements Feature {
+        FEATURE1
+    }
+
+}
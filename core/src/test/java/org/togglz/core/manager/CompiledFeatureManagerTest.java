@@ -0,0 +1,130 @@
+package org.togglz.core.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.togglz.core.Feature;
+import org.togglz.core.activation.UsernameActivationStrategy;
+import org.togglz.core.annotation.EnabledByDefault;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.repository.StateRepository;
+import org.togglz.core.repository.mem.InMemoryStateRepository;
+import org.togglz.core.user.FeatureUser;
+import org.togglz.core.user.SimpleFeatureUser;
+import org.togglz.core.user.UserProvider;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompiledFeatureManagerTest {
+
+    private StateRepository repository;
+    private UserProvider userProvider;
+    private FeatureManager manager;
+
+    @BeforeEach
+    void before() {
+        repository = spy(new InMemoryStateRepository());
+        repository.setFeatureState(new FeatureState(MyFeatures.DELETE_USERS, true)
+            .setStrategyId(UsernameActivationStrategy.ID)
+            .setParameter(UsernameActivationStrategy.PARAM_USERS, "admin"));
+        repository.setFeatureState(new FeatureState(MyFeatures.MISSING_STRATEGY, true)
+            .setStrategyId("NoSuchActivationStrategy"));
+        repository.setFeatureState(new FeatureState(MyFeatures.EXPERIMENTAL, false));
+
+        userProvider = mock(UserProvider.class);
+
+        manager = new FeatureManagerBuilder()
+            .featureEnum(MyFeatures.class)
+            .stateRepository(repository)
+            .userProvider(userProvider)
+            .compiledEvaluation()
+            .build();
+    }
+
+    @Test
+    void shouldEvaluateLikeDefaultFeatureManager() {
+        FeatureUser admin = new SimpleFeatureUser("admin", false);
+        when(userProvider.getCurrentUser()).thenReturn(admin);
+        assertTrue(manager.isActive(MyFeatures.DELETE_USERS));
+
+        when(userProvider.getCurrentUser()).thenReturn(new SimpleFeatureUser("somebody", false));
+        assertFalse(manager.isActive(MyFeatures.DELETE_USERS));
+
+        assertFalse(manager.isActive(MyFeatures.EXPERIMENTAL));
+        assertFalse(manager.isActive(MyFeatures.MISSING_STRATEGY));
+        assertTrue(manager.isActive(MyFeatures.NOT_STORED_FEATURE));
+    }
+
+    @Test
+    void shouldReadRepositoryOnlyOnce() {
+        for (int i = 0; i < 10; i++) {
+            assertFalse(manager.isActive(MyFeatures.EXPERIMENTAL));
+        }
+        verify(repository, times(1)).getSharedFeatureState(MyFeatures.EXPERIMENTAL);
+    }
+
+    @Test
+    void shouldNotResolveUserForConstantDecisions() {
+        manager.isActive(MyFeatures.EXPERIMENTAL);
+        manager.isActive(MyFeatures.MISSING_STRATEGY);
+        manager.isActive(MyFeatures.NOT_STORED_FEATURE);
+        verify(userProvider, never()).getCurrentUser();
+    }
+
+    @Test
+    void shouldRecompileAfterStateChange() {
+        assertFalse(manager.isActive(MyFeatures.EXPERIMENTAL));
+
+        manager.enable(MyFeatures.EXPERIMENTAL);
+        assertTrue(manager.isActive(MyFeatures.EXPERIMENTAL));
+
+        manager.setFeatureState(new FeatureState(MyFeatures.EXPERIMENTAL, false));
+        assertFalse(manager.isActive(MyFeatures.EXPERIMENTAL));
+    }
+
+    @Test
+    void shouldIgnoreDirectRepositoryChangesWithoutRefreshInterval() {
+        assertFalse(manager.isActive(MyFeatures.EXPERIMENTAL));
+
+        repository.setFeatureState(new FeatureState(MyFeatures.EXPERIMENTAL, true));
+        assertFalse(manager.isActive(MyFeatures.EXPERIMENTAL));
+    }
+
+    @Test
+    void shouldPickUpDirectRepositoryChangesAfterRefreshInterval() throws InterruptedException {
+        FeatureManager refreshingManager = new FeatureManagerBuilder()
+            .featureEnum(MyFeatures.class)
+            .stateRepository(repository)
+            .userProvider(userProvider)
+            .compiledEvaluation(10, TimeUnit.MILLISECONDS)
+            .build();
+        assertFalse(refreshingManager.isActive(MyFeatures.EXPERIMENTAL));
+
+        repository.setFeatureState(new FeatureState(MyFeatures.EXPERIMENTAL, true));
+        Thread.sleep(50);
+        assertTrue(refreshingManager.isActive(MyFeatures.EXPERIMENTAL));
+    }
+
+    @Test
+    void shouldRejectNegativeRefreshInterval() {
+        assertThrows(IllegalArgumentException.class,
+            () -> FeatureManagerBuilder.begin().compiledEvaluation(-1, TimeUnit.SECONDS));
+    }
+
+    private enum MyFeatures implements Feature {
+        DELETE_USERS,
+        EXPERIMENTAL,
+        MISSING_STRATEGY,
+        @EnabledByDefault
+        NOT_STORED_FEATURE
+    }
+}
@@ -4,22 +4,27 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.togglz.core.Feature;
+import org.togglz.core.activation.Parameter;
 import org.togglz.core.activation.UsernameActivationStrategy;
 import org.togglz.core.metadata.FeatureMetaData;
 import org.togglz.core.repository.FeatureState;
 import org.togglz.core.repository.StateRepository;
 import org.togglz.core.repository.mem.InMemoryStateRepository;
 import org.togglz.core.spi.FeatureProvider;
+import org.togglz.core.spi.ParsedParametersActivationStrategy;
 import org.togglz.core.user.FeatureUser;
 import org.togglz.core.user.SimpleFeatureUser;
 import org.togglz.core.user.UserProvider;
 
 import java.util.Arrays;
+import java.util.HashSet;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class DefaultFeatureManagerTest {
@@ -151,6 +156,160 @@ class DefaultFeatureManagerTest {
 
     }
 
+    @Test
+    void testEvaluateAll() {
+        featureUserProvider.setFeatureUser(new SimpleFeatureUser("admin", false));
+        repository.setFeatureState(new FeatureState(MyFeatures.NOT_STORED_FEATURE, true)
+            .setStrategyId(UsernameActivationStrategy.ID)
+            .setParameter(UsernameActivationStrategy.PARAM_USERS, "admin"));
+
+        FeatureSnapshot snapshot = manager.evaluateAll();
+
+        assertEquals(MyFeatures.values().length, snapshot.size());
+        assertEquals(new HashSet<>(Arrays.asList(MyFeatures.DELETE_USERS, MyFeatures.EMPTY_STRATEGY,
+            MyFeatures.NOT_STORED_FEATURE)), snapshot.getActiveFeatures());
+        assertTrue(snapshot.isActive(MyFeatures.DELETE_USERS));
+        assertTrue(snapshot.isActive("EMPTY_STRATEGY"));
+        assertFalse(snapshot.isActive(MyFeatures.EXPERIMENTAL));
+
+        // the snapshot is not affected by later modifications
+        manager.enable(MyFeatures.EXPERIMENTAL);
+        assertFalse(snapshot.isActive(MyFeatures.EXPERIMENTAL));
+    }
+
+    @Test
+    void testEvaluateResolvesUserOnlyOnce() {
+        UserProvider userProvider = mock(UserProvider.class);
+        when(userProvider.getCurrentUser()).thenReturn(new SimpleFeatureUser("admin", false));
+        repository.setFeatureState(new FeatureState(MyFeatures.NOT_STORED_FEATURE, true)
+            .setStrategyId(UsernameActivationStrategy.ID)
+            .setParameter(UsernameActivationStrategy.PARAM_USERS, "somebody"));
+        FeatureManager manager = new FeatureManagerBuilder()
+            .featureEnum(MyFeatures.class)
+            .stateRepository(repository)
+            .userProvider(userProvider)
+            .build();
+
+        FeatureSnapshot snapshot = manager.evaluate(Arrays.asList(MyFeatures.DELETE_USERS, MyFeatures.NOT_STORED_FEATURE));
+
+        assertTrue(snapshot.isActive(MyFeatures.DELETE_USERS));
+        assertFalse(snapshot.isActive(MyFeatures.NOT_STORED_FEATURE));
+        assertFalse(snapshot.contains(MyFeatures.EXPERIMENTAL));
+        verify(userProvider, times(1)).getCurrentUser();
+    }
+
+    @Test
+    void testParsesParametersOnlyOnceUntilStateIsModified() {
+        CountingStrategy strategy = new CountingStrategy();
+        FeatureManager manager = new FeatureManagerBuilder()
+            .featureEnum(MyFeatures.class)
+            .stateRepository(repository)
+            .activationStrategy(strategy)
+            .build();
+        manager.setFeatureState(new FeatureState(MyFeatures.EXPERIMENTAL, true)
+            .setStrategyId(CountingStrategy.ID)
+            .setParameter(CountingStrategy.PARAM, "true"));
+
+        assertTrue(manager.isActive(MyFeatures.EXPERIMENTAL));
+        assertTrue(manager.isActive(MyFeatures.EXPERIMENTAL));
+        assertEquals(1, strategy.parseCount);
+
+        manager.setFeatureState(new FeatureState(MyFeatures.EXPERIMENTAL, true)
+            .setStrategyId(CountingStrategy.ID)
+            .setParameter(CountingStrategy.PARAM, "false"));
+        assertFalse(manager.isActive(MyFeatures.EXPERIMENTAL));
+        assertEquals(2, strategy.parseCount);
+
+        // modifications made directly in the repository are detected as well
+        repository.setFeatureState(new FeatureState(MyFeatures.EXPERIMENTAL, true)
+            .setStrategyId(CountingStrategy.ID)
+            .setParameter(CountingStrategy.PARAM, "true"));
+        assertTrue(manager.isActive(MyFeatures.EXPERIMENTAL));
+        assertEquals(3, strategy.parseCount);
+    }
+
+    @Test
+    void testInvokesOverriddenIsActiveOfBuiltInStrategy() {
+        repository.setFeatureState(new FeatureState(MyFeatures.EXPERIMENTAL, true)
+            .setStrategyId(AllowGuestsStrategy.ID)
+            .setParameter(UsernameActivationStrategy.PARAM_USERS, "admin"));
+        featureUserProvider.setFeatureUser(null);
+
+        FeatureManager compiledManager = new FeatureManagerBuilder()
+            .featureEnum(MyFeatures.class)
+            .stateRepository(repository)
+            .userProvider(featureUserProvider)
+            .activationStrategy(new AllowGuestsStrategy())
+            .compiledEvaluation()
+            .build();
+        FeatureManager manager = new FeatureManagerBuilder()
+            .featureEnum(MyFeatures.class)
+            .stateRepository(repository)
+            .userProvider(featureUserProvider)
+            .activationStrategy(new AllowGuestsStrategy())
+            .build();
+
+        assertTrue(manager.isActive(MyFeatures.EXPERIMENTAL));
+        assertTrue(compiledManager.isActive(MyFeatures.EXPERIMENTAL));
+    }
+
+    /**
+     * Subclass of a built-in strategy which customizes isActive
+     */
+    private static final class AllowGuestsStrategy extends UsernameActivationStrategy {
+
+        static final String ID = "allow-guests";
+
+        @Override
+        public String getId() {
+            return ID;
+        }
+
+        @Override
+        public boolean isActive(FeatureState featureState, FeatureUser user) {
+            return user == null || super.isActive(featureState, user);
+        }
+
+    }
+
+    /**
+     * Strategy that counts how often its parameters are parsed
+     */
+    private static final class CountingStrategy implements ParsedParametersActivationStrategy<Boolean> {
+
+        static final String ID = "counting";
+        static final String PARAM = "active";
+
+        private int parseCount = 0;
+
+        @Override
+        public String getId() {
+            return ID;
+        }
+
+        @Override
+        public String getName() {
+            return ID;
+        }
+
+        @Override
+        public Boolean parseParameters(FeatureState featureState) {
+            parseCount++;
+            return Boolean.valueOf(featureState.getParameter(PARAM));
+        }
+
+        @Override
+        public boolean evaluate(FeatureState featureState, FeatureUser user, Boolean active) {
+            return active;
+        }
+
+        @Override
+        public Parameter[] getParameters() {
+            return new Parameter[0];
+        }
+
+    }
+
     /**
      * {@link UserProvider} that allows to set the user directly
      */
@@ -147,6 +147,20 @@ public class EnumBasedFeatureProviderTest {
         assertFalse(provider.getMetaData(ValidFeatureEnum.FEATURE1).getDefaultFeatureState().isEnabled());
     }
 
+    @Test
+    void shouldAssignDenseIdsInOrderOfFeatures() {
+        EnumBasedFeatureProvider provider = new EnumBasedFeatureProvider(ValidFeatureEnum.class, OtherFeatureEnum.class);
+
+        assertEquals(0, provider.getFeatureId(ValidFeatureEnum.FEATURE1));
+        assertEquals(3, provider.getFeatureId(ValidFeatureEnum.WITH_LINK));
+        assertEquals(4, provider.getFeatureId(OtherFeatureEnum.ADDITIONAL_FEATURE));
+        assertEquals(4, provider.getFeatureId(new OtherFeatureImpl("ADDITIONAL_FEATURE")));
+        assertEquals(-1, provider.getFeatureId(new OtherFeatureImpl("UNKNOWN")));
+        // constants of other enums are looked up by name
+        assertEquals(0, provider.getFeatureId(DuplicateNameFeatureEnum.FEATURE1));
+        assertEquals(OtherFeatureEnum.ADDITIONAL_FEATURE, provider.getFeature(4));
+    }
+
     @Test
     void providerShouldNotEagerlyCreateFeaturesSet() {
         FeatureProvider provider = new EnumBasedFeatureProvider();
@@ -0,0 +1,130 @@
+package org.togglz.core.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.togglz.core.Feature;
+import org.togglz.core.activation.UsernameActivationStrategy;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.repository.StateRepository;
+import org.togglz.core.repository.mem.InMemoryStateRepository;
+import org.togglz.core.user.FeatureUser;
+import org.togglz.core.user.SimpleFeatureUser;
+import org.togglz.core.user.UserProvider;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeatureEvaluationScopeTest {
+
+    private StateRepository repository;
+    private FeatureManager manager;
+    private CountingUserProvider userProvider;
+
+    @BeforeEach
+    void before() {
+        repository = new InMemoryStateRepository();
+        repository.setFeatureState(new FeatureState(MyFeatures.FEATURE1, true)
+            .setStrategyId(UsernameActivationStrategy.ID)
+            .setParameter(UsernameActivationStrategy.PARAM_USERS, "admin"));
+        repository.setFeatureState(new FeatureState(MyFeatures.FEATURE2, true)
+            .setStrategyId(UsernameActivationStrategy.ID)
+            .setParameter(UsernameActivationStrategy.PARAM_USERS, "admin"));
+
+        userProvider = new CountingUserProvider();
+        userProvider.featureUser = new SimpleFeatureUser("admin");
+
+        manager = new FeatureManagerBuilder()
+            .featureEnum(MyFeatures.class)
+            .stateRepository(repository)
+            .userProvider(userProvider)
+            .build();
+    }
+
+    @AfterEach
+    void after() {
+        while (FeatureEvaluationScope.isBound()) {
+            FeatureEvaluationScope.end();
+        }
+    }
+
+    @Test
+    void shouldResolveUserOnlyOnceWithinScope() {
+        FeatureEvaluationScope.begin();
+
+        assertTrue(manager.isActive(MyFeatures.FEATURE1));
+        assertTrue(manager.isActive(MyFeatures.FEATURE2));
+        assertTrue(manager.isActive(MyFeatures.FEATURE1));
+        assertEquals("admin", manager.getCurrentFeatureUser().getName());
+        assertEquals(1, userProvider.calls);
+
+        FeatureEvaluationScope.end();
+
+        assertTrue(manager.isActive(MyFeatures.FEATURE1));
+        assertEquals(2, userProvider.calls);
+    }
+
+    @Test
+    void shouldMemoizeDecisionsWithinScope() {
+        FeatureEvaluationScope.begin();
+
+        assertTrue(manager.isActive(MyFeatures.FEATURE1));
+
+        // modifications bypassing the manager are not visible until the scope ends
+        repository.setFeatureState(new FeatureState(MyFeatures.FEATURE1, false));
+        assertTrue(manager.isActive(MyFeatures.FEATURE1));
+        assertTrue(manager.evaluate(Arrays.asList(MyFeatures.FEATURE1, MyFeatures.FEATURE2)).isActive(MyFeatures.FEATURE1));
+
+        FeatureEvaluationScope.end();
+
+        assertFalse(manager.isActive(MyFeatures.FEATURE1));
+    }
+
+    @Test
+    void shouldDiscardDecisionWhenStateIsModifiedByManager() {
+        FeatureEvaluationScope.begin();
+
+        assertTrue(manager.isActive(MyFeatures.FEATURE1));
+        manager.setFeatureState(new FeatureState(MyFeatures.FEATURE1, false));
+        assertFalse(manager.isActive(MyFeatures.FEATURE1));
+        assertTrue(manager.isActive(MyFeatures.FEATURE2));
+    }
+
+    @Test
+    void shouldKeepScopeUntilOutermostEnd() {
+        FeatureEvaluationScope.begin();
+        FeatureEvaluationScope.begin();
+        assertTrue(manager.isActive(MyFeatures.FEATURE1));
+
+        FeatureEvaluationScope.end();
+        assertTrue(FeatureEvaluationScope.isBound());
+        assertTrue(manager.isActive(MyFeatures.FEATURE2));
+        assertEquals(1, userProvider.calls);
+
+        FeatureEvaluationScope.end();
+        assertFalse(FeatureEvaluationScope.isBound());
+    }
+
+    private static final class CountingUserProvider implements UserProvider {
+
+        private FeatureUser featureUser;
+
+        private int calls;
+
+        @Override
+        public FeatureUser getCurrentUser() {
+            calls++;
+            return featureUser;
+        }
+
+    }
+
+    private enum MyFeatures implements Feature {
+        FEATURE1,
+        FEATURE2
+    }
+
+}
@@ -1,18 +1,23 @@
 package org.togglz.core.proxy;
 
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.togglz.core.Feature;
+import org.togglz.core.activation.UsernameActivationStrategy;
 import org.togglz.core.manager.FeatureManager;
 import org.togglz.core.manager.FeatureManagerBuilder;
 import org.togglz.core.repository.FeatureState;
+import org.togglz.core.repository.listener.ListenableStateRepository;
 import org.togglz.core.repository.mem.InMemoryStateRepository;
 import org.togglz.core.user.NoOpUserProvider;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ByteBuddyProxyFactoryTest {
@@ -107,6 +112,85 @@ class ByteBuddyProxyFactoryTest {
     assertEquals("World", proxy.get());
   }
 
+  @Test
+  void byteBuddyProxyClassesAreReused() {
+    // When:
+    Supplier<String> first = ByteBuddyProxyFactory.proxyFor(Features.F1, Speaker.class, sayHello, sayWorld, featureManager);
+    Supplier<String> second = ByteBuddyProxyFactory.proxyFor(Features.F1, Speaker.class, sayWorld, sayHello, featureManager);
+    Supplier<String> passive = ByteBuddyProxyFactory.passiveProxyFor(Features.F1, Speaker.class, sayHello, sayWorld, featureManager);
+    // Then:
+    assertSame(first.getClass(), second.getClass());
+    assertNotSame(first.getClass(), passive.getClass());
+    assertEquals("Hello", first.get());
+    assertEquals("World", second.get());
+  }
+
+  @Test
+  void byteBuddyChangeDrivenProxySwitchesWhenStateIsModified() {
+    // Given:
+    TogglzSwitchableNotifier notifier = new TogglzSwitchableNotifier();
+    FeatureManager listenableFeatureManager = new FeatureManagerBuilder()
+      .featureEnum(ByteBuddyProxyFactoryTest.Features.class)
+      .stateRepository(new ListenableStateRepository(new InMemoryStateRepository(), notifier))
+      .userProvider(new NoOpUserProvider())
+      .build();
+    listenableFeatureManager.setFeatureState(new FeatureState(Features.F1, true));
+    Supplier<String> proxy = ByteBuddyProxyFactory.changeDrivenProxyFor(Features.F1, Supplier.class, sayHello, sayWorld, listenableFeatureManager, notifier);
+    assertEquals("Hello", proxy.get());
+    // When:
+    listenableFeatureManager.setFeatureState(new FeatureState(Features.F1, false));
+    // Then:
+    assertEquals("World", proxy.get());
+  }
+
+  @Test
+  void byteBuddyChangeDrivenProxyChecksStateForEveryCallIfStrategyIsSelected() {
+    // Given:
+    TogglzSwitchableNotifier notifier = new TogglzSwitchableNotifier();
+    FeatureManager listenableFeatureManager = new FeatureManagerBuilder()
+      .featureEnum(ByteBuddyProxyFactoryTest.Features.class)
+      .stateRepository(new ListenableStateRepository(new InMemoryStateRepository(), notifier))
+      .userProvider(new NoOpUserProvider())
+      .build();
+    Supplier<String> proxy = ByteBuddyProxyFactory.changeDrivenProxyFor(Features.F1, Supplier.class, sayHello, sayWorld, listenableFeatureManager, notifier);
+    // When:
+    listenableFeatureManager.setFeatureState(new FeatureState(Features.F1, true)
+      .setStrategyId(UsernameActivationStrategy.ID)
+      .setParameter(UsernameActivationStrategy.PARAM_USERS, "person"));
+    // Then:
+    assertEquals("World", proxy.get()); // no user, so the strategy decides that the feature is inactive
+  }
+
+  @Test
+  void byteBuddyChangeDrivenProxyKeepsStateModifiedDuringRegistration() {
+    // Given:
+    TogglzSwitchableNotifier notifier = new TogglzSwitchableNotifier();
+    AtomicBoolean modifyOnRead = new AtomicBoolean();
+    ListenableStateRepository[] repository = new ListenableStateRepository[1];
+    repository[0] = new ListenableStateRepository(new InMemoryStateRepository() {
+      @Override
+      public FeatureState getFeatureState(Feature feature) {
+        FeatureState state = super.getFeatureState(feature);
+        if (modifyOnRead.getAndSet(false)) {
+          // another thread disables the feature after the state has been read
+          repository[0].setFeatureState(new FeatureState(Features.F1, false));
+        }
+        return state;
+      }
+    }, notifier);
+    FeatureManager listenableFeatureManager = new FeatureManagerBuilder()
+      .featureEnum(ByteBuddyProxyFactoryTest.Features.class)
+      .stateRepository(repository[0])
+      .userProvider(new NoOpUserProvider())
+      .build();
+    listenableFeatureManager.setFeatureState(new FeatureState(Features.F1, true));
+    modifyOnRead.set(true);
+    // When:
+    Supplier<String> proxy = ByteBuddyProxyFactory.changeDrivenProxyFor(Features.F1, Supplier.class, sayHello, sayWorld, listenableFeatureManager, notifier);
+    // Then:
+    assertEquals("World", proxy.get());
+  }
+
   private enum Features implements Feature {
     F1
   }
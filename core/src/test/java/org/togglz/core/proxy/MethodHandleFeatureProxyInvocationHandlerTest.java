@@ -0,0 +1,138 @@
+package org.togglz.core.proxy;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.togglz.core.Feature;
+import org.togglz.core.activation.UsernameActivationStrategy;
+import org.togglz.core.manager.FeatureManager;
+import org.togglz.core.manager.FeatureManagerBuilder;
+import org.togglz.core.proxy.MethodHandleFeatureProxyInvocationHandler.Evaluation;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.repository.listener.ListenableStateRepository;
+import org.togglz.core.repository.mem.InMemoryStateRepository;
+import org.togglz.core.user.FeatureUser;
+import org.togglz.core.user.SimpleFeatureUser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MethodHandleFeatureProxyInvocationHandlerTest {
+
+  private static final Supplier<String> sayHello = () -> "Hello";
+  private static final Supplier<String> sayWorld = () -> "World";
+  private ListenableStateRepository stateRepository;
+  private FeatureManager featureManager;
+  private FeatureUser currentUser = new SimpleFeatureUser("alice");
+
+  interface Calculator {
+    int add(int a, int b);
+  }
+
+  @BeforeEach
+  void before() {
+    stateRepository = new ListenableStateRepository(new InMemoryStateRepository());
+    featureManager = new FeatureManagerBuilder()
+      .featureEnum(Features.class)
+      .stateRepository(stateRepository)
+      .userProvider(() -> currentUser)
+      .build();
+
+    featureManager.setFeatureState(new FeatureState(Features.F1, true));
+  }
+
+  @Test
+  void jdkProxyListensToFeature() {
+    // Given:
+    Supplier<String> proxy = proxy(Supplier.class, sayHello, sayWorld, Evaluation.PER_INVOCATION);
+    // When:
+    featureManager.setFeatureState(new FeatureState(Features.F1, true));
+    assertEquals("Hello", proxy.get());
+    featureManager.setFeatureState(new FeatureState(Features.F1, false));
+    assertEquals("World", proxy.get());
+  }
+
+  @Test
+  void jdkProxyPassesArgumentsToNonPublicInterface() {
+    // Given:
+    Calculator proxy = proxy(Calculator.class, (a, b) -> a + b, (a, b) -> a - b, Evaluation.PER_INVOCATION);
+    // Then:
+    assertEquals(5, proxy.add(3, 2));
+    featureManager.setFeatureState(new FeatureState(Features.F1, false));
+    assertEquals(1, proxy.add(3, 2));
+  }
+
+  @Test
+  void jdkProxyPropagatesExceptionsOfTarget() {
+    // Given:
+    Supplier<String> failing = () -> {
+      throw new IllegalStateException("failed");
+    };
+    Supplier<String> proxy = proxy(Supplier.class, failing, sayWorld, Evaluation.PER_INVOCATION);
+    // Then:
+    assertThrows(IllegalStateException.class, proxy::get);
+  }
+
+  @Test
+  void passiveJdkProxyListensToFeatureOnlyWhenUpdated() {
+    // Given:
+    MethodHandleFeatureProxyInvocationHandler handler =
+      new MethodHandleFeatureProxyInvocationHandler(Features.F1, sayHello, sayWorld, featureManager, Evaluation.PASSIVE);
+    Supplier<String> proxy = proxy(Supplier.class, handler);
+    featureManager.setFeatureState(new FeatureState(Features.F1, false));
+    assertEquals("Hello", proxy.get()); // inactive state is ignored
+    // When:
+    handler.update();
+    // Then:
+    assertEquals("World", proxy.get());
+  }
+
+  @Test
+  void passiveJdkProxyIsUpdatedByStateChangeListener() {
+    // Given:
+    MethodHandleFeatureProxyInvocationHandler handler =
+      new MethodHandleFeatureProxyInvocationHandler(Features.F1, sayHello, sayWorld, featureManager, Evaluation.PASSIVE);
+    stateRepository.addFeatureStateChangedListener(handler);
+    Supplier<String> proxy = proxy(Supplier.class, handler);
+    assertEquals("Hello", proxy.get());
+    // When:
+    featureManager.setFeatureState(new FeatureState(Features.F1, false));
+    // Then:
+    assertEquals("World", proxy.get());
+  }
+
+  @Test
+  void passiveJdkProxyEvaluatesUserDependentStatesPerInvocation() {
+    // Given:
+    FeatureState state = new FeatureState(Features.F1, true)
+      .setStrategyId(UsernameActivationStrategy.ID)
+      .setParameter(UsernameActivationStrategy.PARAM_USERS, "alice");
+    featureManager.setFeatureState(state);
+    MethodHandleFeatureProxyInvocationHandler handler =
+      new MethodHandleFeatureProxyInvocationHandler(Features.F1, sayHello, sayWorld, featureManager, Evaluation.PASSIVE);
+    Supplier<String> proxy = proxy(Supplier.class, handler);
+    // When:
+    handler.update();
+    // Then:
+    assertEquals("Hello", proxy.get());
+    currentUser = null;
+    assertEquals("World", proxy.get());
+  }
+
+  private <T> T proxy(Class<T> interfaceClass, T active, T inactive, Evaluation evaluation) {
+    return proxy(interfaceClass,
+      new MethodHandleFeatureProxyInvocationHandler(Features.F1, active, inactive, featureManager, evaluation));
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T proxy(Class<? super T> interfaceClass, MethodHandleFeatureProxyInvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(this.getClass().getClassLoader(), new Class[] {interfaceClass}, handler);
+  }
+
+  private enum Features implements Feature {
+    F1
+  }
+
+}
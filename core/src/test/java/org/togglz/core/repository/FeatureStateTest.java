@@ -6,6 +6,8 @@ import org.togglz.core.Feature;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class FeatureStateTest {
@@ -32,6 +34,41 @@ class FeatureStateTest {
         assertEquals(0, state.getParameterNames().size());
     }
 
+    @Test
+    void testImmutableFeatureState() {
+
+        FeatureState state = new FeatureState(Features.FEATURE1, true)
+            .setStrategyId("strategy")
+            .setParameter("b", "2")
+            .setParameter("a", "1");
+        FeatureState immutable = state.toImmutable();
+
+        // equal to the mutable state, but cannot be modified
+        assertTrue(immutable.isImmutable());
+        assertEquals(state, immutable);
+        assertEquals(state.hashCode(), immutable.hashCode());
+        assertEquals("1", immutable.getParameter("a"));
+        assertEquals(state.getParameterMap(), immutable.getParameterMap());
+        assertSame(immutable, immutable.toImmutable());
+        assertThrows(UnsupportedOperationException.class, () -> immutable.setEnabled(false));
+        assertThrows(UnsupportedOperationException.class, () -> immutable.setParameter("a", "3"));
+        assertThrows(UnsupportedOperationException.class, () -> immutable.getParameterNames().remove("a"));
+
+        // copies are modifiable again
+        FeatureState copy = immutable.copy();
+        assertFalse(copy.isImmutable());
+        copy.setParameter("c", "3");
+        assertEquals(3, copy.getParameterNames().size());
+        assertEquals(2, immutable.getParameterNames().size());
+
+        // rebinding to another feature shares the parameters
+        FeatureState rebound = immutable.toImmutable(Features.FEATURE2);
+        assertTrue(rebound.isImmutable());
+        assertSame(Features.FEATURE2, rebound.getFeature());
+        assertEquals(state.getParameterMap(), rebound.getParameterMap());
+        assertSame(immutable, immutable.toImmutable(Features.FEATURE1));
+    }
+
     @Test
     void testEquals() {
 
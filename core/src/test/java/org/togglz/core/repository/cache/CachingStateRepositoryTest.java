@@ -3,7 +3,11 @@ package org.togglz.core.repository.cache;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.AfterEach;
@@ -11,6 +15,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.togglz.core.Feature;
 import org.togglz.core.repository.FeatureState;
@@ -22,6 +27,7 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 
@@ -129,11 +135,169 @@ class CachingStateRepositoryTest {
         Mockito.verifyNoMoreInteractions(delegate);
     }
 
+    @Test
+    void batchReadOnlyFetchesMissingStatesFromDelegate() {
+
+        StateRepository repository = new CachingStateRepository(delegate, 0);
+        assertTrue(repository.getFeatureState(DummyFeature.TEST).isEnabled());
+
+        Map<Feature, FeatureState> states = repository.getFeatureStates(Arrays.asList(DummyFeature.TEST, DummyFeature.TEST2));
+        assertTrue(states.get(DummyFeature.TEST).isEnabled());
+        assertFalse(states.containsKey(DummyFeature.TEST2));
+
+        // the missing state is cached as well
+        repository.getFeatureStates(Arrays.asList(DummyFeature.TEST, DummyFeature.TEST2));
+
+        Mockito.verify(delegate).getFeatureState(DummyFeature.TEST);
+        Mockito.verify(delegate).getFeatureStates(Collections.singletonList(DummyFeature.TEST2));
+    }
+
+    @Test
+    void cachesMissingStatesWithNegativeTtl() {
+
+        StateRepository repository = CachingStateRepository.newBuilder(delegate)
+            .ttl(10000, MILLISECONDS)
+            .negativeTtl(100, MILLISECONDS)
+            .build();
+
+        assertNull(repository.getFeatureState(DummyFeature.TEST2));
+        assertNull(repository.getFeatureState(DummyFeature.TEST2));
+        Mockito.verify(delegate, times(1)).getFeatureState(DummyFeature.TEST2);
+
+        tickClock(Duration.ofMillis(200));
+        assertNull(repository.getFeatureState(DummyFeature.TEST2));
+        Mockito.verify(delegate, times(2)).getFeatureState(DummyFeature.TEST2);
+    }
+
+    @Test
+    void schedulesSingleAsyncReloadPerFeature() {
+
+        ExecutorService executor = Mockito.mock(ExecutorService.class);
+        StateRepository repository = CachingStateRepository.newBuilder(delegate)
+            .executorService(executor)
+            .build();
+
+        for (int i = 0; i < 10; i++) {
+            assertNull(repository.getFeatureState(DummyFeature.TEST));
+        }
+
+        ArgumentCaptor<Runnable> reload = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(executor, times(1)).execute(reload.capture());
+        reload.getValue().run();
+        assertTrue(repository.getFeatureState(DummyFeature.TEST).isEnabled());
+    }
+
+    @Test
+    void returnsModifiableCopiesOfCachedStates() {
+        CachingStateRepository repository = new CachingStateRepository(delegate, 10000);
+
+        FeatureState state = repository.getFeatureState(DummyFeature.TEST);
+        state.disable();
+        repository.setFeatureState(state);
+
+        assertFalse(repository.getFeatureState(DummyFeature.TEST).isEnabled());
+        assertTrue(repository.getSharedFeatureState(DummyFeature.TEST).isImmutable());
+    }
+
+    @Test
+    void returnsSharedStatesForEvaluations() {
+        delegate.setFeatureState(new FeatureState(DummyFeature.TEST2, true));
+        CachingStateRepository repository = new CachingStateRepository(delegate, 10000);
+        // TEST is a hit, TEST2 is loaded by the batch read
+        repository.getFeatureState(DummyFeature.TEST);
+
+        Map<Feature, FeatureState> states = repository.getSharedFeatureStates(Arrays.asList(DummyFeature.TEST, DummyFeature.TEST2));
+
+        assertSame(repository.getSharedFeatureState(DummyFeature.TEST), states.get(DummyFeature.TEST));
+        assertSame(repository.getSharedFeatureState(DummyFeature.TEST2), states.get(DummyFeature.TEST2));
+        assertTrue(states.get(DummyFeature.TEST2).isImmutable());
+    }
+
     @Test
     void shouldFailForNegativeTtl() {
         Assertions.assertThrows(IllegalArgumentException.class, () -> new CachingStateRepository(delegate, -1));
     }
 
+    @Nested
+    class RefreshAheadTest {
+
+        private final ExecutorService executor = Mockito.mock(ExecutorService.class);
+
+        private final CachingStateRepository repository = CachingStateRepository.newBuilder(delegate)
+            .ttl(1000, MILLISECONDS)
+            .refreshAhead(0.5, executor)
+            .maxStaleness(1000, MILLISECONDS)
+            .build();
+
+        @Test
+        void loadsColdMissSynchronously() {
+            assertTrue(repository.getFeatureState(DummyFeature.TEST).isEnabled());
+            Mockito.verifyNoInteractions(executor);
+        }
+
+        @Test
+        void servesCachedStateWhileSingleRefreshIsPending() {
+            assertTrue(repository.getFeatureState(DummyFeature.TEST).isEnabled());
+            delegate.setFeatureState(new FeatureState(DummyFeature.TEST, false));
+
+            tickClock(Duration.ofMillis(600));
+            assertTrue(repository.getFeatureState(DummyFeature.TEST).isEnabled());
+            assertTrue(repository.getFeatureState(DummyFeature.TEST).isEnabled());
+
+            // only one refresh is scheduled
+            ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+            Mockito.verify(executor, times(1)).execute(refresh.capture());
+
+            refresh.getValue().run();
+            assertFalse(repository.getFeatureState(DummyFeature.TEST).isEnabled());
+        }
+
+        @Test
+        void keepsLastKnownStateIfRefreshFails() {
+            assertTrue(repository.getFeatureState(DummyFeature.TEST).isEnabled());
+            Mockito.doThrow(new IllegalStateException("unavailable")).when(delegate).getFeatureState(DummyFeature.TEST);
+
+            // expired, but within the max staleness
+            tickClock(Duration.ofMillis(1500));
+            ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+            assertTrue(repository.getFeatureState(DummyFeature.TEST).isEnabled());
+            Mockito.verify(executor).execute(refresh.capture());
+            refresh.getValue().run();
+            assertTrue(repository.getFeatureState(DummyFeature.TEST).isEnabled());
+
+            // beyond the max staleness the failure is propagated
+            tickClock(Duration.ofMillis(1000));
+            Assertions.assertThrows(IllegalStateException.class, () -> repository.getFeatureState(DummyFeature.TEST));
+        }
+
+        @Test
+        void discardsRefreshWhichStartedBeforeModification() {
+            assertTrue(repository.getFeatureState(DummyFeature.TEST).isEnabled());
+
+            // the state is modified after the refresh has read it from the delegate
+            Mockito.doAnswer(invocation -> {
+                Object state = invocation.callRealMethod();
+                repository.setFeatureState(new FeatureState(DummyFeature.TEST, false));
+                return state;
+            }).doCallRealMethod().when(delegate).getFeatureState(DummyFeature.TEST);
+
+            tickClock(Duration.ofMillis(600));
+            repository.getFeatureState(DummyFeature.TEST);
+            ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+            Mockito.verify(executor).execute(refresh.capture());
+            refresh.getValue().run();
+
+            assertFalse(repository.getFeatureState(DummyFeature.TEST).isEnabled());
+        }
+
+        @Test
+        void requiresTtl() {
+            Assertions.assertThrows(IllegalStateException.class,
+                () -> CachingStateRepository.newBuilder(delegate).refreshAhead(0.5, executor).build());
+        }
+
+    }
+
     @Nested
     class AsyncCacheStateRepositoryTest {
 
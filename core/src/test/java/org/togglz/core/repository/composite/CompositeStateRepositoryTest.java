@@ -11,6 +11,7 @@ import org.togglz.core.repository.mem.InMemoryStateRepository;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CompositeStateRepositoryTest {
@@ -62,6 +63,13 @@ class CompositeStateRepositoryTest {
         assertTrue(crepo.getFeatureState(TestFeature.F1).isEnabled());
     }
 
+    @Test
+    void testGetSharedFeatureReturnsStateOfBackingRepo() {
+        repo2.setFeatureState(new FeatureState(TestFeature.F1, true));
+
+        assertSame(repo2.getSharedFeatureState(TestFeature.F1), crepo.getSharedFeatureState(TestFeature.F1));
+    }
+
     @Test
     void testSetFeatureLAST() {
         crepo.setFeatureState(new FeatureState(TestFeature.F1, true));
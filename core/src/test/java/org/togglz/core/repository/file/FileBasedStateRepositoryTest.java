@@ -4,16 +4,21 @@ import org.junit.jupiter.api.Test;
 import org.togglz.core.Feature;
 import org.togglz.core.activation.UsernameActivationStrategy;
 import org.togglz.core.repository.FeatureState;
+import org.togglz.core.repository.property.PropertySource;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class FileBasedStateRepositoryTest {
@@ -304,6 +309,183 @@ public class FileBasedStateRepositoryTest {
         }
     }
 
+    @Test
+    public void writeDelayCoalescesModifications() throws IOException {
+
+        Properties initialProps = new Properties();
+        initialProps.setProperty("FEATURE1", "false");
+        File file = createPropertiesFile(initialProps);
+
+        try {
+
+            FileBasedStateRepository repo = new FileBasedStateRepository(file, 0, 60000);
+            repo.setFeatureState(new FeatureState(MyFeature.FEATURE1, true));
+            repo.setFeatureState(new FeatureState(MyFeature.FEATURE2, true).setStrategyId("some-strategy"));
+
+            // modifications are visible but not written yet
+            assertTrue(repo.getFeatureState(MyFeature.FEATURE1).isEnabled());
+            assertEquals("some-strategy", repo.getFeatureState(MyFeature.FEATURE2).getStrategyId());
+            assertEquals("false", readPropertiesFile(file).getProperty("FEATURE1"));
+
+            // closing writes all pending modifications
+            repo.close();
+            Properties newProps = readPropertiesFile(file);
+            assertEquals("true", newProps.getProperty("FEATURE1"));
+            assertEquals("true", newProps.getProperty("FEATURE2"));
+            assertEquals("some-strategy", newProps.getProperty("FEATURE2.strategy"));
+
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void writeDelayKeepsModificationsIfWriteFails() throws IOException {
+
+        File directory = Files.createTempDirectory("test-file-repository").toFile();
+        File file = new File(directory, "features.properties");
+        ReloadablePropertiesFile propertiesFile = new ReloadablePropertiesFile(file, 0, 60000);
+
+        try {
+
+            PropertySource.Editor editor = propertiesFile.getEditor();
+            editor.setValue("FEATURE1", "true");
+            editor.commit();
+
+            // the directory is missing, so the file cannot be written
+            assertTrue(directory.delete());
+            assertThrows(IllegalStateException.class, propertiesFile::flush);
+
+            // the modification is still pending
+            assertTrue(directory.mkdir());
+            propertiesFile.flush();
+            assertEquals("true", readPropertiesFile(file).getProperty("FEATURE1"));
+
+        } finally {
+            propertiesFile.close();
+            file.delete();
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void writeAfterCloseIsWrittenImmediately() throws IOException {
+
+        File file = createPropertiesFile(new Properties());
+        ReloadablePropertiesFile propertiesFile = new ReloadablePropertiesFile(file, 0, 60000);
+
+        try {
+
+            propertiesFile.close();
+
+            PropertySource.Editor editor = propertiesFile.getEditor();
+            editor.setValue("FEATURE1", "true");
+            editor.commit();
+
+            assertEquals("true", readPropertiesFile(file).getProperty("FEATURE1"));
+
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void writeKeepsSymbolicLink() throws IOException {
+
+        Properties initialProps = new Properties();
+        initialProps.setProperty("FEATURE1", "false");
+        File file = createPropertiesFile(initialProps);
+        Path link = file.toPath().resolveSibling(file.getName() + "-link");
+        Files.createSymbolicLink(link, file.toPath());
+
+        try {
+
+            FileBasedStateRepository repo = new FileBasedStateRepository(link.toFile());
+            repo.setFeatureState(new FeatureState(MyFeature.FEATURE1, true));
+
+            assertTrue(Files.isSymbolicLink(link));
+            assertEquals("true", readPropertiesFile(file).getProperty("FEATURE1"));
+
+        } finally {
+            Files.deleteIfExists(link);
+            file.delete();
+        }
+    }
+
+    @Test
+    public void sharedStatesAreReadOncePerReload() throws IOException {
+
+        Properties initialProps = new Properties();
+        initialProps.setProperty("FEATURE1", "true");
+        File file = createPropertiesFile(initialProps);
+
+        try {
+            FileBasedStateRepository repo = new FileBasedStateRepository(file, 60000);
+
+            FeatureState state = repo.getSharedFeatureState(MyFeature.FEATURE1);
+            assertTrue(state.isEnabled());
+            assertSame(state, repo.getSharedFeatureState(MyFeature.FEATURE1));
+
+            repo.setFeatureState(new FeatureState(MyFeature.FEATURE1, false));
+            assertFalse(repo.getSharedFeatureState(MyFeature.FEATURE1).isEnabled());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void watchingRepositoryPublishesOwnChangesImmediately() throws IOException {
+
+        File file = createPropertiesFile(new Properties());
+
+        try (FileBasedStateRepository repo = FileBasedStateRepository.watching(file, 100)) {
+
+            assertNull(repo.getFeatureState(MyFeature.FEATURE1));
+
+            repo.setFeatureState(new FeatureState(MyFeature.FEATURE1, true)
+                .setStrategyId("some-strategy").setParameter("myparam", "myvalue"));
+
+            FeatureState state = repo.getFeatureState(MyFeature.FEATURE1);
+            assertTrue(state.isEnabled());
+            assertEquals("some-strategy", state.getStrategyId());
+            assertEquals("myvalue", state.getParameter("myparam"));
+            assertEquals("true", readPropertiesFile(file).getProperty("FEATURE1"));
+
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void watchingRepositoryReloadsModifiedFile() throws Exception {
+
+        Properties initialProps = new Properties();
+        initialProps.setProperty("FEATURE1", "false");
+        File file = createPropertiesFile(initialProps);
+
+        try (FileBasedStateRepository repo = FileBasedStateRepository.watching(file, 50)) {
+
+            assertFalse(repo.getFeatureState(MyFeature.FEATURE1).isEnabled());
+
+            Properties newProps = new Properties();
+            newProps.setProperty("FEATURE1", "true");
+            newProps.setProperty("FEATURE2", "true");
+            try (FileOutputStream fos = new FileOutputStream(file)) {
+                newProps.store(fos, null);
+            }
+
+            long timeout = System.currentTimeMillis() + 5000;
+            while (repo.getFeatureState(MyFeature.FEATURE2) == null && System.currentTimeMillis() < timeout) {
+                Thread.sleep(10);
+            }
+            assertTrue(repo.getFeatureState(MyFeature.FEATURE1).isEnabled());
+            assertTrue(repo.getFeatureState(MyFeature.FEATURE2).isEnabled());
+
+        } finally {
+            file.delete();
+        }
+    }
+
     private static Properties readPropertiesFile(File file) throws IOException {
         FileInputStream fis = new FileInputStream(file);
         Properties p = new Properties();
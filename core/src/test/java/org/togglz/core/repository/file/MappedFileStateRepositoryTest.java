@@ -0,0 +1,233 @@
+package org.togglz.core.repository.file;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.togglz.core.Feature;
+import org.togglz.core.activation.UsernameActivationStrategy;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.util.NamedFeature;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedFileStateRepositoryTest {
+
+    private File file;
+
+    @BeforeEach
+    void before() throws IOException {
+        file = File.createTempFile("test-mapped-repository", null);
+    }
+
+    @AfterEach
+    void after() {
+        file.delete();
+    }
+
+    @Test
+    void shouldReadWrittenStates() throws IOException {
+        MappedFileStateRepository.write(file, Arrays.asList(
+            new FeatureState(MyFeature.FEATURE1, true)
+                .setStrategyId("some-strategy")
+                .setParameter("first", "1")
+                .setParameter("second", "zwö"),
+            new FeatureState(MyFeature.FEATURE2, false)));
+
+        MappedFileStateRepository repository = new MappedFileStateRepository(file, 0);
+
+        FeatureState state1 = repository.getFeatureState(MyFeature.FEATURE1);
+        assertTrue(state1.isEnabled());
+        assertEquals("some-strategy", state1.getStrategyId());
+        assertEquals("1", state1.getParameter("first"));
+        assertEquals("zwö", state1.getParameter("second"));
+        assertFalse(state1.isImmutable());
+
+        // evaluations share the decoded state
+        FeatureState sharedState = repository.getSharedFeatureState(MyFeature.FEATURE1);
+        assertTrue(sharedState.isImmutable());
+        assertSame(sharedState, repository.getSharedFeatureState(MyFeature.FEATURE1));
+
+        FeatureState state2 = repository.getFeatureState(MyFeature.FEATURE2);
+        assertFalse(state2.isEnabled());
+        assertNull(state2.getStrategyId());
+        assertTrue(state2.getParameterNames().isEmpty());
+
+        assertNull(repository.getFeatureState(MyFeature.FEATURE3));
+    }
+
+    @Test
+    void shouldReloadReplacedFile() throws IOException {
+        MappedFileStateRepository.write(file, Collections.singletonList(new FeatureState(MyFeature.FEATURE1, false)));
+        MappedFileStateRepository repository = new MappedFileStateRepository(file, 0);
+        assertFalse(repository.getFeatureState(MyFeature.FEATURE1).isEnabled());
+
+        repository.setFeatureState(new FeatureState(MyFeature.FEATURE2, true).setParameter("param", "value"));
+
+        assertFalse(repository.getFeatureState(MyFeature.FEATURE1).isEnabled());
+        assertTrue(repository.getFeatureState(MyFeature.FEATURE2).isEnabled());
+        assertEquals("value", new MappedFileStateRepository(file).getFeatureState(MyFeature.FEATURE2).getParameter("param"));
+    }
+
+    @Test
+    void shouldConvertPropertiesFile() throws IOException {
+        Properties props = new Properties();
+        props.setProperty("FEATURE1", "true");
+        props.setProperty("FEATURE1.strategy", UsernameActivationStrategy.ID);
+        props.setProperty("FEATURE1.param.users", "chkal");
+        props.setProperty("FEATURE2", "false");
+        props.setProperty("FEATURE2.users", "tester");
+
+        File propertiesFile = File.createTempFile("test-mapped-repository", ".properties");
+        try {
+            try (FileOutputStream stream = new FileOutputStream(propertiesFile)) {
+                props.store(stream, null);
+            }
+
+            MappedFileStateRepository.convert(propertiesFile, file);
+
+            MappedFileStateRepository repository = new MappedFileStateRepository(file);
+            FeatureState state1 = repository.getFeatureState(MyFeature.FEATURE1);
+            assertTrue(state1.isEnabled());
+            assertEquals(UsernameActivationStrategy.ID, state1.getStrategyId());
+            assertEquals("chkal", state1.getParameter(UsernameActivationStrategy.PARAM_USERS));
+
+            // users of the old format are migrated
+            FeatureState state2 = repository.getFeatureState(MyFeature.FEATURE2);
+            assertFalse(state2.isEnabled());
+            assertEquals("tester", state2.getParameter(UsernameActivationStrategy.PARAM_USERS));
+        } finally {
+            propertiesFile.delete();
+        }
+    }
+
+    @Test
+    void shouldIgnoreInvalidFile() throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(file)) {
+            stream.write("FEATURE1=true".getBytes());
+        }
+
+        assertNull(new MappedFileStateRepository(file).getFeatureState(MyFeature.FEATURE1));
+    }
+
+    @Test
+    void shouldReloadReplacedFileWithSameModificationDateAndSize() throws IOException {
+        MappedFileStateRepository.write(file, Collections.singletonList(
+            new FeatureState(MyFeature.FEATURE1, true).setStrategyId("first")));
+        long lastModified = file.lastModified();
+        MappedFileStateRepository repository = new MappedFileStateRepository(file, 0);
+        assertEquals("first", repository.getFeatureState(MyFeature.FEATURE1).getStrategyId());
+
+        MappedFileStateRepository.write(file, Collections.singletonList(
+            new FeatureState(MyFeature.FEATURE1, true).setStrategyId("other")));
+        assertTrue(file.setLastModified(lastModified));
+
+        assertEquals("other", repository.getFeatureState(MyFeature.FEATURE1).getStrategyId());
+    }
+
+    @Test
+    void shouldNotOverwriteInvalidFile() throws IOException {
+        byte[] content = "FEATURE1=true".getBytes();
+        try (FileOutputStream stream = new FileOutputStream(file)) {
+            stream.write(content);
+        }
+        MappedFileStateRepository repository = new MappedFileStateRepository(file, 0);
+
+        assertThrows(IllegalStateException.class,
+            () -> repository.setFeatureState(new FeatureState(MyFeature.FEATURE2, true)));
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    void shouldWriteToEmptyFile() {
+        MappedFileStateRepository repository = new MappedFileStateRepository(file, 0);
+        assertNull(repository.getFeatureState(MyFeature.FEATURE1));
+
+        repository.setFeatureState(new FeatureState(MyFeature.FEATURE1, true));
+
+        assertTrue(repository.getFeatureState(MyFeature.FEATURE1).isEnabled());
+    }
+
+    @Test
+    void shouldFindStatesWrittenInAnyOrder() throws IOException {
+        MappedFileStateRepository.write(file, Arrays.asList(
+            new FeatureState(MyFeature.FEATURE3, true),
+            new FeatureState(new NamedFeature("FEATURE\u00e9"), true).setStrategyId("accent"),
+            new FeatureState(new NamedFeature("FEATURE\ud83d\ude00"), true).setStrategyId("emoji"),
+            new FeatureState(MyFeature.FEATURE1, false)));
+        MappedFileStateRepository repository = new MappedFileStateRepository(file, 0);
+
+        assertFalse(repository.getFeatureState(MyFeature.FEATURE1).isEnabled());
+        assertNull(repository.getFeatureState(MyFeature.FEATURE2));
+        assertTrue(repository.getFeatureState(MyFeature.FEATURE3).isEnabled());
+        assertEquals("accent", repository.getFeatureState(new NamedFeature("FEATURE\u00e9")).getStrategyId());
+        assertEquals("emoji", repository.getFeatureState(new NamedFeature("FEATURE\ud83d\ude00")).getStrategyId());
+        assertNull(repository.getFeatureState(new NamedFeature("FEATURE")));
+        assertNull(repository.getFeatureState(new NamedFeature("FEATURE4")));
+    }
+
+    @Test
+    void shouldRejectDuplicateFeatures() {
+        assertThrows(IllegalArgumentException.class, () -> MappedFileStateRepository.write(file, Arrays.asList(
+            new FeatureState(MyFeature.FEATURE1, true),
+            new FeatureState(new NamedFeature("FEATURE1"), false))));
+    }
+
+    @Test
+    void shouldKeepPreviousMappingIfReplacedFileIsCorrupt() throws IOException {
+        MappedFileStateRepository.write(file, Arrays.asList(
+            new FeatureState(MyFeature.FEATURE1, true).setStrategyId("first"),
+            new FeatureState(MyFeature.FEATURE2, true).setStrategyId("second")));
+        MappedFileStateRepository repository = new MappedFileStateRepository(file, 0);
+        assertEquals("first", repository.getFeatureState(MyFeature.FEATURE1).getStrategyId());
+
+        // let the length of the second strategy id point past the end of the file
+        File corrupt = File.createTempFile("test-mapped-repository", null);
+        MappedFileStateRepository.write(corrupt, Arrays.asList(
+            new FeatureState(MyFeature.FEATURE1, false).setStrategyId("first"),
+            new FeatureState(MyFeature.FEATURE2, false).setStrategyId("second")));
+        byte[] content = Files.readAllBytes(corrupt.toPath());
+        content[content.length - 4 - "second".length() - 4] = 0x7F;
+        Files.write(corrupt.toPath(), content);
+        Files.move(corrupt.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        assertTrue(repository.getFeatureState(MyFeature.FEATURE1).isEnabled());
+        assertEquals("second", repository.getFeatureState(MyFeature.FEATURE2).getStrategyId());
+        assertNull(new MappedFileStateRepository(file, 0).getFeatureState(MyFeature.FEATURE1));
+    }
+
+    @Test
+    void shouldShareDecodedStateBetweenFeatureInstances() throws IOException {
+        MappedFileStateRepository.write(file, Collections.singletonList(new FeatureState(MyFeature.FEATURE1, true)));
+        MappedFileStateRepository repository = new MappedFileStateRepository(file, 0);
+
+        FeatureState state = repository.getSharedFeatureState(MyFeature.FEATURE1);
+        FeatureState namedState = repository.getSharedFeatureState(new NamedFeature("FEATURE1"));
+
+        assertSame(MyFeature.FEATURE1, state.getFeature());
+        assertEquals("FEATURE1", namedState.getFeature().name());
+        assertTrue(namedState.isEnabled());
+        assertSame(state, repository.getSharedFeatureState(MyFeature.FEATURE1));
+    }
+
+    private enum MyFeature implements Feature {
+        FEATURE1,
+        FEATURE2,
+        FEATURE3
+    }
+
+}
@@ -1,7 +1,19 @@
 package org.togglz.core.repository.jdbc;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.Test;
+import org.togglz.core.Feature;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.util.NamedFeature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class H2JDBCStateRepositoryTest extends JDBCStateRepositoryTest {
 
@@ -9,4 +21,75 @@ class H2JDBCStateRepositoryTest extends JDBCStateRepositoryTest {
     protected DataSource createDataSource() {
         return JdbcConnectionPool.create("jdbc:h2:mem:", "sa", "");
     }
+
+    @Test
+    void testShouldAssignDistinctVersionsToConcurrentModifications() throws Exception {
+        /*
+         * GIVEN a table with change version column
+         */
+        // unnamed in-memory databases are private to a single connection
+        DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:" + tableName + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JDBCStateRepository versionedRepository = defaultBuilder(dataSource).changeVersionColumn(true).build();
+
+        /*
+         * WHEN several threads modify features concurrently
+         */
+        modifyConcurrently(versionedRepository, 4, 25);
+
+        /*
+         * THEN every modification got its own version
+         */
+        assertDistinctVersions(dataSource, versionedRepository, 4, 25);
+    }
+
+    @Test
+    void testShouldCreateMissingCounterRowForConcurrentModifications() throws Exception {
+        /*
+         * GIVEN a table with change version column but without the counter row
+         */
+        DataSource dataSource = JdbcConnectionPool.create("jdbc:h2:mem:" + tableName + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JDBCStateRepository versionedRepository = defaultBuilder(dataSource).changeVersionColumn(true).build();
+        update(dataSource, substitute("DELETE FROM %TABLE% WHERE FEATURE_NAME = '"
+            + JDBCStateRepository.CHANGE_COUNTER_ROW + "'"));
+
+        /*
+         * WHEN several threads modify features concurrently
+         */
+        modifyConcurrently(versionedRepository, 4, 25);
+
+        /*
+         * THEN all modifications succeed and got their own version
+         */
+        assertDistinctVersions(dataSource, versionedRepository, 4, 25);
+    }
+
+    private static void modifyConcurrently(JDBCStateRepository repository, int threads, int modifications)
+        throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Feature feature = new NamedFeature("CONCURRENT_" + i);
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < modifications; j++) {
+                        repository.setFeatureState(new FeatureState(feature, j % 2 == 0));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void assertDistinctVersions(DataSource dataSource, JDBCStateRepository versionedRepository, int threads,
+        int modifications) {
+        FeatureStateChanges changes = versionedRepository.getFeatureStatesChangedSince(0);
+        assertEquals(threads, changes.getFeatureStates().size());
+        assertEquals(threads * modifications, changes.getVersion());
+        assertEquals(threads, ((Number) query(dataSource, "SELECT COUNT(DISTINCT CHANGE_VERSION) FROM " + tableName
+            + " WHERE FEATURE_NAME <> '" + JDBCStateRepository.CHANGE_COUNTER_ROW + "'")).intValue());
+    }
 }
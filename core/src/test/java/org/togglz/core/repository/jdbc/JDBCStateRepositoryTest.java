@@ -7,12 +7,19 @@ import org.togglz.core.Feature;
 import org.togglz.core.repository.FeatureState;
 import org.togglz.core.repository.util.DefaultMapSerializer;
 import org.togglz.core.util.DbUtils;
+import org.togglz.core.util.NamedFeature;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -20,6 +27,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 abstract class JDBCStateRepositoryTest {
@@ -134,6 +142,185 @@ abstract class JDBCStateRepositoryTest {
         assertEquals("foobar", state.getParameter("param23"));
     }
 
+    @Test
+    void testShouldReadMultipleStatesAtOnce() {
+        /*
+         * GIVEN database rows for two of three features
+         */
+        update(dataSource, substitute("INSERT INTO %TABLE% VALUES ('F1', 1, 'myStrategy', 'param23=foobar')"));
+        update(dataSource, substitute("INSERT INTO %TABLE% VALUES ('F2', 0, NULL, NULL)"));
+
+        /*
+         * WHEN the repository reads the states of all three features
+         */
+        Map<Feature, FeatureState> states = repository.getFeatureStates(
+            Arrays.asList(TestFeature.F1, TestFeature.F2, TestFeature.F3));
+
+        /*
+         * THEN only the stored states are returned
+         */
+        assertEquals(2, states.size());
+        assertTrue(states.get(TestFeature.F1).isEnabled());
+        assertEquals("foobar", states.get(TestFeature.F1).getParameter("param23"));
+        assertFalse(states.get(TestFeature.F2).isEnabled());
+        assertFalse(states.containsKey(TestFeature.F3));
+    }
+
+    @Test
+    void testShouldServeReadsFromSnapshot() {
+        /*
+         * GIVEN a repository using a snapshot without periodic refresh
+         */
+        update(dataSource, substitute("INSERT INTO %TABLE% VALUES ('F1', 1, NULL, NULL)"));
+        JDBCStateRepository snapshotRepository = defaultBuilder(dataSource).snapshot(0, TimeUnit.SECONDS).build();
+        assertTrue(snapshotRepository.getFeatureState(TestFeature.F1).isEnabled());
+
+        /*
+         * WHEN the database is modified directly
+         */
+        update(dataSource, substitute("INSERT INTO %TABLE% VALUES ('F2', 1, NULL, NULL)"));
+
+        /*
+         * THEN the change is not visible until the state is modified through the repository
+         */
+        assertNull(snapshotRepository.getFeatureState(TestFeature.F2));
+        snapshotRepository.setFeatureState(new FeatureState(TestFeature.F1, false));
+        assertFalse(snapshotRepository.getFeatureState(TestFeature.F1).isEnabled());
+        assertTrue(snapshotRepository.getFeatureState(TestFeature.F2).isEnabled());
+        assertEquals(TestFeature.F2, snapshotRepository.getFeatureState(TestFeature.F2).getFeature());
+    }
+
+    @Test
+    void testShouldServeModifiedSnapshotWhileRefreshing() throws Exception {
+        /*
+         * GIVEN a repository using a snapshot whose refresh blocks after a modification
+         */
+        update(dataSource, substitute("INSERT INTO %TABLE% VALUES ('F1', 1, NULL, NULL)"));
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean block = new AtomicBoolean();
+        DataSource blockingDataSource = Mockito.mock(DataSource.class);
+        Mockito.when(blockingDataSource.getConnection()).thenAnswer(invocation -> {
+            if (block.getAndSet(false)) {
+                refreshing.countDown();
+                release.await();
+            }
+            return dataSource.getConnection();
+        });
+        JDBCStateRepository snapshotRepository = defaultBuilder(blockingDataSource).snapshot(0, TimeUnit.SECONDS).build();
+        assertTrue(snapshotRepository.getFeatureState(TestFeature.F1).isEnabled());
+        snapshotRepository.setFeatureState(new FeatureState(TestFeature.F1, false));
+
+        /*
+         * WHEN another thread refreshes the snapshot
+         */
+        block.set(true);
+        Thread refresh = new Thread(() -> snapshotRepository.getFeatureState(TestFeature.F1));
+        refresh.start();
+        assertTrue(refreshing.await(5, TimeUnit.SECONDS));
+
+        /*
+         * THEN reads don't wait for the refresh and see the modification
+         */
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> assertFalse(snapshotRepository.getFeatureState(TestFeature.F1).isEnabled()));
+        } finally {
+            release.countDown();
+            refresh.join();
+        }
+        assertFalse(snapshotRepository.getFeatureState(TestFeature.F1).isEnabled());
+    }
+
+    @Test
+    void testShouldRefreshSnapshotWhenVersionChanges() throws InterruptedException {
+        /*
+         * GIVEN a repository using a snapshot refreshed when the number of rows changes
+         */
+        update(dataSource, substitute("INSERT INTO %TABLE% VALUES ('F1', 1, NULL, NULL)"));
+        JDBCStateRepository snapshotRepository = defaultBuilder(dataSource)
+            .snapshot(1, TimeUnit.MILLISECONDS)
+            .snapshotVersionQuery("SELECT COUNT(*) FROM %TABLE%")
+            .build();
+        assertNull(snapshotRepository.getFeatureState(TestFeature.F2));
+
+        /*
+         * WHEN rows are added and modified directly in the database
+         */
+        update(dataSource, substitute("UPDATE %TABLE% SET FEATURE_ENABLED = 0 WHERE FEATURE_NAME = 'F1'"));
+        Thread.sleep(10);
+        assertTrue(snapshotRepository.getFeatureState(TestFeature.F1).isEnabled());
+        update(dataSource, substitute("INSERT INTO %TABLE% VALUES ('F2', 1, NULL, NULL)"));
+        Thread.sleep(10);
+        snapshotRepository.getFeatureState(TestFeature.F1);
+
+        /*
+         * THEN only changes of the version trigger a reload
+         */
+        assertTrue(snapshotRepository.getFeatureState(TestFeature.F2).isEnabled());
+        assertFalse(snapshotRepository.getFeatureState(TestFeature.F1).isEnabled());
+    }
+
+    @Test
+    void testShouldFetchOnlyModifiedStates() {
+        /*
+         * GIVEN a repository maintaining the change version column
+         */
+        JDBCStateRepository versionedRepository = defaultBuilder(dataSource).changeVersionColumn(true).build();
+        versionedRepository.setFeatureState(new FeatureState(TestFeature.F1, true));
+        versionedRepository.setFeatureState(new FeatureState(TestFeature.F2, true));
+        FeatureStateChanges initial = versionedRepository.getFeatureStatesChangedSince(0);
+        assertEquals(2, initial.getFeatureStates().size());
+
+        /*
+         * WHEN nothing has been modified
+         */
+        FeatureStateChanges unchanged = versionedRepository.getFeatureStatesChangedSince(initial.getVersion());
+
+        /*
+         * THEN no rows are returned
+         */
+        assertTrue(unchanged.isEmpty());
+        assertEquals(initial.getVersion(), unchanged.getVersion());
+
+        /*
+         * AND only the modified row is returned after an update
+         */
+        versionedRepository.setFeatureState(new FeatureState(TestFeature.F1, false));
+        FeatureStateChanges changes = versionedRepository.getFeatureStatesChangedSince(initial.getVersion());
+        assertEquals(1, changes.getFeatureStates().size());
+        assertFalse(changes.getFeatureStates().get("F1").isEnabled());
+        assertTrue(changes.getVersion() > initial.getVersion());
+    }
+
+    @Test
+    void testShouldRefreshSnapshotUsingChangeVersion() throws InterruptedException {
+        /*
+         * GIVEN a snapshot of a table with change version column
+         */
+        JDBCStateRepository writer = defaultBuilder(dataSource).changeVersionColumn(true).build();
+        writer.setFeatureState(new FeatureState(TestFeature.F1, true));
+        JDBCStateRepository snapshotRepository = defaultBuilder(dataSource)
+            .changeVersionColumn(true)
+            .snapshot(1, TimeUnit.MILLISECONDS)
+            .build();
+        assertTrue(snapshotRepository.getFeatureState(TestFeature.F1).isEnabled());
+
+        /*
+         * WHEN another repository instance modifies the table
+         */
+        writer.setFeatureState(new FeatureState(TestFeature.F1, false));
+        writer.setFeatureState(new FeatureState(TestFeature.F2, true));
+        Thread.sleep(10);
+        snapshotRepository.getFeatureState(TestFeature.F1);
+
+        /*
+         * THEN the modified rows are merged into the snapshot
+         */
+        assertFalse(snapshotRepository.getFeatureState(TestFeature.F1).isEnabled());
+        assertTrue(snapshotRepository.getFeatureState(TestFeature.F2).isEnabled());
+    }
+
     @Test
     void testShouldUpdateExistingDatabaseEntry() {
         /*
@@ -270,6 +457,8 @@ abstract class JDBCStateRepositoryTest {
     }
 
     private enum TestFeature implements Feature {
-        F1
+        F1,
+        F2,
+        F3
     }
 }
@@ -126,6 +126,57 @@ class SchemaUpdaterTest {
         }
     }
 
+    @Test
+    void shouldMigrateToVersion3() throws SQLException {
+        Connection connection = createConnection();
+        try {
+
+            // create schema version 2
+            SchemaUpdater updater = new SchemaUpdater(connection, "TOGGLZ", DefaultMapSerializer.multiline());
+            updater.migrateToVersion1();
+            updater.migrateToVersion2();
+            assertTrue(updater.isSchemaVersion2());
+            update(connection, "INSERT INTO TOGGLZ VALUES ('F1', 1, NULL, NULL)");
+
+            // migrate the schema
+            updater.migrateToVersion3();
+            assertFalse(updater.isSchemaVersion2());
+
+            // existing rows start with version 0
+            List<Object[]> dataAfter = query(connection, "SELECT FEATURE_NAME, CHANGE_VERSION FROM TOGGLZ ORDER BY FEATURE_NAME");
+            assertEquals(2, dataAfter.size());
+            assertEquals("F1", dataAfter.get(0)[0]);
+            assertEquals(0L, ((Number) dataAfter.get(0)[1]).longValue());
+
+            // the counter row holds the last assigned version
+            assertEquals(JDBCStateRepository.CHANGE_COUNTER_ROW, dataAfter.get(1)[0]);
+            assertEquals(0L, ((Number) dataAfter.get(1)[1]).longValue());
+
+        } finally {
+            DbUtils.closeQuietly(connection);
+        }
+    }
+
+    @Test
+    void shouldMigrateSchemaQualifiedQuotedTableToVersion3() throws SQLException {
+        Connection connection = createConnection();
+        try {
+
+            update(connection, "CREATE SCHEMA MYSCHEMA");
+            SchemaUpdater updater = new SchemaUpdater(connection, "MYSCHEMA.\"Togglz\"", DefaultMapSerializer.multiline());
+            updater.migrateToVersion1();
+            updater.migrateToVersion2();
+
+            // the index name must not contain the schema or the quotes
+            assertEquals("Togglz_CHANGE_VERSION", updater.indexName("CHANGE_VERSION"));
+            updater.migrateToVersion3();
+            assertFalse(updater.isSchemaVersion2());
+
+        } finally {
+            DbUtils.closeQuietly(connection);
+        }
+    }
+
     private void update(Connection connection, String sql) throws SQLException {
         Statement statement = null;
         try {
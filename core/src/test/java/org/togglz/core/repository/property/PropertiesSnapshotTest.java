@@ -0,0 +1,127 @@
+package org.togglz.core.repository.property;
+
+import org.junit.jupiter.api.Test;
+import org.togglz.core.Feature;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.util.NamedFeature;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PropertiesSnapshotTest {
+
+    @Test
+    void shouldFindParameterKeysUsingIndex() {
+        Properties props = new Properties();
+        props.setProperty("FEATURE1", "true");
+        props.setProperty("FEATURE1.strategy", "some-strategy");
+        props.setProperty("FEATURE1.param.first", "1");
+        props.setProperty("FEATURE1.param.second", "2");
+        props.setProperty("FEATURE2.param.first", "3");
+
+        PropertiesSnapshot snapshot = new PropertiesSnapshot(props);
+
+        assertEquals(new HashSet<>(Arrays.asList("FEATURE1.param.first", "FEATURE1.param.second")),
+            snapshot.getKeysStartingWith("FEATURE1.param."));
+        assertTrue(snapshot.getKeysStartingWith("FEATURE3.param.").isEmpty());
+        assertEquals(new HashSet<>(Arrays.asList("FEATURE1.strategy", "FEATURE1.param.first", "FEATURE1.param.second")),
+            snapshot.getKeysStartingWith("FEATURE1."));
+        assertEquals("some-strategy", snapshot.getValue("FEATURE1.strategy", null));
+        assertEquals("default", snapshot.getValue("FEATURE3", "default"));
+    }
+
+    @Test
+    void shouldReadEachStateOnlyOncePerSnapshot() {
+        Properties props = new Properties();
+        props.setProperty("FEATURE1", "true");
+        props.setProperty("FEATURE1.param.first", "1");
+
+        SnapshotPropertySource source = new SnapshotPropertySource(new PropertiesSnapshot(props));
+        PropertyBasedStateRepository repository = new PropertyBasedStateRepository(source);
+
+        FeatureState state = repository.getSharedFeatureState(MyFeature.FEATURE1);
+        assertTrue(state.isEnabled());
+        assertEquals("1", state.getParameter("first"));
+        assertTrue(state.isImmutable());
+        assertSame(state, repository.getSharedFeatureState(MyFeature.FEATURE1));
+        assertNull(repository.getSharedFeatureState(MyFeature.FEATURE2));
+
+        // callers of getFeatureState() get a modifiable copy
+        FeatureState copy = repository.getFeatureState(MyFeature.FEATURE1);
+        assertFalse(copy.isImmutable());
+        assertEquals("1", copy.getParameter("first"));
+
+        // a new snapshot is read again
+        props.setProperty("FEATURE2", "true");
+        source.snapshot = new PropertiesSnapshot(props);
+        assertNotSame(state, repository.getSharedFeatureState(MyFeature.FEATURE1));
+        assertTrue(repository.getFeatureState(MyFeature.FEATURE2).isEnabled());
+    }
+
+    @Test
+    void shouldReadStateOnlyOnceForAllInstancesOfFeature() {
+        Properties props = new Properties();
+        props.setProperty("FEATURE1", "true");
+        props.setProperty("FEATURE1.param.first", "1");
+
+        PropertyBasedStateRepository repository = new PropertyBasedStateRepository(
+            new SnapshotPropertySource(new PropertiesSnapshot(props)));
+
+        FeatureState state = repository.getSharedFeatureState(MyFeature.FEATURE1);
+        FeatureState namedState = repository.getSharedFeatureState(new NamedFeature("FEATURE1"));
+        assertEquals("FEATURE1", namedState.getFeature().name());
+        assertEquals("1", namedState.getParameter("first"));
+        assertSame(state, repository.getSharedFeatureState(MyFeature.FEATURE1));
+        assertSame(MyFeature.FEATURE1, state.getFeature());
+        assertNull(repository.getSharedFeatureState(new NamedFeature("UNKNOWN")));
+    }
+
+    private static class SnapshotPropertySource implements PropertySource {
+
+        private PropertiesSnapshot snapshot;
+
+        private SnapshotPropertySource(PropertiesSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public void reloadIfUpdated() {
+        }
+
+        @Override
+        public Set<String> getKeysStartingWith(String prefix) {
+            return snapshot.getKeysStartingWith(prefix);
+        }
+
+        @Override
+        public String getValue(String key, String defaultValue) {
+            return snapshot.getValue(key, defaultValue);
+        }
+
+        @Override
+        public Editor getEditor() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PropertySource getSnapshot() {
+            return snapshot;
+        }
+
+    }
+
+    private enum MyFeature implements Feature {
+        FEATURE1,
+        FEATURE2
+    }
+
+}
@@ -0,0 +1,46 @@
+package org.togglz.core.user;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CachingUserProviderTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final AtomicReference<Object> key = new AtomicReference<>();
+
+    private final UserProvider userProvider = new CachingUserProvider(() -> {
+        calls.incrementAndGet();
+        return key.get() != null ? new SimpleFeatureUser(key.get().toString()) : null;
+    }, key::get);
+
+    @Test
+    void reusesUserAsLongAsKeyIsTheSame() {
+        key.set(new String("admin"));
+
+        FeatureUser user = userProvider.getCurrentUser();
+        assertEquals("admin", user.getName());
+        assertSame(user, userProvider.getCurrentUser());
+        assertEquals(1, calls.get());
+
+        // equal but not the same key
+        key.set(new String("admin"));
+        assertNotSame(user, userProvider.getCurrentUser());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void delegatesIfThereIsNoKey() {
+        assertNull(userProvider.getCurrentUser());
+        assertNull(userProvider.getCurrentUser());
+        assertEquals(2, calls.get());
+    }
+
+}
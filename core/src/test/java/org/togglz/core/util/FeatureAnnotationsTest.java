@@ -48,6 +48,17 @@ public class FeatureAnnotationsTest {
         FEATURE_WITH_NO_ANNOTATIONS
     }
 
+    private enum MyFeatureWithBody implements Feature {
+
+        @Label("Feature with body")
+        FEATURE_WITH_BODY {
+            @Override
+            public boolean isActive() {
+                return true;
+            }
+        }
+    }
+
     @Test
     void testGetLabel() {
         assertEquals("Some feature with a label", FeatureAnnotations.getLabel(MyFeature.FEATURE_WITH_LABEL));
@@ -100,6 +111,17 @@ public class FeatureAnnotationsTest {
         assertNotNull(result);
     }
 
+    @Test
+    void getAnnotationWillReturnAnnotationOfConstantWithBody() {
+        assertEquals("Feature with body", FeatureAnnotations.getLabel(MyFeatureWithBody.FEATURE_WITH_BODY));
+    }
+
+    @Test
+    void getAnnotationsWillReturnEmptySetForFeatureWithoutField() {
+        assertTrue(FeatureAnnotations.getAnnotations(new NamedFeature("UNKNOWN")).isEmpty());
+        assertNull(FeatureAnnotations.getAnnotation(new NamedFeature("UNKNOWN"), Label.class));
+    }
+
     @Test
     void getAnnotationWillReturnNullWhenAnnotationDoesNotExist() {
         Label result = FeatureAnnotations.getAnnotation(MyFeature.FEATURE_ENABLED_BY_DEFAULT, Label.class);
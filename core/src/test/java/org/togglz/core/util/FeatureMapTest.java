@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.togglz.core.Feature;
 import org.togglz.core.manager.FeatureManager;
+import org.togglz.core.manager.FeatureManagerBuilder;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -42,6 +43,28 @@ class FeatureMapTest {
         assertFalse(map.get("unknown"));
     }
 
+    @Test
+    void canAnswerLookupsFromSnapshot() {
+        FeatureManager featureManager = new FeatureManagerBuilder()
+            .featureEnum(MyFeatures.class)
+            .build();
+        featureManager.enable(MyFeatures.FEATURE_ONE);
+
+        Map<Object, Boolean> map = new FeatureMap(featureManager.evaluateAll());
+        featureManager.disable(MyFeatures.FEATURE_ONE);
+
+        assertEquals(2, map.size());
+        assertTrue(map.get(MyFeatures.FEATURE_ONE));
+        assertTrue(map.get("FEATURE_ONE"));
+        assertFalse(map.get(MyFeatures.FEATURE_TWO));
+        assertFalse(map.get("unknown"));
+    }
+
+    private enum MyFeatures implements Feature {
+        FEATURE_ONE,
+        FEATURE_TWO
+    }
+
     @Test
     void shouldReturnCorrectSize() {
         List<Feature> features = Arrays.<Feature>asList(
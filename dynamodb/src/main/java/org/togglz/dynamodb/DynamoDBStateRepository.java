@@ -10,13 +10,22 @@ import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeAction;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValueUpdate;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
 import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
 import software.amazon.awssdk.services.dynamodb.model.TableDescription;
 import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * A state repository that uses Amazon's DynamoDB.
@@ -29,6 +38,20 @@ public class DynamoDBStateRepository implements StateRepository {
 
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(DynamoDBStateRepository.class);
 
+    /**
+     * The maximum number of keys DynamoDB accepts in a single BatchGetItem request.
+     */
+    private static final int MAX_BATCH_GET_KEYS = 100;
+
+    /**
+     * The number of times keys which DynamoDB didn't process are requested again before they are read one by one.
+     */
+    private static final int MAX_BATCH_GET_RETRIES = 5;
+
+    private static final long BATCH_GET_BACKOFF_BASE_MILLIS = 50;
+
+    private static final long BATCH_GET_BACKOFF_MAX_MILLIS = 2000;
+
     private final ObjectMapper objectMapper;
     private final DynamoDbClient dynamoDbClient;
     private final String tableName;
@@ -55,6 +78,87 @@ public class DynamoDBStateRepository implements StateRepository {
         if (documentItem.isEmpty()) {
             return null;
         }
+        return toFeatureState(feature, documentItem);
+    }
+
+    /**
+     * Fetches the states of all supplied features using BatchGetItem requests of up to 100 keys each. Keys which
+     * DynamoDB didn't process because of throughput limits are requested again using exponential backoff with jitter.
+     * If some keys still haven't been processed after a few retries, they are read using single GetItem requests, which
+     * are retried by the client according to its retry policy.
+     */
+    @Override
+    public Map<Feature, FeatureState> getFeatureStates(Collection<? extends Feature> features) {
+        Map<String, Feature> featuresByName = new LinkedHashMap<>();
+        for (Feature feature : features) {
+            featuresByName.putIfAbsent(feature.name(), feature);
+        }
+
+        Map<String, Map<String, AttributeValue>> itemsByName = new HashMap<>();
+        List<String> names = new ArrayList<>(featuresByName.keySet());
+        for (int start = 0; start < names.size(); start += MAX_BATCH_GET_KEYS) {
+            List<Map<String, AttributeValue>> keys = new ArrayList<>();
+            for (String name : names.subList(start, Math.min(start + MAX_BATCH_GET_KEYS, names.size()))) {
+                keys.add(Map.of(primaryKeyAttribute, AttributeValue.builder().s(name).build()));
+            }
+            Map<String, KeysAndAttributes> requestItems = Map.of(tableName, KeysAndAttributes.builder()
+                    .keys(keys)
+                    .attributesToGet(primaryKeyAttribute, FEATURE_STATE_ATTRIBUTE_NAME)
+                    .build());
+            for (int attempt = 0; !requestItems.isEmpty(); attempt++) {
+                if (attempt > MAX_BATCH_GET_RETRIES) {
+                    getItems(requestItems.get(tableName), itemsByName);
+                    break;
+                }
+                if (attempt > 0) {
+                    backoff(attempt);
+                }
+                BatchGetItemResponse response = dynamoDbClient.batchGetItem(BatchGetItemRequest.builder()
+                        .requestItems(requestItems)
+                        .build());
+                for (Map<String, AttributeValue> item : response.responses().getOrDefault(tableName, List.of())) {
+                    itemsByName.put(item.get(primaryKeyAttribute).s(), item);
+                }
+                requestItems = response.unprocessedKeys();
+            }
+        }
+
+        Map<Feature, FeatureState> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Feature> entry : featuresByName.entrySet()) {
+            Map<String, AttributeValue> item = itemsByName.get(entry.getKey());
+            if (item != null && item.containsKey(FEATURE_STATE_ATTRIBUTE_NAME)) {
+                result.put(entry.getValue(), toFeatureState(entry.getValue(), item));
+            }
+        }
+        return result;
+    }
+
+    private void backoff(int attempt) {
+        long maxDelay = Math.min(BATCH_GET_BACKOFF_MAX_MILLIS, BATCH_GET_BACKOFF_BASE_MILLIS << attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading the feature states", e);
+        }
+    }
+
+    private void getItems(KeysAndAttributes unprocessed, Map<String, Map<String, AttributeValue>> itemsByName) {
+        log.warn("DynamoDB didn't process {} keys after {} retries, reading them one by one",
+                unprocessed.keys().size(), MAX_BATCH_GET_RETRIES);
+        for (Map<String, AttributeValue> key : unprocessed.keys()) {
+            Map<String, AttributeValue> item = dynamoDbClient.getItem(GetItemRequest.builder()
+                    .key(key)
+                    .attributesToGet(primaryKeyAttribute, FEATURE_STATE_ATTRIBUTE_NAME)
+                    .tableName(tableName)
+                    .build()).item();
+            if (item != null && !item.isEmpty()) {
+                itemsByName.put(key.get(primaryKeyAttribute).s(), item);
+            }
+        }
+    }
+
+    private FeatureState toFeatureState(Feature feature, Map<String, AttributeValue> documentItem) {
         if (documentItem.get(FEATURE_STATE_ATTRIBUTE_NAME).s() != null) {
             try {
                 FeatureStateStorageWrapper wrapper = objectMapper.reader()
@@ -1,5 +1,6 @@
 package org.togglz.dynamodb;
 
+import java.util.Arrays;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -119,6 +120,26 @@ class DynamoDBStateRepositoryIT {
         client.close();
     }
 
+    @Test
+    void featureStatesCanBeReadInBatches() {
+        DynamoDbClient client = setupAmazonDbClient();
+        DynamoDBStateRepository repository = new DynamoDBStateRepository.DynamoDBStateRepositoryBuilder(client)
+                .withStateStoredInTable("preexistingTable")
+                .build();
+
+        repository.setFeatureState(new FeatureState(TestFeature.BATCH_FEATURE).enable().setStrategyId("SomeStrategyId"));
+        repository.setFeatureState(new FeatureState(TestFeature.OTHER_BATCH_FEATURE).disable());
+
+        Map<Feature, FeatureState> states = repository.getFeatureStates(Arrays.asList(TestFeature.BATCH_FEATURE,
+                TestFeature.OTHER_BATCH_FEATURE, TestFeature.MISSING_BATCH_FEATURE, TestFeature.BATCH_FEATURE));
+
+        assertEquals(2, states.size());
+        assertTrue(states.get(TestFeature.BATCH_FEATURE).isEnabled());
+        assertEquals("SomeStrategyId", states.get(TestFeature.BATCH_FEATURE).getStrategyId());
+        assertFalse(states.get(TestFeature.OTHER_BATCH_FEATURE).isEnabled());
+        client.close();
+    }
+
     private static void storeFeature(DynamoDbClient client, String tableName, Feature feature, AttributeValue featureStateValue) {
         UpdateItemRequest request = UpdateItemRequest.builder()
                 .tableName(tableName)
@@ -136,6 +157,9 @@ class DynamoDBStateRepositoryIT {
     private enum TestFeature implements Feature {
         FEATURE,
         ANOTHER_FEATURE,
-        YET_ANOTHER_FEATURE
+        YET_ANOTHER_FEATURE,
+        BATCH_FEATURE,
+        OTHER_BATCH_FEATURE,
+        MISSING_BATCH_FEATURE
     }
 }
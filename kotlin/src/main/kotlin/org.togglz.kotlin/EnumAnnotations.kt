@@ -2,6 +2,7 @@ package org.togglz.kotlin
 
 import org.togglz.core.annotation.EnabledByDefault
 import org.togglz.core.annotation.Label
+import org.togglz.core.util.FeatureAnnotations
 
 object EnumAnnotations {
 
@@ -10,11 +11,10 @@ object EnumAnnotations {
     fun isEnabledByDefault(featureEnum: Enum<*>) = getAnnotation(featureEnum, EnabledByDefault::class.java) != null
 
     fun <A : Annotation> getAnnotation(featureEnum: Enum<*>, annotationClass: Class<A>): A? =
-            featureEnum.javaClass.getField(featureEnum.name).getAnnotation(annotationClass)
-                    ?: featureEnum.javaClass.getAnnotation(annotationClass)
+            FeatureAnnotations.getEnumAnnotation(featureEnum, annotationClass)
 
-    fun getAnnotations(featureEnum: Enum<*>): Set<Annotation> = featureEnum.javaClass.getField(featureEnum.name)
-            .annotations
-            .asList()
-            .union(featureEnum::class.annotations)
+    // kotlin.Metadata is only visible to Java reflection
+    fun getAnnotations(featureEnum: Enum<*>): Set<Annotation> = FeatureAnnotations.getEnumAnnotations(featureEnum)
+            .filterNot { it is Metadata }
+            .toSet()
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package org.togglz.mongodb;
 
 import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
@@ -10,6 +11,13 @@ import org.togglz.core.Feature;
 import org.togglz.core.repository.FeatureState;
 import org.togglz.core.repository.StateRepository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * <p>
  * A state repository which stores the feature state in a MongoDB database.
@@ -54,30 +62,67 @@ public class MongoStateRepository implements StateRepository {
         Document result = (Document) togglzCollection().find(queryFor(feature)).first();
 
         if (result != null) {
+            return toFeatureState(feature, result);
+        }
+        return null;
+    }
 
-            FeatureState state = new FeatureState(feature);
-
-            boolean enabledValue = result.getBoolean(FIELD_ENABLED, false);
-            state.setEnabled(enabledValue);
+    /**
+     * Fetches the states of all supplied features using a single query built from {@link #queryFor(Feature)}. If the
+     * queries of all features only differ in the feature name, they are merged into a single <code>$in</code> query,
+     * otherwise they are combined using <code>$or</code>.
+     */
+    @Override
+    public Map<Feature, FeatureState> getFeatureStates(Collection<? extends Feature> features) {
 
-            String strategyValue = result.getString(FIELD_STRATEGY);
-            if (strategyValue != null) {
-                state.setStrategyId(strategyValue.trim());
-            }
+        Map<String, Feature> featuresByName = new LinkedHashMap<>();
+        for (Feature feature : features) {
+            featuresByName.putIfAbsent(feature.name(), feature);
+        }
 
-            Object paramsValue = result.get(FIELD_PARAMS);
-            if (paramsValue instanceof Document) {
-                Document params = (Document) paramsValue;
-                for (String key : params.keySet()) {
-                    state.setParameter(key, params.get(key).toString().trim());
+        Map<String, Document> documentsByName = new HashMap<>();
+        if (!featuresByName.isEmpty()) {
+            Document query = queryFor(featuresByName.values());
+            try (MongoCursor<Document> cursor = togglzCollection().find(query).iterator()) {
+                while (cursor.hasNext()) {
+                    Document document = cursor.next();
+                    documentsByName.putIfAbsent(document.getString(FIELD_FEATURE), document);
                 }
+            }
+        }
 
+        Map<Feature, FeatureState> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Feature> entry : featuresByName.entrySet()) {
+            Document document = documentsByName.get(entry.getKey());
+            if (document != null) {
+                result.put(entry.getValue(), toFeatureState(entry.getValue(), document));
             }
+        }
+        return result;
+    }
 
-            return state;
+    protected FeatureState toFeatureState(Feature feature, Document document) {
 
+        FeatureState state = new FeatureState(feature);
+
+        boolean enabledValue = document.getBoolean(FIELD_ENABLED, false);
+        state.setEnabled(enabledValue);
+
+        String strategyValue = document.getString(FIELD_STRATEGY);
+        if (strategyValue != null) {
+            state.setStrategyId(strategyValue.trim());
         }
-        return null;
+
+        Object paramsValue = document.get(FIELD_PARAMS);
+        if (paramsValue instanceof Document) {
+            Document params = (Document) paramsValue;
+            for (String key : params.keySet()) {
+                state.setParameter(key, params.get(key).toString().trim());
+            }
+
+        }
+
+        return state;
     }
 
     @Override
@@ -109,6 +154,27 @@ public class MongoStateRepository implements StateRepository {
         return new Document(FIELD_FEATURE, feature.name());
     }
 
+    private Document queryFor(Collection<Feature> features) {
+        List<Document> queries = new ArrayList<>(features.size());
+        for (Feature feature : features) {
+            queries.add(queryFor(feature));
+        }
+
+        Document criteria = null;
+        List<Object> names = new ArrayList<>(queries.size());
+        for (Document query : queries) {
+            Object name = query.get(FIELD_FEATURE);
+            Document otherCriteria = new Document(query);
+            otherCriteria.remove(FIELD_FEATURE);
+            if (!(name instanceof String) || criteria != null && !criteria.equals(otherCriteria)) {
+                return new Document("$or", queries);
+            }
+            criteria = otherCriteria;
+            names.add(name);
+        }
+        return criteria.append(FIELD_FEATURE, new Document("$in", names));
+    }
+
     protected MongoCollection togglzCollection() {
         MongoDatabase db = mongoClient.getDatabase(dbname);
         return db.getCollection(collection).withWriteConcern(writeConcern);
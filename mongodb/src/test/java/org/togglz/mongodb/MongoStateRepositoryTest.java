@@ -9,7 +9,10 @@ import org.testcontainers.containers.MongoDBContainer;
 import org.togglz.core.Feature;
 import org.togglz.core.repository.FeatureState;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 
@@ -80,7 +83,33 @@ public class MongoStateRepositoryTest {
 
     }
 
+    @Test
+    public void testGetFeatureStates() {
+        final MongoClient mongoClient = MongoClients.create(mongoDBContainer.getReplicaSetUrl());
+
+        final MongoStateRepository mongoStateRepository = MongoStateRepository.newBuilder(mongoClient, "mongo-state-repository-batch-test").build();
+
+        final FeatureState featureState = new FeatureState(TestFeature.FEATURE_1)
+                .setEnabled(true)
+                .setStrategyId("some-strategy")
+                .setParameter("key", "value");
+        mongoStateRepository.setFeatureState(featureState);
+        mongoStateRepository.setFeatureState(new FeatureState(TestFeature.FEATURE_2).setEnabled(false));
+
+        final Map<Feature, FeatureState> featureStates = mongoStateRepository.getFeatureStates(
+                Arrays.asList(TestFeature.FEATURE_1, TestFeature.FEATURE_2, TestFeature.FEATURE_3, TestFeature.FEATURE_1));
+
+        assertThat(featureStates).containsOnlyKeys(TestFeature.FEATURE_1, TestFeature.FEATURE_2);
+        assertThat(featureStates.get(TestFeature.FEATURE_1).isEnabled()).isTrue();
+        assertThat(featureStates.get(TestFeature.FEATURE_1).getStrategyId()).isEqualTo("some-strategy");
+        assertThat(featureStates.get(TestFeature.FEATURE_1).getParameter("key")).isEqualTo("value");
+        assertThat(featureStates.get(TestFeature.FEATURE_2).isEnabled()).isFalse();
+        assertThat(mongoStateRepository.getFeatureStates(Collections.<Feature>emptyList())).isEmpty();
+    }
+
     private enum TestFeature implements Feature {
-        FEATURE_1
+        FEATURE_1,
+        FEATURE_2,
+        FEATURE_3
     }
 }
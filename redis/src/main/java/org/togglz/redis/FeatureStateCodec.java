@@ -0,0 +1,100 @@
+package org.togglz.redis;
+
+import static org.togglz.redis.RedisStateRepository.ENABLED_FIELD;
+import static org.togglz.redis.RedisStateRepository.PARAMETER_PREFIX;
+import static org.togglz.redis.RedisStateRepository.PARAMETER_PREFIX_LENGTH;
+import static org.togglz.redis.RedisStateRepository.STRATEGY_FIELD;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.togglz.core.Feature;
+import org.togglz.core.repository.FeatureState;
+
+/**
+ * Converts feature states from and to the representations stored in Redis, which are shared by
+ * {@link RedisStateRepository} and {@link RedisLettuceStateRepository}.
+ * <p>
+ * By default each feature is stored in its own hash with one field for the enabled flag, the strategy and each
+ * parameter. If all features are stored in a single hash, the fields of a feature are encoded into a single value
+ * like <code>enabled=true&amp;strategy=gradual&amp;parameter%3Apercentage=25</code>.
+ * </p>
+ */
+final class FeatureStateCodec {
+
+    /**
+     * Replaces a hash by the fields supplied as arguments, so that stale fields are removed atomically. The fields are
+     * set one by one because <code>unpack(ARGV)</code> fails once the arguments exceed the stack size of Lua.
+     */
+    static final String REPLACE_HASH_SCRIPT =
+        "redis.call('DEL', KEYS[1]) "
+            + "for i = 1, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end "
+            + "return 1";
+
+    private FeatureStateCodec() {
+    }
+
+    static Map<String, String> toHash(final FeatureState featureState) {
+        final Map<String, String> hash = new LinkedHashMap<>();
+        hash.put(ENABLED_FIELD, Boolean.toString(featureState.isEnabled()));
+        final String strategyId = featureState.getStrategyId();
+        if (strategyId != null) {
+            hash.put(STRATEGY_FIELD, strategyId);
+        }
+        for (final String name : featureState.getParameterNames()) {
+            final String value = featureState.getParameter(name);
+            if (value != null) {
+                hash.put(PARAMETER_PREFIX + name, value);
+            }
+        }
+        return hash;
+    }
+
+    static FeatureState fromHash(final Feature feature, final Map<String, String> hash) {
+        if (hash == null || hash.isEmpty()) {
+            return null;
+        }
+        final FeatureState featureState = new FeatureState(feature);
+        featureState.setEnabled(Boolean.parseBoolean(hash.get(ENABLED_FIELD)));
+        featureState.setStrategyId(hash.get(STRATEGY_FIELD));
+        for (final Map.Entry<String, String> entry : hash.entrySet()) {
+            final String key = entry.getKey();
+            if (key.startsWith(PARAMETER_PREFIX)) {
+                featureState.setParameter(key.substring(PARAMETER_PREFIX_LENGTH), entry.getValue());
+            }
+        }
+        return featureState;
+    }
+
+    static String encode(final FeatureState featureState) {
+        final StringBuilder value = new StringBuilder();
+        for (final Map.Entry<String, String> entry : toHash(featureState).entrySet()) {
+            if (value.length() > 0) {
+                value.append('&');
+            }
+            value.append(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8))
+                .append('=')
+                .append(URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8));
+        }
+        return value.toString();
+    }
+
+    static FeatureState decode(final Feature feature, final String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        final Map<String, String> hash = new LinkedHashMap<>();
+        for (final String pair : value.split("&")) {
+            final int separator = pair.indexOf('=');
+            if (separator > 0) {
+                hash.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return fromHash(feature, hash);
+    }
+
+}
@@ -1,14 +1,24 @@
 package org.togglz.redis;
 
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
 import io.lettuce.core.api.StatefulConnection;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisHashAsyncCommands;
 import io.lettuce.core.api.sync.RedisHashCommands;
+import io.lettuce.core.api.sync.RedisScriptingCommands;
 import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.togglz.core.Feature;
 import org.togglz.core.repository.FeatureState;
 import org.togglz.core.repository.StateRepository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -26,6 +36,12 @@ import java.util.Optional;
  * Lettuce doesn't provide default client creator (localhost as a default host, 6379 as a default port)
  * so an exception is made when StatefulConnection pool is not set correctly
  * </p>
+ * <p>
+ * By default the state of each feature is stored in its own hash, which is replaced atomically using a Lua script
+ * when the state is modified. If a {@link Builder#singleHashKey(String) single hash key} is configured, the states of
+ * all features are stored as fields of this hash instead, so the states of any number of features are read using a
+ * single command.
+ * </p>
  *
  * @author Jakub Klebek
  */
@@ -38,9 +54,11 @@ public class RedisLettuceStateRepository implements StateRepository {
 
     protected final GenericObjectPool<StatefulConnection<String, String>> pool;
     protected final String keyPrefix;
+    protected final String singleHashKey;
 
     private RedisLettuceStateRepository(final Builder builder) {
         keyPrefix = builder.keyPrefix;
+        singleHashKey = builder.singleHashKey;
         pool = Optional.ofNullable(builder.lettucePool)
             .orElseThrow(() -> new RedisLettuceStateRepositoryException("Missing lettuce pool configuration"));
     }
@@ -51,22 +69,47 @@ public class RedisLettuceStateRepository implements StateRepository {
         try {
             connection = pool.borrowObject();
             final RedisHashCommands<String, String> commands = getCommands(connection);
-            final Map<String, String> redisMap = commands.hgetall(keyPrefix + feature.name());
-            if (redisMap.isEmpty()) {
-                return null;
+            if (singleHashKey != null) {
+                return FeatureStateCodec.decode(feature, commands.hget(singleHashKey, feature.name()));
+            }
+            return FeatureStateCodec.fromHash(feature, commands.hgetall(keyPrefix + feature.name()));
+        } catch (Exception e) {
+            throw new RedisLettuceStateRepositoryException("Error while getting feature state", e);
+        } finally {
+            if (connection != null) {
+                pool.returnObject(connection);
+            }
+        }
+    }
+
+    /**
+     * Fetches the states of all supplied features by issuing all commands asynchronously before awaiting the replies,
+     * so that they share a single round trip.
+     */
+    @Override
+    public Map<Feature, FeatureState> getFeatureStates(final Collection<? extends Feature> features) {
+        StatefulConnection<String, String> connection = null;
+        try {
+            connection = pool.borrowObject();
+            final List<Feature> distinctFeatures = new ArrayList<>(new LinkedHashSet<>(features));
+            if (singleHashKey != null) {
+                return getFeatureStatesFromSingleHash(getCommands(connection), distinctFeatures);
             }
-            final FeatureState featureState = new FeatureState(feature);
-            featureState.setEnabled(Boolean.valueOf(redisMap.get(ENABLED_FIELD)));
-            featureState.setStrategyId(redisMap.get(STRATEGY_FIELD));
-            for (final Map.Entry<String, String> entry : redisMap.entrySet()) {
-                final String key = entry.getKey();
-                if (key.startsWith(PARAMETER_PREFIX)) {
-                    featureState.setParameter(key.substring(PARAMETER_PREFIX_LENGTH), entry.getValue());
+            final RedisHashAsyncCommands<String, String> commands = getAsyncCommands(connection);
+            final List<RedisFuture<Map<String, String>>> futures = new ArrayList<>(distinctFeatures.size());
+            for (final Feature feature : distinctFeatures) {
+                futures.add(commands.hgetall(keyPrefix + feature.name()));
+            }
+            final Map<Feature, FeatureState> result = new LinkedHashMap<>();
+            for (int i = 0; i < distinctFeatures.size(); i++) {
+                final FeatureState featureState = FeatureStateCodec.fromHash(distinctFeatures.get(i), futures.get(i).get());
+                if (featureState != null) {
+                    result.put(distinctFeatures.get(i), featureState);
                 }
             }
-            return featureState;
+            return result;
         } catch (Exception e) {
-            throw new RedisLettuceStateRepositoryException("Error while getting feature state", e);
+            throw new RedisLettuceStateRepositoryException("Error while getting feature states", e);
         } finally {
             if (connection != null) {
                 pool.returnObject(connection);
@@ -74,24 +117,48 @@ public class RedisLettuceStateRepository implements StateRepository {
         }
     }
 
+    private Map<Feature, FeatureState> getFeatureStatesFromSingleHash(final RedisHashCommands<String, String> commands,
+                                                                      final List<Feature> features) {
+        final Map<Feature, FeatureState> result = new LinkedHashMap<>();
+        if (features.isEmpty()) {
+            return result;
+        }
+        final String[] fields = new String[features.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = features.get(i).name();
+        }
+        final List<KeyValue<String, String>> values = commands.hmget(singleHashKey, fields);
+        for (int i = 0; i < fields.length; i++) {
+            final FeatureState featureState = FeatureStateCodec.decode(features.get(i), values.get(i).getValueOrElse(null));
+            if (featureState != null) {
+                result.put(features.get(i), featureState);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the stored state, including the removal of parameters which are not part of the new state, using a
+     * single atomic operation.
+     */
     @Override
     public void setFeatureState(final FeatureState featureState) {
         StatefulConnection<String, String> connection = null;
         try {
             connection = pool.borrowObject();
-            final RedisHashCommands<String, String> commands = getCommands(connection);
-            final String featureKey = keyPrefix + featureState.getFeature().name();
-            commands.hset(featureKey, ENABLED_FIELD, Boolean.toString(featureState.isEnabled()));
-            final String strategyId = featureState.getStrategyId();
-            if (strategyId != null) {
-                commands.hset(featureKey, STRATEGY_FIELD, strategyId);
+            if (singleHashKey != null) {
+                getCommands(connection).hset(singleHashKey, featureState.getFeature().name(),
+                    FeatureStateCodec.encode(featureState));
+                return;
             }
-            final Map<String, String> parameterMap = featureState.getParameterMap();
-            if (parameterMap != null) {
-                for (final Map.Entry<String, String> entry : parameterMap.entrySet()) {
-                    commands.hset(featureKey, PARAMETER_PREFIX + entry.getKey(), entry.getValue());
-                }
+            final String featureKey = keyPrefix + featureState.getFeature().name();
+            final List<String> arguments = new ArrayList<>();
+            for (final Map.Entry<String, String> entry : FeatureStateCodec.toHash(featureState).entrySet()) {
+                arguments.add(entry.getKey());
+                arguments.add(entry.getValue());
             }
+            getScriptingCommands(connection).eval(FeatureStateCodec.REPLACE_HASH_SCRIPT, ScriptOutputType.INTEGER,
+                new String[] {featureKey}, arguments.toArray(new String[0]));
         } catch (Exception e) {
             throw new RedisLettuceStateRepositoryException("Error while setting feature state", e);
         } finally {
@@ -109,6 +176,22 @@ public class RedisLettuceStateRepository implements StateRepository {
         return ((StatefulRedisClusterConnection) connection).sync();
     }
 
+    private RedisScriptingCommands<String, String> getScriptingCommands(final StatefulConnection<String, String> connection) {
+        if (connection instanceof StatefulRedisConnection) {
+            return ((StatefulRedisConnection<String, String>) connection).sync();
+        }
+
+        return ((StatefulRedisClusterConnection<String, String>) connection).sync();
+    }
+
+    private RedisHashAsyncCommands<String, String> getAsyncCommands(final StatefulConnection<String, String> connection) {
+        if (connection instanceof StatefulRedisConnection) {
+            return ((StatefulRedisConnection) connection).async();
+        }
+
+        return ((StatefulRedisClusterConnection) connection).async();
+    }
+
     /**
      * Builder for a {@link RedisLettuceStateRepository}.
      * <p>
@@ -128,6 +211,7 @@ public class RedisLettuceStateRepository implements StateRepository {
 
         private GenericObjectPool<StatefulConnection<String, String>> lettucePool;
         private String keyPrefix = "togglz:";
+        private String singleHashKey = null;
 
         /**
          * Sets the Lettuce Pool.
@@ -149,6 +233,17 @@ public class RedisLettuceStateRepository implements StateRepository {
             return this;
         }
 
+        /**
+         * Stores the states of all features as fields of a single hash with the supplied key instead of using a hash
+         * for each feature. The key prefix isn't used in this case.
+         *
+         * @param singleHashKey the key of the hash containing all features
+         */
+        public Builder singleHashKey(final String singleHashKey) {
+            this.singleHashKey = singleHashKey;
+            return this;
+        }
+
         /**
          * Creates a new {@link RedisLettuceStateRepository} using the current settings.
          */
@@ -1,5 +1,10 @@
 package org.togglz.redis;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
 import org.togglz.core.Feature;
@@ -7,6 +12,10 @@ import org.togglz.core.repository.FeatureState;
 import org.togglz.core.repository.StateRepository;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.util.Pool;
 
 /**
@@ -15,6 +24,12 @@ import redis.clients.jedis.util.Pool;
  * The class provides a builder which can be used to configure the state repository instance
  * (e.g. Redis hostname, Redis/Jedis configuration, serialization).
  * </p>
+ * <p>
+ * By default the state of each feature is stored in its own hash, which is replaced atomically using a
+ * <code>MULTI</code> transaction when the state is modified. If a {@link Builder#singleHashKey(String) single hash key}
+ * is configured, the states of all features are stored as fields of this hash instead, so the states of any number
+ * of features are read using a single command.
+ * </p>
  *
  * @author Cosmin Rentea
  */
@@ -27,45 +42,97 @@ public class RedisStateRepository implements StateRepository {
 
     protected final Pool<Jedis> jedisPool;
     protected final String keyPrefix;
+    protected final String singleHashKey;
 
     private RedisStateRepository(final Builder builder) {
         keyPrefix = builder.keyPrefix;
+        singleHashKey = builder.singleHashKey;
         jedisPool = builder.jedisPool != null ? builder.jedisPool : new JedisPool();
     }
 
     @Override
     public FeatureState getFeatureState(final Feature feature) {
         try (final Jedis jedis = jedisPool.getResource()) {
-            final Map<String, String> redisMap = jedis.hgetAll(keyPrefix + feature.name());
-            if (redisMap == null || redisMap.size() == 0) {
-                return null;
+            if (singleHashKey != null) {
+                return FeatureStateCodec.decode(feature, jedis.hget(singleHashKey, feature.name()));
             }
-            final FeatureState featureState = new FeatureState(feature);
-            featureState.setEnabled(Boolean.parseBoolean(redisMap.get(ENABLED_FIELD)));
-            featureState.setStrategyId(redisMap.get(STRATEGY_FIELD));
-            for (final Map.Entry<String, String> entry : redisMap.entrySet()) {
-                final String key = entry.getKey();
-                if (key.startsWith(PARAMETER_PREFIX)) {
-                    featureState.setParameter(key.substring(PARAMETER_PREFIX_LENGTH), entry.getValue());
-                }
+            return FeatureStateCodec.fromHash(feature, jedis.hgetAll(keyPrefix + feature.name()));
+        }
+    }
+
+    /**
+     * Fetches the states of all supplied features using a single pipelined round trip.
+     */
+    @Override
+    public Map<Feature, FeatureState> getFeatureStates(final Collection<? extends Feature> features) {
+        final List<Feature> distinctFeatures = new ArrayList<>(new LinkedHashSet<>(features));
+        if (singleHashKey != null) {
+            return getFeatureStatesFromSingleHash(distinctFeatures);
+        }
+        final List<Response<Map<String, String>>> responses = new ArrayList<>(distinctFeatures.size());
+        try (final Jedis jedis = jedisPool.getResource(); final Pipeline pipeline = jedis.pipelined()) {
+            for (final Feature feature : distinctFeatures) {
+                responses.add(pipeline.hgetAll(keyPrefix + feature.name()));
+            }
+            pipeline.sync();
+        }
+        final Map<Feature, FeatureState> result = new LinkedHashMap<>();
+        for (int i = 0; i < distinctFeatures.size(); i++) {
+            final FeatureState featureState = FeatureStateCodec.fromHash(distinctFeatures.get(i), responses.get(i).get());
+            if (featureState != null) {
+                result.put(distinctFeatures.get(i), featureState);
+            }
+        }
+        return result;
+    }
+
+    private Map<Feature, FeatureState> getFeatureStatesFromSingleHash(final List<Feature> features) {
+        final Map<Feature, FeatureState> result = new LinkedHashMap<>();
+        if (features.isEmpty()) {
+            return result;
+        }
+        final String[] fields = new String[features.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = features.get(i).name();
+        }
+        final List<String> values;
+        try (final Jedis jedis = jedisPool.getResource()) {
+            values = jedis.hmget(singleHashKey, fields);
+        }
+        for (int i = 0; i < fields.length; i++) {
+            final FeatureState featureState = FeatureStateCodec.decode(features.get(i), values.get(i));
+            if (featureState != null) {
+                result.put(features.get(i), featureState);
             }
-            return featureState;
         }
+        return result;
     }
 
+    /**
+     * Replaces the stored state, including the removal of parameters which are not part of the new state, using a
+     * single atomic operation.
+     */
     @Override
     public void setFeatureState(final FeatureState featureState) {
         try (final Jedis jedis = jedisPool.getResource()) {
+            if (singleHashKey != null) {
+                jedis.hset(singleHashKey, featureState.getFeature().name(), FeatureStateCodec.encode(featureState));
+                return;
+            }
             final String featureKey = keyPrefix + featureState.getFeature().name();
-            jedis.hset(featureKey, ENABLED_FIELD, Boolean.toString(featureState.isEnabled()));
-            final String strategyId = featureState.getStrategyId();
-            if (strategyId != null) {
-                jedis.hset(featureKey, STRATEGY_FIELD, strategyId);
+            final List<Object> replies;
+            try (final Transaction transaction = jedis.multi()) {
+                transaction.del(featureKey);
+                transaction.hset(featureKey, FeatureStateCodec.toHash(featureState));
+                replies = transaction.exec();
             }
-            final Map<String, String> parameterMap = featureState.getParameterMap();
-            if (parameterMap != null) {
-                for (final Map.Entry<String, String> entry : parameterMap.entrySet()) {
-                    jedis.hset(featureKey, PARAMETER_PREFIX + entry.getKey(), entry.getValue());
+            // exec() returns the errors of failed commands instead of throwing them
+            if (replies == null) {
+                throw new JedisDataException("Transaction replacing " + featureKey + " was aborted");
+            }
+            for (final Object reply : replies) {
+                if (reply instanceof JedisDataException) {
+                    throw (JedisDataException) reply;
                 }
             }
         }
@@ -88,6 +155,7 @@ public class RedisStateRepository implements StateRepository {
 
         private Pool<Jedis> jedisPool = null;
         private String keyPrefix = "togglz:";
+        private String singleHashKey = null;
 
         /**
          * Creates a new builder for a {@link RedisStateRepository}.
@@ -116,6 +184,17 @@ public class RedisStateRepository implements StateRepository {
             return this;
         }
 
+        /**
+         * Stores the states of all features as fields of a single hash with the supplied key instead of using a hash
+         * for each feature. The key prefix isn't used in this case.
+         *
+         * @param singleHashKey the key of the hash containing all features
+         */
+        public Builder singleHashKey(final String singleHashKey) {
+            this.singleHashKey = singleHashKey;
+            return this;
+        }
+
         /**
          * Creates a new {@link RedisStateRepository} using the current settings.
          */
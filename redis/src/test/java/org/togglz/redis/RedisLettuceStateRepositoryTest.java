@@ -19,6 +19,10 @@ import org.togglz.core.repository.FeatureState;
 import org.togglz.core.repository.StateRepository;
 import org.togglz.core.util.NamedFeature;
 
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -125,6 +129,81 @@ public class RedisLettuceStateRepositoryTest {
         assertTrue(pool.getNumActive() == 0, "All connections should be returned to the pool after each operation");
     }
 
+    @Test
+    public void testSetFeatureStateRemovesStaleFields() {
+        final StateRepository stateRepository = aRedisStateRepository();
+        final Feature feature = new NamedFeature("A_FEATURE");
+        stateRepository.setFeatureState(new FeatureState(feature, true)
+            .setStrategyId("TIT_FOR_TAT")
+            .setParameter("MEANING_OF_LIFE", "42"));
+
+        final FeatureState featureState = new FeatureState(feature, false);
+        stateRepository.setFeatureState(featureState);
+        final FeatureState storedFeatureState = stateRepository.getFeatureState(feature);
+
+        assertNull(storedFeatureState.getStrategyId());
+        assertTrue(storedFeatureState.getParameterNames().isEmpty());
+        assertTrue(EqualsBuilder.reflectionEquals(featureState, storedFeatureState, true));
+    }
+
+    @Test
+    public void testSetFeatureStateWithManyParameters() {
+        final StateRepository stateRepository = aRedisStateRepository();
+        final Feature feature = new NamedFeature("A_FEATURE");
+        final FeatureState featureState = new FeatureState(feature, true).setStrategyId("TIT_FOR_TAT");
+        for (int i = 0; i < 10000; i++) {
+            featureState.setParameter("PARAMETER_" + i, Integer.toString(i));
+        }
+
+        stateRepository.setFeatureState(featureState);
+        final FeatureState storedFeatureState = stateRepository.getFeatureState(feature);
+
+        assertEquals(10000, storedFeatureState.getParameterNames().size());
+        assertTrue(EqualsBuilder.reflectionEquals(featureState, storedFeatureState, true));
+    }
+
+    @Test
+    public void testGetFeatureStatesUsingPipeline() {
+        final StateRepository stateRepository = aRedisStateRepository();
+        final Feature feature = new NamedFeature("A_FEATURE");
+        final Feature otherFeature = new NamedFeature("OTHER_FEATURE");
+        final FeatureState featureState = new FeatureState(feature, true)
+            .setStrategyId("TIT_FOR_TAT")
+            .setParameter("MEANING_OF_LIFE", "42");
+        stateRepository.setFeatureState(featureState);
+        stateRepository.setFeatureState(new FeatureState(otherFeature, false));
+
+        final Map<Feature, FeatureState> featureStates = stateRepository.getFeatureStates(
+            Arrays.asList(feature, otherFeature, new NamedFeature("MISSING_FEATURE"), feature));
+
+        assertEquals(2, featureStates.size());
+        assertTrue(EqualsBuilder.reflectionEquals(featureState, featureStates.get(feature), true));
+        assertFalse(featureStates.get(otherFeature).isEnabled());
+    }
+
+    @Test
+    public void testSingleHashLayout() {
+        final StateRepository stateRepository = new RedisLettuceStateRepository.Builder()
+            .lettucePool(createPool())
+            .singleHashKey("feature-toggles")
+            .build();
+        final Feature feature = new NamedFeature("A_FEATURE");
+        final Feature otherFeature = new NamedFeature("OTHER_FEATURE");
+        final FeatureState featureState = new FeatureState(feature, true)
+            .setStrategyId("TIT_FOR_TAT")
+            .setParameter("MEANING_OF_LIFE", "42");
+
+        stateRepository.setFeatureState(featureState);
+        stateRepository.setFeatureState(new FeatureState(otherFeature, false));
+
+        assertTrue(EqualsBuilder.reflectionEquals(featureState, stateRepository.getFeatureState(feature), true));
+        assertNull(stateRepository.getFeatureState(new NamedFeature("MISSING_FEATURE")));
+        final Map<Feature, FeatureState> featureStates = stateRepository.getFeatureStates(
+            Arrays.asList(feature, otherFeature, new NamedFeature("MISSING_FEATURE")));
+        assertEquals(2, featureStates.size());
+        assertFalse(featureStates.get(otherFeature).isEnabled());
+    }
+
     private RedisLettuceStateRepository aRedisStateRepository() {
         return new RedisLettuceStateRepository.Builder()
             .keyPrefix("feature-toggles:")
@@ -17,6 +17,7 @@ import org.togglz.core.Togglz;
 import org.togglz.core.bootstrap.FeatureManagerBootstrapper;
 import org.togglz.core.context.ContextClassLoaderFeatureManagerProvider;
 import org.togglz.core.context.FeatureContext;
+import org.togglz.core.manager.FeatureEvaluationScope;
 import org.togglz.core.manager.FeatureManager;
 import org.togglz.core.spi.FeatureManagerListener;
 import org.togglz.core.util.Services;
@@ -40,6 +41,8 @@ public class TogglzFilter implements Filter {
 
     private CompositeRequestListener requestListener;
 
+    private boolean requestScopedEvaluation;
+
     public void init(FilterConfig filterConfig) {
 
         // build the configuration object
@@ -47,6 +50,9 @@ public class TogglzFilter implements Filter {
 
         requestListener = new CompositeRequestListener(Services.getSorted(RequestListener.class));
 
+        // memoize feature decisions per request?
+        requestScopedEvaluation = config.isRequestScopedEvaluation();
+
         // did the user specify whether to perform bootstrap or not?
         Boolean bootstrap = config.isPerformBootstrap();
 
@@ -101,6 +107,10 @@ public class TogglzFilter implements Filter {
             HttpServletRequest request = (HttpServletRequest) req;
             HttpServletResponse response = (HttpServletResponse) resp;
 
+            if (requestScopedEvaluation) {
+                FeatureEvaluationScope.begin();
+            }
+
             try {
 
                 // notify listeners
@@ -111,8 +121,19 @@ public class TogglzFilter implements Filter {
 
             } finally {
 
-                // notify listeners
-                requestListener.end(request, response);
+                try {
+
+                    // notify listeners
+                    requestListener.end(request, response);
+
+                } finally {
+
+                    // must not leak into the next request handled by this thread
+                    if (requestScopedEvaluation) {
+                        FeatureEvaluationScope.end();
+                    }
+
+                }
 
             }
 
@@ -135,6 +156,9 @@ public class TogglzFilter implements Filter {
 
         }
 
+        // don't keep references to the application in the caches, but keep those of other applications
+        FeatureContext.clearCache(Thread.currentThread().getContextClassLoader());
+
     }
 
 }
@@ -27,6 +27,14 @@ class TogglzFilterConfig {
         return null;
     }
 
+    /**
+     * Returns <code>true</code> if feature decisions should be memoized for the duration of a request.
+     */
+    public boolean isRequestScopedEvaluation() {
+        String requestScoped = servletContext.getInitParameter("org.togglz.REQUEST_SCOPED_EVALUATION");
+        return requestScoped != null && toBool(requestScoped);
+    }
+
     private static boolean toBool(String value) {
         if (value != null && "true".equalsIgnoreCase(value.trim())) {
             return true;
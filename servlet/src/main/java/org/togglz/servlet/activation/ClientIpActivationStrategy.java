@@ -5,27 +5,37 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.togglz.core.activation.Parameter;
 import org.togglz.core.repository.FeatureState;
-import org.togglz.core.spi.ActivationStrategy;
+import org.togglz.core.spi.ParsedParametersActivationStrategy;
 import org.togglz.core.user.FeatureUser;
 import org.togglz.core.util.Strings;
 import org.togglz.servlet.util.HttpServletRequestHolder;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * Activation strategy that will use the IP address of the client to decide if a feature is active or not.
+ * <p>
+ * IP addresses and CIDR ranges are parsed once per feature state. Host names are resolved again for every evaluation,
+ * so changes of their DNS records are taken into account.
+ * </p>
  *
  * @author Christian Kaltepoth
  */
-public class ClientIpActivationStrategy implements ActivationStrategy {
+public class ClientIpActivationStrategy implements ParsedParametersActivationStrategy<ClientIpActivationStrategy.AllowedAddresses> {
     private final Logger log = LoggerFactory.getLogger(ClientIpActivationStrategy.class);
 
     public static final String ID = "client-ip";
 
     public static final String PARAM_IPS = "ips";
 
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9.]+|.*:.*");
+
     @Override
     public String getId() {
         return ID;
@@ -37,27 +47,49 @@ public class ClientIpActivationStrategy implements ActivationStrategy {
     }
 
     @Override
-    public boolean isActive(FeatureState featureState, FeatureUser user) {
+    public AllowedAddresses parseParameters(FeatureState featureState) {
+        AllowedAddresses allowed = new AllowedAddresses();
+        for (String part : Strings.splitAndTrim(featureState.getParameter(PARAM_IPS), "[\\s,]+")) {
+            allowed.literals.add(part);
+            try {
+                if (part.contains("/")) {
+                    allowed.ranges.add(new CIDRUtils(part));
+                } else if (IP_LITERAL.matcher(part).matches()) {
+                    // parsing a literal doesn't require a DNS lookup
+                    allowed.addresses.add(InetAddress.getByName(part));
+                } else {
+                    allowed.hostNames.add(part);
+                }
+            } catch (UnknownHostException | IllegalArgumentException e) {
+                log.warn("Ignoring illegal IP address or CIDR range " + part);
+            }
+        }
+        return allowed;
+    }
+
+    @Override
+    public boolean evaluate(FeatureState featureState, FeatureUser user, AllowedAddresses allowed) {
         HttpServletRequest request = HttpServletRequestHolder.get();
         if (request != null) {
-            List<String> parts = Strings.splitAndTrim(featureState.getParameter(PARAM_IPS), "[\\s,]+");
             try {
                 String remoteAddr = request.getHeader("X-Forwarded-For");
                 if (Strings.isBlank(remoteAddr)) {
                     remoteAddr = request.getRemoteAddr();
                 }
+                if (allowed.literals.contains(remoteAddr)) { // shortcut
+                    return true;
+                }
                 InetAddress remoteInetAddress = InetAddress.getByName(remoteAddr);
-                for (String part : parts) {
-                    if (part.equals(remoteAddr)) { // shortcut
+                for (CIDRUtils range : allowed.ranges) {
+                    if (range.isInRange(remoteInetAddress)) {
                         return true;
                     }
-
-                    if (part.contains("/")) {
-                        CIDRUtils cidrUtil = new CIDRUtils(part);
-                        if (cidrUtil.isInRange(remoteInetAddress)) {
-                            return true;
-                        }
-                    } else if (remoteInetAddress.equals(InetAddress.getByName(part))) {
+                }
+                if (allowed.addresses.contains(remoteInetAddress)) {
+                    return true;
+                }
+                for (String hostName : allowed.hostNames) {
+                    if (remoteInetAddress.equals(InetAddress.getByName(hostName))) {
                         return true;
                     }
                 }
@@ -73,6 +105,18 @@ public class ClientIpActivationStrategy implements ActivationStrategy {
         return new Parameter[]{new AddressParameter()};
     }
 
+    /**
+     * The parsed list of client IPs and address ranges.
+     */
+    protected static final class AllowedAddresses {
+
+        private final Set<String> literals = new HashSet<>();
+        private final List<InetAddress> addresses = new ArrayList<>();
+        private final List<String> hostNames = new ArrayList<>();
+        private final List<CIDRUtils> ranges = new ArrayList<>();
+
+    }
+
     protected static class AddressParameter implements Parameter {
 
         @Override
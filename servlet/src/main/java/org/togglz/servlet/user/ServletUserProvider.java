@@ -1,6 +1,7 @@
 package org.togglz.servlet.user;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.togglz.core.user.CachingUserProvider;
 import org.togglz.core.user.FeatureUser;
 import org.togglz.core.user.SimpleFeatureUser;
 import org.togglz.core.user.UserProvider;
@@ -26,6 +27,16 @@ public class ServletUserProvider implements UserProvider {
         this.featureAdminRole = featureAdminRole;
     }
 
+    /**
+     * Creates a provider which checks the feature admin role only once for each principal instead of calling
+     * {@link HttpServletRequest#isUserInRole(String)} for every feature evaluation.
+     *
+     * @param featureAdminRole the feature admin role name
+     */
+    public static UserProvider caching(String featureAdminRole) {
+        return new CachingUserProvider(new ServletUserProvider(featureAdminRole), ServletUserProvider::getRequestPrincipal);
+    }
+
     @Override
     public FeatureUser getCurrentUser() {
         HttpServletRequest request = HttpServletRequestHolder.get();
@@ -42,4 +53,9 @@ public class ServletUserProvider implements UserProvider {
         boolean featureAdmin = request.isUserInRole(featureAdminRole);
         return new SimpleFeatureUser(principal.getName(), featureAdmin);
     }
+
+    private static Principal getRequestPrincipal() {
+        HttpServletRequest request = HttpServletRequestHolder.get();
+        return request != null ? request.getUserPrincipal() : null;
+    }
 }
@@ -0,0 +1,82 @@
+package org.togglz.servlet;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.togglz.core.manager.FeatureEvaluationScope;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+class TogglzFilterTest {
+
+    private final TogglzFilter filter = new TogglzFilter();
+
+    @AfterEach
+    void cleanup() {
+        filter.destroy();
+        FeatureEvaluationScope.end();
+    }
+
+    @Test
+    void shouldNotBindEvaluationScopeByDefault() throws Exception {
+        filter.init(filterConfig(null));
+
+        AtomicBoolean bound = new AtomicBoolean();
+        filter.doFilter(request(), response(), (req, resp) -> bound.set(FeatureEvaluationScope.isBound()));
+
+        assertFalse(bound.get());
+    }
+
+    @Test
+    void shouldBindEvaluationScopeWhileProcessingTheRequest() throws Exception {
+        filter.init(filterConfig("true"));
+
+        AtomicBoolean bound = new AtomicBoolean();
+        filter.doFilter(request(), response(), (req, resp) -> bound.set(FeatureEvaluationScope.isBound()));
+
+        assertTrue(bound.get());
+        assertFalse(FeatureEvaluationScope.isBound());
+    }
+
+    @Test
+    void shouldEndEvaluationScopeIfTheRequestFails() throws Exception {
+        filter.init(filterConfig("true"));
+
+        FilterChain chain = (req, resp) -> {
+            throw new ServletException("failed");
+        };
+        assertThrows(ServletException.class, () -> filter.doFilter(request(), response(), chain));
+
+        assertFalse(FeatureEvaluationScope.isBound());
+    }
+
+    private static FilterConfig filterConfig(String requestScopedEvaluation) {
+        ServletContext servletContext = Mockito.mock(ServletContext.class);
+        when(servletContext.getInitParameter("org.togglz.FEATURE_MANAGER_PROVIDED")).thenReturn("true");
+        when(servletContext.getInitParameter("org.togglz.REQUEST_SCOPED_EVALUATION")).thenReturn(requestScopedEvaluation);
+        FilterConfig filterConfig = Mockito.mock(FilterConfig.class);
+        when(filterConfig.getServletContext()).thenReturn(servletContext);
+        return filterConfig;
+    }
+
+    private static HttpServletRequest request() {
+        return Mockito.mock(HttpServletRequest.class);
+    }
+
+    private static HttpServletResponse response() {
+        return Mockito.mock(HttpServletResponse.class);
+    }
+
+}
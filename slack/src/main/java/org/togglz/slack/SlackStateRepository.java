@@ -37,6 +37,11 @@ public class SlackStateRepository implements StateRepository {
         return wrappedRepository.getFeatureState(feature);
     }
 
+    @Override
+    public FeatureState getSharedFeatureState(Feature feature) {
+        return wrappedRepository.getSharedFeatureState(feature);
+    }
+
     @Override
     public void setFeatureState(FeatureState featureState) {
         wrappedRepository.setFeatureState(featureState);
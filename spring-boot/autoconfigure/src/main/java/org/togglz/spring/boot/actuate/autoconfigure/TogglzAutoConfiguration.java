@@ -29,6 +29,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
@@ -61,6 +62,7 @@ import org.togglz.core.user.UserProvider;
 import org.togglz.spring.boot.actuate.thymeleaf.TogglzDialect;
 import org.togglz.spring.listener.TogglzApplicationContextBinderApplicationListener;
 import org.togglz.spring.security.SpringSecurityUserProvider;
+import org.togglz.spring.web.FeatureEvaluationScopeInterceptor;
 import org.togglz.spring.web.FeatureInterceptor;
 import org.togglz.spring.web.spi.HttpServletRequestHolderFilter;
 
@@ -226,7 +228,7 @@ public class TogglzAutoConfiguration {
 
         @Bean
         public UserProvider userProvider() {
-            return new SpringSecurityUserProvider(properties.getConsole().getFeatureAdminAuthority());
+            return SpringSecurityUserProvider.caching(properties.getConsole().getFeatureAdminAuthority());
         }
     }
 
@@ -252,6 +254,17 @@ public class TogglzAutoConfiguration {
         }
     }
 
+    @Configuration
+    @ConditionalOnWebApplication
+    @ConditionalOnClass(HandlerInterceptor.class)
+    @ConditionalOnProperty(prefix = "togglz.web", name = "request-scoped-evaluation", havingValue = "true")
+    protected static class TogglzFeatureEvaluationScopeConfiguration implements WebMvcConfigurer {
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new FeatureEvaluationScopeInterceptor()).order(Ordered.HIGHEST_PRECEDENCE);
+        }
+    }
+
     @Configuration
     @ConditionalOnClass(IProcessorDialect.class)
     protected static class ThymeleafTogglzDialectConfiguration {
@@ -398,6 +398,12 @@ public class TogglzProperties {
 		 */
 		private boolean registerFeatureInterceptor = false;
 
+		/**
+		 * Memoize feature decisions and the current user for the duration of
+		 * a request.
+		 */
+		private boolean requestScopedEvaluation = false;
+
 		public boolean isRegisterFeatureInterceptor() {
 			return registerFeatureInterceptor;
 		}
@@ -405,6 +411,14 @@ public class TogglzProperties {
 		public void setRegisterFeatureInterceptor(boolean registerFeatureInterceptor) {
 			this.registerFeatureInterceptor = registerFeatureInterceptor;
 		}
+
+		public boolean isRequestScopedEvaluation() {
+			return requestScopedEvaluation;
+		}
+
+		public void setRequestScopedEvaluation(boolean requestScopedEvaluation) {
+			this.requestScopedEvaluation = requestScopedEvaluation;
+		}
 	}
 
 	public static class Endpoint {
@@ -0,0 +1,30 @@
+package org.togglz.spring.boot.actuate.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.togglz.spring.boot.actuate.BaseTest;
+
+/**
+ * Tests for the request-scoped evaluation support of {@link TogglzAutoConfiguration}.
+ */
+public class TogglzFeatureEvaluationScopeConfigurationTest extends BaseTest {
+
+    @Test
+    public void evaluationScopeInterceptorIsNotRegisteredByDefault() {
+        contextRunner
+            .withUserConfiguration(FeatureProviderConfig.class)
+            .run((context) -> assertThat(context)
+                    .doesNotHaveBean(TogglzAutoConfiguration.TogglzFeatureEvaluationScopeConfiguration.class));
+    }
+
+    @Test
+    public void evaluationScopeInterceptorIsRegisteredIfEnabled() {
+        contextRunner
+            .withPropertyValues("togglz.web.request-scoped-evaluation: true")
+            .withUserConfiguration(FeatureProviderConfig.class)
+            .run((context) -> assertThat(context)
+                    .hasSingleBean(TogglzAutoConfiguration.TogglzFeatureEvaluationScopeConfiguration.class));
+    }
+
+}
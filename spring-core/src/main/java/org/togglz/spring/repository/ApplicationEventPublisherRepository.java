@@ -34,6 +34,11 @@ public class ApplicationEventPublisherRepository implements StateRepository {
         return delegate.getFeatureState(feature);
     }
 
+    @Override
+    public FeatureState getSharedFeatureState(Feature feature) {
+        return delegate.getSharedFeatureState(feature);
+    }
+
     @Override
     public void setFeatureState(FeatureState featureState) {
         FeatureState previousFeatureState = getFeatureState(featureState.getFeature());
@@ -4,6 +4,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.togglz.core.user.CachingUserProvider;
 import org.togglz.core.user.FeatureUser;
 import org.togglz.core.user.SimpleFeatureUser;
 import org.togglz.core.user.UserProvider;
@@ -20,6 +21,15 @@ public class SpringSecurityUserProvider implements UserProvider {
         this.featureAdminAuthority = featureAdminAuthority;
     }
 
+    /**
+     * Creates a provider which resolves the user and its authorities only once for each {@link Authentication} instead
+     * of for every feature evaluation. A new authentication, for example after a login, resolves the user again.
+     */
+    public static UserProvider caching(String featureAdminAuthority) {
+        return new CachingUserProvider(new SpringSecurityUserProvider(featureAdminAuthority),
+            SpringSecurityUserProvider::createAuthentication);
+    }
+
     @Override
     public FeatureUser getCurrentUser() {
         Authentication authentication = createAuthentication();
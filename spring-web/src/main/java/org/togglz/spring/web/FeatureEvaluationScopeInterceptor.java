@@ -0,0 +1,34 @@
+package org.togglz.spring.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.togglz.core.manager.FeatureEvaluationScope;
+
+/**
+ * This interceptor binds a {@link FeatureEvaluationScope} to the request, so that each feature is evaluated at most
+ * once and the current user is resolved only once while the handler is processing the request.
+ * <p>
+ * Set the togglz.web.request-scoped-evaluation to {@code true} to activate this interceptor.
+ */
+public class FeatureEvaluationScopeInterceptor implements AsyncHandlerInterceptor {
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+        FeatureEvaluationScope.begin();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(final HttpServletRequest request, final HttpServletResponse response,
+                                               final Object handler) {
+        // the request continues on another thread, afterCompletion won't be called on this one
+        FeatureEvaluationScope.end();
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, final Object handler,
+                                final Exception ex) {
+        FeatureEvaluationScope.end();
+    }
+}
@@ -0,0 +1,42 @@
+package org.togglz.spring.web;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.togglz.core.manager.FeatureEvaluationScope;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeatureEvaluationScopeInterceptorTest {
+
+    private final FeatureEvaluationScopeInterceptor interceptor = new FeatureEvaluationScopeInterceptor();
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @AfterEach
+    void after() {
+        FeatureEvaluationScope.end();
+    }
+
+    @Test
+    void bindsScopeUntilCompletion() throws Exception {
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+        assertTrue(FeatureEvaluationScope.isBound());
+
+        interceptor.afterCompletion(request, response, new Object(), null);
+        assertFalse(FeatureEvaluationScope.isBound());
+    }
+
+    @Test
+    void endsScopeWhenAsyncHandlingStarts() throws Exception {
+        interceptor.preHandle(request, response, new Object());
+
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+        assertFalse(FeatureEvaluationScope.isBound());
+    }
+
+}